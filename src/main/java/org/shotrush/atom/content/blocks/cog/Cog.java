@@ -8,11 +8,11 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.ItemDisplay;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.util.Transformation;
 import org.joml.AxisAngle4f;
 import org.joml.Vector3f;
 import org.shotrush.atom.Atom;
 import org.shotrush.atom.core.blocks.CustomBlock;
+import org.shotrush.atom.core.blocks.CustomBlockTicker;
 import org.shotrush.atom.core.blocks.annotation.AutoRegister;
 import org.shotrush.atom.core.blocks.util.BlockRotationUtil;
 import org.shotrush.atom.core.util.ActionBarManager;
@@ -21,12 +21,20 @@ import org.shotrush.atom.core.util.ActionBarManager;
 
 @AutoRegister(priority = 10)
 public class Cog extends CustomBlock {
+    private static final int SEGMENT_TICKS = 60;
+    private static final Vector3f TRANSLATION = new Vector3f(0, 0.5f, 0);
+    private static final Vector3f SCALE = new Vector3f(1, 1, 1);
+
     @Getter
-    private boolean isPowerSource;
-    private boolean isPowered;
+    private volatile boolean isPowerSource;
+    private volatile boolean isPowered;
     @Getter
     @Setter
-    private int rotationDirection;
+    private volatile int rotationDirection;
+
+    private long sentSegment = -1;
+    private int sentDirection;
+    private boolean sentPowered;
 
 
     public Cog(Location spawnLocation, Location blockLocation, BlockFace blockFace) {
@@ -70,37 +78,55 @@ public class Cog extends CustomBlock {
         AxisAngle4f initialRotation = BlockRotationUtil.getInitialRotationFromFace(blockFace);
 
         spawnDisplay(display, plugin, diamondItem, new Vector3f(0, 0.5f, 0), initialRotation, new Vector3f(1, 1, 1), true, 1f, 1f);
+        sentPowered = false;
+        sentSegment = -1;
     }
 
     public void updateRotation(float globalAngle) {
-        if (!isPowered) return;
-        updateDisplayRotation(globalAngle, rotationDirection, new Vector3f(0, 0.5f, 0), new Vector3f(1, 1, 1));
+        long tick = CustomBlockTicker.currentTick();
+        if (!isPowered) {
+            if (sentPowered) {
+                sentPowered = false;
+                spinDisplay(spinAngle(tick, sentDirection), 0, TRANSLATION, SCALE);
+            }
+            return;
+        }
+
+        long segment = tick / SEGMENT_TICKS;
+        boolean resync = !sentPowered || rotationDirection != sentDirection
+                || (sentSegment >= 0 && segment > sentSegment + 1);
+        if (resync) {
+            sentPowered = true;
+            sentDirection = rotationDirection;
+            sentSegment = -1;
+            spinDisplay(spinAngle(tick, rotationDirection), 0, TRANSLATION, SCALE);
+            return;
+        }
+        if (segment == sentSegment) return;
+
+        long end = (segment + 1) * SEGMENT_TICKS;
+        sentSegment = segment;
+        spinDisplay(spinAngle(end, rotationDirection), (int) (end - tick), TRANSLATION, SCALE);
+    }
+
+    private static double spinAngle(long tick, int direction) {
+        return (double) tick * CustomBlockTicker.ANGLE_STEP * direction;
     }
 
 
     public void togglePowerSource() {
         this.isPowerSource = !this.isPowerSource;
         this.isPowered = this.isPowerSource;
+        markDirty();
 
 
         Entity entity = Bukkit.getEntity(displayUUID);
         if (entity instanceof ItemDisplay) {
             ItemDisplay display = (ItemDisplay) entity;
 
-
-            Transformation currentTransform = display.getTransformation();
             String modelName = isPowerSource ? "cog_small_powered" : "cog_small";
             ItemStack diamondItem = createItemWithCustomModel(Material.STONE_BUTTON, modelName);
-
-
-            display.setInterpolationDuration(0);
-            display.setInterpolationDelay(0);
-
-
             display.setItemStack(diamondItem);
-            display.setTransformation(currentTransform);
-
-            display.teleportAsync(display.getLocation());
         }
     }
 
@@ -112,6 +138,7 @@ public class Cog extends CustomBlock {
         if (powerSource) {
             this.isPowered = true;
         }
+        markDirty();
     }
 
     public void setPowered(boolean powered) {
@@ -155,21 +182,18 @@ public class Cog extends CustomBlock {
                 "§aCog is now a power source!" :
                 "§7Cog is no longer a power source");
 
-        CogManager cogManager = new CogManager(Atom.getInstance());
-        cogManager.recalculatePower(Atom.getInstance().getBlockManager().getBlocks());
+        Atom.getInstance().getBlockManager().getCogManager().updatePowerSource(this);
         return true;
     }
 
     @Override
     public void onPlaced() {
-        CogManager cogManager = new CogManager(Atom.getInstance());
-        cogManager.recalculatePower(Atom.getInstance().getBlockManager().getBlocks());
+        Atom.getInstance().getBlockManager().getCogManager().add(this);
     }
 
     @Override
     public void onRemoved() {
-        CogManager cogManager = new CogManager(Atom.getInstance());
-        cogManager.recalculatePower(Atom.getInstance().getBlockManager().getBlocks());
+        Atom.getInstance().getBlockManager().getCogManager().remove(this);
     }
 
     @Override
@@ -0,0 +1,258 @@
+package org.shotrush.atom.content.blocks.cog;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Connected cogs kept as a union-find keyed by block position. Each node records whether it turns
+ * opposite to its parent, so a cog's direction relative to its component's anchor source is one find away.
+ * Placing a cog unions it with its neighbours; removing one rebuilds only the component it belonged to.
+ */
+public class CogNetwork {
+
+    private static final int[][] OFFSETS = {
+        {1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}
+    };
+
+    private static final class Node {
+        final Cog cog;
+        final int x;
+        final int y;
+        final int z;
+        Node parent = this;
+        boolean flipped;
+
+        // Only maintained on roots.
+        List<Node> members;
+        Node anchor;
+
+        Node(Cog cog, int x, int y, int z) {
+            this.cog = cog;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            reset();
+        }
+
+        void reset() {
+            parent = this;
+            flipped = false;
+            members = new ArrayList<>(1);
+            members.add(this);
+            anchor = cog.isPowerSource() ? this : null;
+        }
+    }
+
+    private final Map<UUID, Map<Long, Node>> nodesByWorld = new HashMap<>();
+
+    public synchronized void add(Cog cog) {
+        Node node = insert(cog);
+        if (node != null) {
+            apply(find(node));
+        }
+    }
+
+    /** Adds several cogs and propagates each affected component once. */
+    public synchronized void addAll(Collection<Cog> cogs) {
+        Set<Node> roots = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Node> added = new ArrayList<>(cogs.size());
+        for (Cog cog : cogs) {
+            Node node = insert(cog);
+            if (node != null) added.add(node);
+        }
+        for (Node node : added) {
+            roots.add(find(node));
+        }
+        roots.forEach(this::apply);
+    }
+
+    public synchronized void remove(Cog cog) {
+        Map<Long, Node> nodes = nodes(cog, false);
+        if (nodes == null) return;
+
+        Location loc = cog.getBlockLocation();
+        long key = Block.getBlockKey(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+        Node node = nodes.get(key);
+        if (node == null || node.cog != cog) return;
+        nodes.remove(key);
+
+        // Union-find can't split, so the old component is taken apart and reconnected without the cog.
+        List<Node> members = find(node).members;
+        for (Node member : members) {
+            member.reset();
+        }
+        for (Node member : members) {
+            if (member != node) connect(nodes, member);
+        }
+
+        Set<Node> roots = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Node member : members) {
+            if (member != node) roots.add(find(member));
+        }
+        roots.forEach(this::apply);
+    }
+
+    /** Re-propagates the cog's component after it became or stopped being a power source. */
+    public synchronized void updatePowerSource(Cog cog) {
+        Node node = node(cog);
+        if (node == null) return;
+
+        Node root = find(node);
+        if (cog.isPowerSource()) {
+            if (root.anchor == null) root.anchor = node;
+        } else if (root.anchor == node) {
+            root.anchor = null;
+            for (Node member : root.members) {
+                if (member.cog.isPowerSource()) {
+                    root.anchor = member;
+                    break;
+                }
+            }
+        }
+        apply(root);
+    }
+
+    public synchronized void rebuild(Collection<Cog> cogs) {
+        nodesByWorld.clear();
+        addAll(cogs);
+    }
+
+    public synchronized void clear() {
+        nodesByWorld.clear();
+    }
+
+    public synchronized int getCogCount() {
+        int count = 0;
+        for (Map<Long, Node> nodes : nodesByWorld.values()) {
+            count += nodes.size();
+        }
+        return count;
+    }
+
+    public synchronized int getComponentCount() {
+        int count = 0;
+        for (Map<Long, Node> nodes : nodesByWorld.values()) {
+            for (Node node : nodes.values()) {
+                if (node.parent == node) count++;
+            }
+        }
+        return count;
+    }
+
+    private Node insert(Cog cog) {
+        Map<Long, Node> nodes = nodes(cog, true);
+        if (nodes == null) return null;
+
+        Location loc = cog.getBlockLocation();
+        long key = Block.getBlockKey(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+        Node existing = nodes.get(key);
+        if (existing != null) {
+            if (existing.cog == cog) return null;
+            remove(existing.cog);
+        }
+
+        Node node = new Node(cog, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+        nodes.put(key, node);
+        connect(nodes, node);
+        return node;
+    }
+
+    private Node node(Cog cog) {
+        Map<Long, Node> nodes = nodes(cog, false);
+        if (nodes == null) return null;
+
+        Location loc = cog.getBlockLocation();
+        Node node = nodes.get(Block.getBlockKey(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()));
+        return node != null && node.cog == cog ? node : null;
+    }
+
+    private Map<Long, Node> nodes(Cog cog, boolean create) {
+        World world = cog.getBlockLocation().getWorld();
+        if (world == null) return null;
+        return create
+            ? nodesByWorld.computeIfAbsent(world.getUID(), k -> new HashMap<>())
+            : nodesByWorld.get(world.getUID());
+    }
+
+    private void connect(Map<Long, Node> nodes, Node node) {
+        for (int[] offset : OFFSETS) {
+            Node other = nodes.get(Block.getBlockKey(node.x + offset[0], node.y + offset[1], node.z + offset[2]));
+            if (other != null) {
+                union(node, other, turnsOpposite(node.cog, other.cog));
+            }
+        }
+    }
+
+    private void union(Node a, Node b, boolean opposite) {
+        Node rootA = find(a);
+        Node rootB = find(b);
+        // A cycle keeps the direction found first, as the breadth-first propagation did.
+        if (rootA == rootB) return;
+
+        boolean parityA = a.flipped && a != rootA;
+        boolean parityB = b.flipped && b != rootB;
+        if (rootA.members.size() < rootB.members.size()) {
+            Node swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+
+        rootB.parent = rootA;
+        rootB.flipped = parityA ^ parityB ^ opposite;
+        rootA.members.addAll(rootB.members);
+        if (rootA.anchor == null) rootA.anchor = rootB.anchor;
+        rootB.members = null;
+        rootB.anchor = null;
+    }
+
+    /** Finds the root and points every node on the way directly at it, keeping their parity to the root. */
+    private Node find(Node node) {
+        Node root = node;
+        boolean parity = false;
+        while (root.parent != root) {
+            parity ^= root.flipped;
+            root = root.parent;
+        }
+
+        Node current = node;
+        while (current != root) {
+            Node next = current.parent;
+            boolean flipped = current.flipped;
+            current.parent = root;
+            current.flipped = parity;
+            parity ^= flipped;
+            current = next;
+        }
+        return root;
+    }
+
+    private boolean parity(Node node) {
+        return find(node) != node && node.flipped;
+    }
+
+    private void apply(Node root) {
+        boolean powered = root.anchor != null;
+        boolean anchorParity = powered && parity(root.anchor);
+        for (Node member : root.members) {
+            // Every source drives its own shaft forward, as the breadth-first propagation seeded them.
+            boolean reversed = powered && !member.cog.isPowerSource() && parity(member) != anchorParity;
+            member.cog.setPowered(powered);
+            member.cog.setRotationDirection(reversed ? -1 : 1);
+        }
+    }
+
+    static boolean turnsOpposite(Cog a, Cog b) {
+        return a.isSameAxisAs(b) && !a.isConnectedAlongAxis(b);
+    }
+}
@@ -0,0 +1,101 @@
+package org.shotrush.atom.content.blocks.cog;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.BlockFace;
+import org.shotrush.atom.core.blocks.CustomBlock;
+import org.shotrush.atom.core.blocks.util.BlockLocationUtil;
+
+import java.util.*;
+
+/**
+ * Compares the incremental {@link CogNetwork} against the full breadth-first recalculation it replaced,
+ * on detached cogs laid out as one square sheet above the world's build height.
+ */
+public class CogNetworkBenchmark {
+
+    private static final int SOURCE_SPACING = 1000;
+    private static final int SAMPLES = 100;
+
+    public static List<String> run(World world, int count) {
+        List<Cog> cogs = layout(world, count);
+        List<String> results = new ArrayList<>();
+
+        CogNetwork network = new CogNetwork();
+        long start = System.nanoTime();
+        network.rebuild(cogs);
+        long rebuild = System.nanoTime() - start;
+        results.add(String.format("Incremental: %d cogs in %d component(s), full build %.1fms",
+            count, network.getComponentCount(), rebuild / 1e6));
+
+        Random random = new Random(42);
+        long removeTime = 0;
+        long addTime = 0;
+        long toggleTime = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            Cog cog = cogs.get(random.nextInt(cogs.size()));
+
+            start = System.nanoTime();
+            network.remove(cog);
+            removeTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            network.add(cog);
+            addTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            network.updatePowerSource(cog);
+            toggleTime += System.nanoTime() - start;
+        }
+        results.add(String.format("Incremental: remove %.3fms, place %.3fms, power change %.3fms (avg of %d)",
+            removeTime / 1e6 / SAMPLES, addTime / 1e6 / SAMPLES, toggleTime / 1e6 / SAMPLES, SAMPLES));
+
+        List<CustomBlock> blocks = new ArrayList<>(cogs);
+        start = System.nanoTime();
+        legacyRecalculate(cogs, blocks);
+        long legacy = System.nanoTime() - start;
+        results.add(String.format("Full BFS: %.1fms per recalculation (previously run on every place and remove)",
+            legacy / 1e6));
+
+        return results;
+    }
+
+    private static List<Cog> layout(World world, int count) {
+        int side = (int) Math.ceil(Math.sqrt(count));
+        int y = world.getMaxHeight() + 64;
+        List<Cog> cogs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Location spawn = new Location(world, i % side + 0.5, y, i / side + 0.5);
+            cogs.add(new Cog(spawn, BlockFace.UP, i % SOURCE_SPACING == 0));
+        }
+        return cogs;
+    }
+
+    private static void legacyRecalculate(List<Cog> cogs, List<CustomBlock> allBlocks) {
+        for (Cog cog : cogs) {
+            cog.setPowered(false);
+            cog.setRotationDirection(1);
+        }
+
+        Set<Cog> visited = new HashSet<>();
+        Queue<Cog> queue = new ArrayDeque<>();
+        for (Cog cog : cogs) {
+            if (cog.isPowerSource()) {
+                queue.add(cog);
+                visited.add(cog);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            Cog current = queue.poll();
+            for (Cog adj : BlockLocationUtil.getAdjacentBlocks(current.getBlockLocation(), allBlocks, Cog.class)) {
+                if (visited.add(adj)) {
+                    adj.setPowered(true);
+                    adj.setRotationDirection(CogNetwork.turnsOpposite(current, adj)
+                        ? -current.getRotationDirection() : current.getRotationDirection());
+                    queue.add(adj);
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.shotrush.atom.content.mobs;
 
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.attribute.Attribute;
@@ -9,25 +10,35 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.world.EntitiesLoadEvent;
-import org.bukkit.metadata.FixedMetadataValue;
+import org.bukkit.event.world.EntitiesUnloadEvent;
 import org.shotrush.atom.Atom;
+import org.shotrush.atom.content.mobs.ai.GoalThrottle;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
+import org.shotrush.atom.content.mobs.ai.PlayerProximityMap;
+import org.shotrush.atom.content.mobs.ai.ThrottledGoal;
 import org.shotrush.atom.content.mobs.ai.combat.FatigueSystem;
 import org.shotrush.atom.content.mobs.ai.combat.InjurySystem;
 import org.shotrush.atom.content.mobs.ai.combat.MoraleSystem;
+import org.shotrush.atom.content.mobs.ai.combat.StaminaRegeneration;
 import org.shotrush.atom.content.mobs.ai.config.SpeciesBehavior;
 import org.shotrush.atom.content.mobs.ai.goals.*;
 import org.bukkit.entity.EntityType;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
+import org.shotrush.atom.content.mobs.herd.HerdPersistence;
 import org.shotrush.atom.content.mobs.herd.HerdRole;
 import org.shotrush.atom.content.mobs.ai.debug.DebugCategory;
 import org.shotrush.atom.content.mobs.ai.debug.DebugLevel;
 import org.shotrush.atom.content.mobs.ai.debug.DebugManager;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.bukkit.plugin.Plugin;
 import org.shotrush.atom.core.api.annotation.RegisterSystem;
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI;
 
 
 
@@ -43,8 +54,9 @@ public class AnimalBehaviorNew implements Listener {
     private final InjurySystem injurySystem;
     private final FatigueSystem fatigueSystem;
     private final MoraleSystem moraleSystem;
+    private final StaminaRegeneration staminaRegeneration;
     private static final Set<EntityType> COMMON_ANIMALS = new HashSet<>();
-    private final Set<UUID> trackedAnimals = new HashSet<>();
+    private static final Set<UUID> trackedAnimals = ConcurrentHashMap.newKeySet();
     
     static {
         COMMON_ANIMALS.add(EntityType.COW);
@@ -78,6 +90,21 @@ public class AnimalBehaviorNew implements Listener {
         this.injurySystem = new InjurySystem(plugin);
         this.fatigueSystem = new FatigueSystem(plugin);
         this.moraleSystem = new MoraleSystem(plugin, herdManager);
+        this.staminaRegeneration = new StaminaRegeneration(fatigueSystem);
+        
+        GoalThrottle.load(plugin.getConfig());
+        
+        Bukkit.getOnlinePlayers().forEach(PlayerProximityMap::track);
+    }
+    
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        PlayerProximityMap.track(event.getPlayer());
+    }
+    
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        PlayerProximityMap.untrack(event.getPlayer().getUniqueId());
     }
     
     @EventHandler(priority = org.bukkit.event.EventPriority.HIGHEST)
@@ -159,37 +186,37 @@ public class AnimalBehaviorNew implements Listener {
         com.destroystokyo.paper.entity.ai.MobGoals goalSelector = Bukkit.getMobGoals();
         com.destroystokyo.paper.entity.ai.MobGoals targetSelector = Bukkit.getMobGoals();
 
-        goalSelector.addGoal(mob, 0, new DeathEffectsGoal(mob, plugin, herdManager, moraleSystem));
-        goalSelector.addGoal(mob, 0, new HerdPanicGoal(mob, plugin, herdManager, behavior, moraleSystem));
+        goalSelector.addGoal(mob, 0, ThrottledGoal.ambient(mob, new DeathEffectsGoal(mob, plugin, herdManager, moraleSystem)));
+        goalSelector.addGoal(mob, 0, ThrottledGoal.ambient(mob, new HerdPanicGoal(mob, plugin, herdManager, behavior, moraleSystem)));
 
-        goalSelector.addGoal(mob, 1, new AvoidPlayerWhenInjuredGoal(mob, plugin, behavior));
+        goalSelector.addGoal(mob, 1, ThrottledGoal.of(mob, new AvoidPlayerWhenInjuredGoal(mob, plugin, behavior)));
         
         if (isCarnivore(mob.getType())) {
-            goalSelector.addGoal(mob, 2, new HuntPreyGoal(mob, plugin, behavior));
-            goalSelector.addGoal(mob, 2, new TrackWoundedPreyGoal(mob, plugin, injurySystem));
+            goalSelector.addGoal(mob, 2, ThrottledGoal.expensive(mob, new HuntPreyGoal(mob, plugin, behavior)));
+            goalSelector.addGoal(mob, 2, ThrottledGoal.expensive(mob, new TrackWoundedPreyGoal(mob, plugin, injurySystem)));
         }
         
         if (isPackHunter(mob.getType())) {
-            goalSelector.addGoal(mob, 2, new FlankAndSurroundGoal(mob, plugin, herdManager));
+            goalSelector.addGoal(mob, 2, ThrottledGoal.expensive(mob, new FlankAndSurroundGoal(mob, plugin, herdManager)));
         }
         
         if (isAggressive) {
-            targetSelector.addGoal(mob, 2, new AcquireNearestPlayerTargetGoal(mob, plugin, behavior));
-            goalSelector.addGoal(mob, 3, new ChaseAndMeleeAttackGoal(mob, plugin, behavior, fatigueSystem, injurySystem, moraleSystem));
+            targetSelector.addGoal(mob, 2, ThrottledGoal.expensive(mob, new AcquireNearestPlayerTargetGoal(mob, plugin, behavior)));
+            goalSelector.addGoal(mob, 3, ThrottledGoal.of(mob, new ChaseAndMeleeAttackGoal(mob, plugin, behavior, fatigueSystem, injurySystem, moraleSystem)));
         }
         
         if (isCarnivore(mob.getType())) {
-            goalSelector.addGoal(mob, 3, new StalkPreyGoal(mob, plugin));
+            goalSelector.addGoal(mob, 3, ThrottledGoal.expensive(mob, new StalkPreyGoal(mob, plugin)));
         }
         
-        goalSelector.addGoal(mob, 3, new ReunionGoal(mob, plugin, herdManager, behavior));
+        goalSelector.addGoal(mob, 3, ThrottledGoal.ambient(mob, new ReunionGoal(mob, plugin, herdManager, behavior)));
         
         if (role == HerdRole.FOLLOWER) {
-            goalSelector.addGoal(mob, 4, new StayNearHerdGoal(mob, plugin, herdManager, behavior));
+            goalSelector.addGoal(mob, 4, ThrottledGoal.ambient(mob, new StayNearHerdGoal(mob, plugin, herdManager, behavior)));
         } else {
-            goalSelector.addGoal(mob, 4, new SentryBehaviorGoal(mob, plugin, herdManager));
-            goalSelector.addGoal(mob, 4, new TerritoryDefenseGoal(mob, plugin, herdManager));
-            goalSelector.addGoal(mob, 6, new HerdLeaderWanderGoal(mob, plugin, herdManager));
+            goalSelector.addGoal(mob, 4, ThrottledGoal.expensive(mob, new SentryBehaviorGoal(mob, plugin, herdManager)));
+            goalSelector.addGoal(mob, 4, ThrottledGoal.expensive(mob, new TerritoryDefenseGoal(mob, plugin, herdManager)));
+            goalSelector.addGoal(mob, 6, ThrottledGoal.ambient(mob, new HerdLeaderWanderGoal(mob, plugin, herdManager)));
         }
         
         registerSpecialGoals(mob, behavior, goalSelector, isAggressive);
@@ -201,70 +228,70 @@ public class AnimalBehaviorNew implements Listener {
         switch (behavior.specialMechanic()) {
             case RAM_CHARGE:
                 if (isAggressive && (mob.getType() == EntityType.SHEEP || mob.getType() == EntityType.GOAT)) {
-                    goalSelector.addGoal(mob, 2, new RamChargeGoal(mob, plugin));
+                    goalSelector.addGoal(mob, 2, ThrottledGoal.of(mob, new RamChargeGoal(mob, plugin)));
                     plugin.getLogger().info("  + Added Ram Charge");
                 }
                 break;
                 
             case KICK_ATTACK:
                 if (isAggressive && (mob.getType() == EntityType.HORSE || mob.getType() == EntityType.DONKEY || mob.getType() == EntityType.MULE)) {
-                    goalSelector.addGoal(mob, 2, new KickAttackGoal(mob, plugin));
+                    goalSelector.addGoal(mob, 2, ThrottledGoal.of(mob, new KickAttackGoal(mob, plugin)));
                     plugin.getLogger().info("  + Added Kick Attack");
                 }
                 break;
                 
             case SPIT_ATTACK:
                 if (isAggressive && mob.getType() == EntityType.LLAMA) {
-                    goalSelector.addGoal(mob, 2, new SpitAttackGoal(mob, plugin));
+                    goalSelector.addGoal(mob, 2, ThrottledGoal.of(mob, new SpitAttackGoal(mob, plugin)));
                     plugin.getLogger().info("  + Added Spit Attack");
                 }
                 break;
                 
             case COUNTER_CHARGE:
                 if (isAggressive && mob.getType() == EntityType.PIG) {
-                    goalSelector.addGoal(mob, 2, new CounterChargeGoal(mob, plugin));
+                    goalSelector.addGoal(mob, 2, ThrottledGoal.of(mob, new CounterChargeGoal(mob, plugin)));
                     plugin.getLogger().info("  + Added Counter Charge");
                 }
                 break;
                 
             case PACK_HUNTING:
                 if (isAggressive && mob.getType() == EntityType.WOLF) {
-                    goalSelector.addGoal(mob, 2, new PackHuntingGoal(mob, plugin, herdManager));
+                    goalSelector.addGoal(mob, 2, ThrottledGoal.expensive(mob, new PackHuntingGoal(mob, plugin, herdManager)));
                     plugin.getLogger().info("  + Added Pack Hunting");
                 }
                 break;
                 
             case POUNCE_ATTACK:
                 if (isAggressive && mob.getType() == EntityType.FOX) {
-                    goalSelector.addGoal(mob, 2, new PounceAttackGoal(mob, plugin));
+                    goalSelector.addGoal(mob, 2, ThrottledGoal.of(mob, new PounceAttackGoal(mob, plugin)));
                     plugin.getLogger().info("  + Added Pounce Attack");
                 }
                 break;
                 
             case STAMPEDE:
                 if (mob.getType() == EntityType.COW) {
-                    goalSelector.addGoal(mob, 1, new StampedeGoal(mob, plugin, herdManager));
+                    goalSelector.addGoal(mob, 1, ThrottledGoal.of(mob, new StampedeGoal(mob, plugin, herdManager)));
                     plugin.getLogger().info("  + Added Stampede");
                 }
                 break;
                 
             case FLIGHT_BURST:
                 if (mob.getType() == EntityType.CHICKEN) {
-                    goalSelector.addGoal(mob, 1, new FlightBurstGoal(mob, plugin));
+                    goalSelector.addGoal(mob, 1, ThrottledGoal.of(mob, new FlightBurstGoal(mob, plugin)));
                     plugin.getLogger().info("  + Added Flight Burst");
                 }
                 break;
                 
             case CUB_PROTECTION:
                 if (mob.getType() == EntityType.POLAR_BEAR) {
-                    goalSelector.addGoal(mob, 1, new CubProtectionGoal(mob, plugin));
+                    goalSelector.addGoal(mob, 1, ThrottledGoal.expensive(mob, new CubProtectionGoal(mob, plugin)));
                     plugin.getLogger().info("  + Added Cub Protection");
                 }
                 break;
                 
             case ROLL_DEFENSE:
                 if (mob.getType() == EntityType.ARMADILLO) {
-                    goalSelector.addGoal(mob, 0, new RollDefenseGoal(mob, plugin));
+                    goalSelector.addGoal(mob, 0, ThrottledGoal.of(mob, new RollDefenseGoal(mob, plugin)));
                     plugin.getLogger().info("  + Added Roll Defense");
                 }
                 break;
@@ -274,33 +301,6 @@ public class AnimalBehaviorNew implements Listener {
         }
     }
     
-    private void startStaminaRegeneration(Animals animal) {
-        org.shotrush.atom.core.api.scheduler.SchedulerAPI.runTaskTimer(animal, scheduledTask -> {
-            if (animal.isDead() || !animal.isValid()) {
-                trackedAnimals.remove(animal.getUniqueId());
-                scheduledTask.cancel();
-                return;
-            }
-            
-            regenerateStamina(animal);
-        }, 1L, 40L);
-    }
-    
-    private void regenerateStamina(Animals animal) {
-        if (!animal.hasMetadata("stamina")) return;
-        
-        boolean isFleeing = animal.hasMetadata("fleeing") && animal.getMetadata("fleeing").get(0).asBoolean();
-        if (isFleeing) return;
-        
-        double stamina = animal.getMetadata("stamina").get(0).asDouble();
-        double maxStamina = animal.getMetadata("maxStamina").get(0).asDouble();
-        
-        if (stamina < maxStamina) {
-            stamina = Math.min(maxStamina, stamina + 2.0);
-            animal.setMetadata("stamina", new FixedMetadataValue(plugin, stamina));
-        }
-    }
-    
     @EventHandler
     public void onAnimalDamage(EntityDamageByEntityEvent event) {
         if (!(event.getEntity() instanceof Animals animal)) return;
@@ -333,7 +333,7 @@ public class AnimalBehaviorNew implements Listener {
         SpeciesBehavior behavior = SpeciesBehavior.get(animal.getType());
         
         if (healthPercent < behavior.panicHealthThreshold()) {
-            animal.setMetadata("fleeing", new FixedMetadataValue(plugin, true));
+            MobAIState.get(animal).setFleeing(true);
         }
     }
     
@@ -344,12 +344,22 @@ public class AnimalBehaviorNew implements Listener {
         
         UUID animalId = animal.getUniqueId();
         
-        herdManager.leaveHerd(animalId);
+        herdManager.getMaintenance().memberDied(animal);
         trackedAnimals.remove(animalId);
+        staminaRegeneration.untrack(animalId);
+        MobAIState.remove(animalId);
         
         plugin.getLogger().info(">>> Animal died: " + animal.getType() + " - cleaned up all systems");
     }
     
+    @EventHandler
+    public void onEntityRemove(EntityRemoveFromWorldEvent event) {
+        if (!(event.getEntity() instanceof Animals animal)) return;
+        if (!COMMON_ANIMALS.contains(animal.getType())) return;
+        
+        herdManager.getMaintenance().memberRemoved(animal);
+    }
+    
     @EventHandler
     public void onEntitiesLoad(EntitiesLoadEvent event) {
         for (Entity entity : event.getEntities()) {
@@ -372,6 +382,26 @@ public class AnimalBehaviorNew implements Listener {
         }
     }
     
+    @EventHandler
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            if (!(entity instanceof Animals animal)) continue;
+            
+            UUID animalId = animal.getUniqueId();
+            trackedAnimals.remove(animalId);
+            staminaRegeneration.untrack(animalId);
+            herdManager.getMaintenance().memberUnloaded(animal);
+            
+            MobAIState state = MobAIState.find(animalId);
+            if (state == null) continue;
+            
+            if (state.hasStamina()) {
+                herdManager.getPersistence().updateStamina(animal, state.getStamina());
+            }
+            MobAIState.remove(animalId);
+        }
+    }
+    
     private void initializeAnimal(Animals animal, Mob mob) {
         double domesticationFactor = AnimalDomestication.getDomesticationFactor(animal);
         SpeciesBehavior behavior = SpeciesBehavior.get(animal.getType());
@@ -380,24 +410,28 @@ public class AnimalBehaviorNew implements Listener {
 
 
         
-        if (!animal.hasMetadata("stats_enhanced")) {
+        MobAIState state = MobAIState.get(animal);
+        if (!state.isStatsEnhanced()) {
             enhanceAnimalStats(animal, domesticationFactor, behavior);
-            animal.setMetadata("stats_enhanced", new FixedMetadataValue(plugin, true));
+            state.setStatsEnhanced(true);
         }
         
         Herd herd = herdManager.getOrCreateHerd(animal);
         HerdRole role = herdManager.getRole(animal.getUniqueId());
         
+        HerdPersistence.AnimalRecord record = herdManager.getPersistence().read(animal);
+        
         boolean isAggressive;
-        if (animal.hasMetadata("aggressive")) {
-            isAggressive = animal.getMetadata("aggressive").get(0).asBoolean();
+        if (state.isAggressionAssigned()) {
+            isAggressive = state.isAggressive();
         } else {
-            isAggressive = herdManager.getPersistence().isAggressive(animal);
-            if (!isAggressive) {
+            isAggressive = record != null && record.aggressive();
+            if (!isAggressive && record == null) {
                 double aggressionChance = behavior.getAggressionChance(domesticationFactor);
                 isAggressive = Math.random() < aggressionChance;
             }
-            animal.setMetadata("aggressive", new FixedMetadataValue(plugin, isAggressive));
+            state.setAggressive(isAggressive);
+            state.setAggressionAssigned(true);
         }
         
 
@@ -406,12 +440,11 @@ public class AnimalBehaviorNew implements Listener {
 
 
         
-        double maxStamina = herdManager.getPersistence().getMaxStamina(animal, 100 + (Math.random() * 100));
-        double stamina = herdManager.getPersistence().getStamina(animal, maxStamina);
+        double maxStamina = record != null ? record.maxStamina() : 100 + (Math.random() * 100);
+        double stamina = record != null ? record.stamina() : maxStamina;
         
-        animal.setMetadata("maxStamina", new FixedMetadataValue(plugin, maxStamina));
-        animal.setMetadata("stamina", new FixedMetadataValue(plugin, stamina));
-        animal.setMetadata("fleeing", new FixedMetadataValue(plugin, false));
+        state.initStamina(maxStamina, stamina);
+        state.setFleeing(false);
         
         herdManager.getPersistence().saveHerdData(animal, herd.id(), role == HerdRole.LEADER, isAggressive, maxStamina, stamina);
         
@@ -425,13 +458,36 @@ public class AnimalBehaviorNew implements Listener {
         
         plugin.getLogger().info(">>> Initialization complete!");
         
-        startStaminaRegeneration(animal);
+        staminaRegeneration.track(animal);
     }
     
     public HerdManager getHerdManager() {
         return herdManager;
     }
     
+    public static void shutdown() {
+        if (herdManager != null) {
+            saveTrackedStamina();
+            herdManager.shutdown();
+        }
+    }
+    
+    // Entities unloaded by the server stopping never reach onEntitiesUnload, so their stamina is written here.
+    private static void saveTrackedStamina() {
+        for (UUID animalId : trackedAnimals) {
+            MobAIState state = MobAIState.find(animalId);
+            if (state == null || !state.hasStamina()) continue;
+            if (!(Bukkit.getEntity(animalId) instanceof Animals animal)) continue;
+            
+            Runnable save = () -> herdManager.getPersistence().updateStamina(animal, state.getStamina());
+            if (Bukkit.isOwnedByCurrentRegion(animal)) {
+                save.run();
+            } else {
+                SchedulerAPI.runTask(animal, save);
+            }
+        }
+    }
+    
     private boolean isHerbivore(EntityType type) {
         return type == EntityType.COW || type == EntityType.SHEEP || 
                type == EntityType.HORSE || type == EntityType.DONKEY || 
@@ -39,7 +39,8 @@ public class DomesticationCommand extends BaseCommand {
         }
         
         boolean fullyDomesticated = AnimalDomestication.isFullyDomesticated(animal);
-        boolean isAggressive = animal.hasMetadata("aggressive") && animal.getMetadata("aggressive").getFirst().asBoolean();
+        org.shotrush.atom.content.mobs.ai.MobAIState state = org.shotrush.atom.content.mobs.ai.MobAIState.find(animal);
+        boolean isAggressive = state != null && state.isAggressive();
         
         player.sendMessage("§6=== " + animal.getType() + " Domestication ===");
         player.sendMessage("§eDomestication Level: §f" + level + "/5");
@@ -0,0 +1,13 @@
+package org.shotrush.atom.content.mobs.ai;
+
+/**
+ * How much of its behaviour an animal runs, based on the distance to the nearest player.
+ * <p>
+ * {@link #FULL} runs every goal. {@link #SIMPLIFIED} and {@link #FROZEN} only run wander,
+ * herd-follow and panic goals, at the far and frozen intervals.
+ */
+public enum AITier {
+    FULL,
+    SIMPLIFIED,
+    FROZEN
+}
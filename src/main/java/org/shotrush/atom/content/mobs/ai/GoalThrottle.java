@@ -0,0 +1,118 @@
+package org.shotrush.atom.content.mobs.ai;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Mob;
+
+/**
+ * Decides when throttled goals may run their activation checks.
+ * <p>
+ * Expensive checks share a per-tick time budget in the region evaluating them. Each mob's
+ * {@link AITier} comes from the distance to the nearest player in {@link PlayerProximityMap}.
+ * Settings come from {@code mobs.goal-throttle} and {@code mobs.lod}.
+ */
+public final class GoalThrottle {
+
+    private static final int DEFAULT_EXPENSIVE_INTERVAL = 4;
+    private static final double DEFAULT_BUDGET_MS = 2.0;
+    private static final double DEFAULT_PLAYER_RANGE = 48.0;
+    private static final int DEFAULT_FAR_INTERVAL = 20;
+    private static final int DEFAULT_PROXIMITY_REFRESH_TICKS = 20;
+    private static final double DEFAULT_SIMPLIFIED_RANGE = 128.0;
+    private static final int DEFAULT_FROZEN_INTERVAL = 200;
+
+    private static final RegionLocal<Budget> budgets = new RegionLocal<>(Budget::new);
+
+    private static volatile int expensiveInterval = DEFAULT_EXPENSIVE_INTERVAL;
+    private static volatile long budgetNanos = (long) (DEFAULT_BUDGET_MS * 1_000_000L);
+    private static volatile int playerRangeChunks = toChunks(DEFAULT_PLAYER_RANGE);
+    private static volatile int farInterval = DEFAULT_FAR_INTERVAL;
+    private static volatile int tierRefreshTicks = DEFAULT_PROXIMITY_REFRESH_TICKS;
+    private static volatile int simplifiedRangeChunks = toChunks(DEFAULT_SIMPLIFIED_RANGE);
+    private static volatile int frozenInterval = DEFAULT_FROZEN_INTERVAL;
+
+    private GoalThrottle() {
+    }
+
+    public static void load(ConfigurationSection config) {
+        expensiveInterval = Math.max(1, config.getInt("mobs.goal-throttle.expensive-interval", DEFAULT_EXPENSIVE_INTERVAL));
+        budgetNanos = (long) (Math.max(0.0, config.getDouble("mobs.goal-throttle.budget-ms", DEFAULT_BUDGET_MS)) * 1_000_000L);
+        playerRangeChunks = toChunks(config.getDouble("mobs.goal-throttle.player-range", DEFAULT_PLAYER_RANGE));
+        farInterval = Math.max(1, config.getInt("mobs.goal-throttle.far-interval", DEFAULT_FAR_INTERVAL));
+        tierRefreshTicks = Math.max(1, config.getInt("mobs.goal-throttle.proximity-refresh-ticks", DEFAULT_PROXIMITY_REFRESH_TICKS));
+        simplifiedRangeChunks = Math.max(playerRangeChunks,
+            toChunks(config.getDouble("mobs.lod.simplified-range", DEFAULT_SIMPLIFIED_RANGE)));
+        frozenInterval = Math.max(1, config.getInt("mobs.lod.frozen-interval", DEFAULT_FROZEN_INTERVAL));
+    }
+
+    public static int getFrozenInterval() {
+        return frozenInterval;
+    }
+
+    public static long currentTick(Mob mob) {
+        return mob.getWorld().getGameTime();
+    }
+
+    /**
+     * Ticks until the next activation check, or {@code -1} if the goal may not activate at this tier.
+     */
+    public static int interval(AITier tier, boolean expensive, boolean ambient) {
+        return switch (tier) {
+            case FULL -> expensive ? expensiveInterval : 1;
+            case SIMPLIFIED -> ambient ? farInterval : -1;
+            case FROZEN -> ambient ? frozenInterval : -1;
+        };
+    }
+
+    public static AITier tier(Entity entity, MobAIState state, long tick) {
+        if (tick >= state.getNextTierCheck()) {
+            state.setAiTier(resolveTier(entity));
+            state.setNextTierCheck(tick + tierRefreshTicks);
+        }
+        return state.getAiTier();
+    }
+
+    public static AITier resolveTier(Entity entity) {
+        return resolveTier(entity.getLocation());
+    }
+
+    public static AITier resolveTier(Location location) {
+        int distance = PlayerProximityMap.nearestChunkDistance(location.getWorld(),
+            location.getBlockX() >> 4, location.getBlockZ() >> 4, simplifiedRangeChunks);
+
+        if (distance <= playerRangeChunks) return AITier.FULL;
+        if (distance <= simplifiedRangeChunks) return AITier.SIMPLIFIED;
+        return AITier.FROZEN;
+    }
+
+    public static boolean hasBudget(World world, long tick) {
+        return budgets.get().spent(world, tick) < budgetNanos;
+    }
+
+    public static void charge(World world, long tick, long nanos) {
+        Budget budget = budgets.get();
+        budget.spent(world, tick);
+        budget.spentNanos += nanos;
+    }
+
+    private static int toChunks(double blocks) {
+        return Math.max(0, (int) Math.ceil(blocks / 16.0));
+    }
+
+    private static final class Budget {
+        private World world;
+        private long tick = Long.MIN_VALUE;
+        private long spentNanos;
+
+        long spent(World world, long tick) {
+            if (this.world != world || this.tick != tick) {
+                this.world = world;
+                this.tick = tick;
+                this.spentNanos = 0;
+            }
+            return spentNanos;
+        }
+    }
+}
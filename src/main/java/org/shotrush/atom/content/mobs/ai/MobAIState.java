@@ -0,0 +1,105 @@
+package org.shotrush.atom.content.mobs.ai;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.entity.Entity;
+import org.shotrush.atom.content.mobs.ai.combat.InjurySystem;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-mob AI state shared by the combat systems and goals.
+ * <p>
+ * A mob's own fields are only written from the region thread that owns it. Flags that herd
+ * members set on each other (fleeing, morale) are volatile. Goals resolve the state once in
+ * their constructor and keep the reference.
+ */
+@Getter
+@Setter
+public final class MobAIState {
+
+    private static final ConcurrentHashMap<UUID, MobAIState> states = new ConcurrentHashMap<>();
+
+    private final UUID entityId;
+
+    private boolean aggressionAssigned;
+    private volatile boolean aggressive;
+    private boolean statsEnhanced;
+
+    private double stamina;
+    private double maxStamina;
+
+    private volatile boolean fleeing;
+    private volatile boolean moraleBroken;
+    private volatile int moraleBreakTimer;
+
+    private int combatTicks;
+    private long lastCombatTick;
+    private boolean fatigued;
+    private int fatigueRecoveryTimer;
+    private double fatigueDamageMultiplier = 1.0;
+    private double fatigueAttackSpeedMultiplier = 1.0;
+
+    private InjurySystem.InjuryLevel injuryLevel = InjurySystem.InjuryLevel.HEALTHY;
+    private double injurySpeedMultiplier = 1.0;
+    private int limpTimer;
+
+    private boolean inCombat;
+    private boolean stalking;
+    private boolean readyToPounce;
+    private PackRole packRole = PackRole.NONE;
+    private UUID huntingTarget;
+
+    private AITier aiTier = AITier.FULL;
+    private long nextTierCheck = Long.MIN_VALUE;
+
+    private MobAIState(UUID entityId) {
+        this.entityId = entityId;
+    }
+
+    public static MobAIState get(Entity entity) {
+        return states.computeIfAbsent(entity.getUniqueId(), MobAIState::new);
+    }
+
+    public static MobAIState find(Entity entity) {
+        return states.get(entity.getUniqueId());
+    }
+
+    public static MobAIState find(UUID entityId) {
+        return states.get(entityId);
+    }
+
+    public static void remove(UUID entityId) {
+        states.remove(entityId);
+    }
+
+    public static int getTrackedCount() {
+        return states.size();
+    }
+
+    public boolean hasStamina() {
+        return maxStamina > 0;
+    }
+
+    public void initStamina(double maxStamina, double stamina) {
+        this.maxStamina = maxStamina;
+        this.stamina = stamina;
+    }
+
+    public void resetFatigue() {
+        fatigued = false;
+        fatigueRecoveryTimer = 0;
+    }
+
+    public void resetMorale() {
+        moraleBroken = false;
+        moraleBreakTimer = 0;
+    }
+
+    public enum PackRole {
+        NONE,
+        ATTACKER,
+        DISTRACTOR
+    }
+}
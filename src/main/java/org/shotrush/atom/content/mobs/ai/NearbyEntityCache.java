@@ -0,0 +1,167 @@
+package org.shotrush.atom.content.mobs.ai;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Players and other living entities per chunk, collected at most once per tick in each region.
+ * <p>
+ * Predator goals query this instead of the world's entity lookup, so mobs hunting in the same area
+ * share one scan of each chunk. Positions are those from when the chunk was first queried in the tick.
+ */
+public final class NearbyEntityCache {
+
+    private static final RegionLocal<TickCache> caches = new RegionLocal<>(TickCache::new);
+
+    private NearbyEntityCache() {
+    }
+
+    /**
+     * Players inside the box of the given half-size around {@code center}, like {@link Location#getNearbyPlayers(double)}.
+     */
+    public static List<Player> players(Location center, double radius) {
+        List<Player> result = new ArrayList<>();
+        for (Bucket bucket : buckets(center, radius)) {
+            bucket.players.collect(center, radius, result);
+        }
+        return result;
+    }
+
+    /**
+     * Living non-player entities inside the box of the given half-size around {@code center}.
+     */
+    public static List<LivingEntity> living(Location center, double radius) {
+        List<LivingEntity> result = new ArrayList<>();
+        for (Bucket bucket : buckets(center, radius)) {
+            bucket.living.collect(center, radius, result);
+        }
+        return result;
+    }
+
+    private static List<Bucket> buckets(Location center, double radius) {
+        World world = center.getWorld();
+        TickCache cache = caches.get();
+        cache.reset(world, world.getGameTime());
+
+        int minChunkX = (int) Math.floor(center.getX() - radius) >> 4;
+        int maxChunkX = (int) Math.floor(center.getX() + radius) >> 4;
+        int minChunkZ = (int) Math.floor(center.getZ() - radius) >> 4;
+        int maxChunkZ = (int) Math.floor(center.getZ() + radius) >> 4;
+
+        List<Bucket> buckets = new ArrayList<>((maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1));
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                Bucket bucket = cache.bucket(world, chunkX, chunkZ);
+                if (bucket != null) {
+                    buckets.add(bucket);
+                }
+            }
+        }
+        return buckets;
+    }
+
+    private static final class TickCache {
+        private final Map<Long, Bucket> buckets = new HashMap<>();
+        private World world;
+        private long tick = Long.MIN_VALUE;
+
+        void reset(World world, long tick) {
+            if (this.world != world || this.tick != tick) {
+                this.world = world;
+                this.tick = tick;
+                buckets.clear();
+            }
+        }
+
+        Bucket bucket(World world, int chunkX, int chunkZ) {
+            if (!Bukkit.isOwnedByCurrentRegion(world, chunkX, chunkZ)) {
+                return null;
+            }
+
+            long key = Chunk.getChunkKey(chunkX, chunkZ);
+            Bucket bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket == Bucket.EMPTY ? null : bucket;
+            }
+
+            if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                buckets.put(key, Bucket.EMPTY);
+                return null;
+            }
+
+            bucket = Bucket.of(world.getChunkAt(chunkX, chunkZ).getEntities());
+            buckets.put(key, bucket);
+            return bucket;
+        }
+    }
+
+    private static final class Bucket {
+        static final Bucket EMPTY = new Bucket(new Positions<>(0), new Positions<>(0));
+
+        final Positions<Player> players;
+        final Positions<LivingEntity> living;
+
+        private Bucket(Positions<Player> players, Positions<LivingEntity> living) {
+            this.players = players;
+            this.living = living;
+        }
+
+        static Bucket of(Entity[] entities) {
+            Positions<Player> players = new Positions<>(entities.length);
+            Positions<LivingEntity> living = new Positions<>(entities.length);
+
+            for (Entity entity : entities) {
+                if (entity instanceof Player player) {
+                    players.add(player);
+                } else if (entity instanceof LivingEntity livingEntity && !livingEntity.isDead()) {
+                    living.add(livingEntity);
+                }
+            }
+            return new Bucket(players, living);
+        }
+    }
+
+    private static final class Positions<T extends Entity> {
+        private final List<T> entities;
+        private final double[] coordinates;
+
+        Positions(int capacity) {
+            this.entities = new ArrayList<>(capacity);
+            this.coordinates = new double[capacity * 3];
+        }
+
+        void add(T entity) {
+            Location location = entity.getLocation();
+            int offset = entities.size() * 3;
+            coordinates[offset] = location.getX();
+            coordinates[offset + 1] = location.getY();
+            coordinates[offset + 2] = location.getZ();
+            entities.add(entity);
+        }
+
+        void collect(Location center, double radius, List<? super T> result) {
+            double x = center.getX();
+            double y = center.getY();
+            double z = center.getZ();
+
+            for (int i = 0; i < entities.size(); i++) {
+                int offset = i * 3;
+                if (Math.abs(coordinates[offset] - x) <= radius
+                    && Math.abs(coordinates[offset + 1] - y) <= radius
+                    && Math.abs(coordinates[offset + 2] - z) <= radius) {
+                    result.add(entities.get(i));
+                }
+            }
+        }
+    }
+}
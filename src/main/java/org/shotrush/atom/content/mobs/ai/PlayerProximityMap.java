@@ -0,0 +1,144 @@
+package org.shotrush.atom.content.mobs.ai;
+
+import org.bukkit.Chunk;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chunk positions of online players, bucketed into 8x8 chunk cells per world.
+ * <p>
+ * Each player's own region samples its position every {@link #SAMPLE_INTERVAL_TICKS} ticks, so
+ * looking up the nearest player for an animal only touches the few cells around it.
+ */
+public final class PlayerProximityMap {
+
+    public static final long SAMPLE_INTERVAL_TICKS = 10L;
+    private static final int CELL_SHIFT = 3;
+
+    private static final Map<UUID, Tracked> players = new ConcurrentHashMap<>();
+    private static final Map<UUID, Map<Long, Set<Tracked>>> cellsByWorld = new ConcurrentHashMap<>();
+
+    private PlayerProximityMap() {
+    }
+
+    public static void track(Player player) {
+        Tracked tracked = new Tracked(player.getUniqueId());
+        Tracked previous = players.put(player.getUniqueId(), tracked);
+        if (previous != null) {
+            previous.clear();
+        }
+
+        SchedulerAPI.runTaskTimer(player, task -> {
+            if (players.get(tracked.playerId) != tracked || !player.isOnline()) {
+                task.cancel();
+                return;
+            }
+
+            if (player.getGameMode() == GameMode.SPECTATOR) {
+                tracked.clear();
+            } else {
+                tracked.moveTo(player.getLocation());
+            }
+        }, 1L, SAMPLE_INTERVAL_TICKS);
+    }
+
+    public static void untrack(UUID playerId) {
+        Tracked tracked = players.remove(playerId);
+        if (tracked != null) {
+            tracked.clear();
+        }
+    }
+
+    /**
+     * Chebyshev distance in chunks from the given chunk to the closest tracked player,
+     * or {@link Integer#MAX_VALUE} if none is within {@code maxChunks}.
+     */
+    public static int nearestChunkDistance(World world, int chunkX, int chunkZ, int maxChunks) {
+        Map<Long, Set<Tracked>> cells = cellsByWorld.get(world.getUID());
+        if (cells == null || cells.isEmpty()) return Integer.MAX_VALUE;
+
+        int minCellX = (chunkX - maxChunks) >> CELL_SHIFT;
+        int maxCellX = (chunkX + maxChunks) >> CELL_SHIFT;
+        int minCellZ = (chunkZ - maxChunks) >> CELL_SHIFT;
+        int maxCellZ = (chunkZ + maxChunks) >> CELL_SHIFT;
+
+        int nearest = Integer.MAX_VALUE;
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                Set<Tracked> cell = cells.get(Chunk.getChunkKey(cellX, cellZ));
+                if (cell == null) continue;
+
+                for (Tracked tracked : cell) {
+                    int distance = Math.max(Math.abs(tracked.chunkX - chunkX), Math.abs(tracked.chunkZ - chunkZ));
+                    if (distance <= maxChunks && distance < nearest) {
+                        nearest = distance;
+                    }
+                }
+            }
+        }
+
+        return nearest;
+    }
+
+    public static int getTrackedCount() {
+        return players.size();
+    }
+
+    private static final class Tracked {
+        private final UUID playerId;
+        private UUID worldId;
+        private long cell;
+        private volatile int chunkX;
+        private volatile int chunkZ;
+
+        Tracked(UUID playerId) {
+            this.playerId = playerId;
+        }
+
+        synchronized void moveTo(Location location) {
+            UUID world = location.getWorld().getUID();
+            int newChunkX = location.getBlockX() >> 4;
+            int newChunkZ = location.getBlockZ() >> 4;
+            long newCell = Chunk.getChunkKey(newChunkX >> CELL_SHIFT, newChunkZ >> CELL_SHIFT);
+
+            chunkX = newChunkX;
+            chunkZ = newChunkZ;
+            if (world.equals(worldId) && newCell == cell) return;
+
+            removeFromCell();
+            worldId = world;
+            cell = newCell;
+            cellsByWorld.computeIfAbsent(world, key -> new ConcurrentHashMap<>())
+                .compute(newCell, (key, members) -> {
+                    if (members == null) members = ConcurrentHashMap.newKeySet();
+                    members.add(this);
+                    return members;
+                });
+        }
+
+        synchronized void clear() {
+            removeFromCell();
+            worldId = null;
+        }
+
+        private void removeFromCell() {
+            if (worldId == null) return;
+
+            Map<Long, Set<Tracked>> cells = cellsByWorld.get(worldId);
+            if (cells == null) return;
+
+            cells.computeIfPresent(cell, (key, members) -> {
+                members.remove(this);
+                return members.isEmpty() ? null : members;
+            });
+        }
+    }
+}
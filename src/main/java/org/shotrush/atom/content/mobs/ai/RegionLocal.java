@@ -0,0 +1,28 @@
+package org.shotrush.atom.content.mobs.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.papermc.paper.threadedregions.TickRegionScheduler;
+
+import java.util.function.Supplier;
+
+/**
+ * One value per Folia tick region, for state that must not leak between regions ticked by the same thread.
+ * <p>
+ * Values are only touched by the thread currently ticking their region. They are dropped once the region
+ * is merged or split away. Callers outside any region get a value of their own thread.
+ */
+final class RegionLocal<T> {
+
+    private final Cache<Object, T> values = Caffeine.newBuilder().weakKeys().build();
+    private final Supplier<T> initial;
+
+    RegionLocal(Supplier<T> initial) {
+        this.initial = initial;
+    }
+
+    T get() {
+        Object region = TickRegionScheduler.getCurrentRegion();
+        return values.get(region != null ? region : Thread.currentThread(), key -> initial.get());
+    }
+}
@@ -0,0 +1,128 @@
+package org.shotrush.atom.content.mobs.ai;
+
+import com.destroystokyo.paper.entity.ai.Goal;
+import com.destroystokyo.paper.entity.ai.GoalKey;
+import com.destroystokyo.paper.entity.ai.GoalType;
+import org.bukkit.entity.Mob;
+import org.shotrush.atom.content.mobs.ai.debug.PerformanceMonitor;
+
+import java.util.EnumSet;
+
+/**
+ * Wraps a goal so its activation check only runs on the mob's slot ticks.
+ * <p>
+ * The slot comes from the entity id and goal key, which spreads checks of the same goal across ticks.
+ * Outside the {@link AITier#FULL} tier only ambient goals (wander, herd-follow, panic) may activate,
+ * and other running goals stop. Running goals keep ticking every tick.
+ */
+public final class ThrottledGoal implements Goal<Mob> {
+
+    private final Goal<Mob> delegate;
+    private final Mob mob;
+    private final MobAIState state;
+    private final boolean expensive;
+    private final boolean ambient;
+    private final int slot;
+    private final PerformanceMonitor.GoalCounters counters;
+    private long nextCheckTick = Long.MIN_VALUE;
+    private AITier scheduledTier = AITier.FULL;
+
+    private ThrottledGoal(Mob mob, Goal<Mob> delegate, boolean expensive, boolean ambient) {
+        this.delegate = delegate;
+        this.mob = mob;
+        this.state = MobAIState.get(mob);
+        this.expensive = expensive;
+        this.ambient = ambient;
+
+        String name = delegate.getKey().getNamespacedKey().getKey();
+        this.slot = ((mob.getEntityId() * 0x9E3779B9) ^ name.hashCode()) & Integer.MAX_VALUE;
+        this.counters = PerformanceMonitor.goalCounters(name);
+    }
+
+    public static ThrottledGoal of(Mob mob, Goal<Mob> goal) {
+        return new ThrottledGoal(mob, goal, false, false);
+    }
+
+    public static ThrottledGoal expensive(Mob mob, Goal<Mob> goal) {
+        return new ThrottledGoal(mob, goal, true, false);
+    }
+
+    public static ThrottledGoal ambient(Mob mob, Goal<Mob> goal) {
+        return new ThrottledGoal(mob, goal, false, true);
+    }
+
+    @Override
+    public boolean shouldActivate() {
+        long tick = GoalThrottle.currentTick(mob);
+        AITier tier = GoalThrottle.tier(mob, state, tick);
+        if (tick < nextCheckTick && tier.ordinal() >= scheduledTier.ordinal()) {
+            counters.recordSkip();
+            return false;
+        }
+
+        int interval = GoalThrottle.interval(tier, expensive, ambient);
+        scheduledTier = tier;
+        if (interval < 0) {
+            counters.recordSkip();
+            nextCheckTick = Long.MAX_VALUE;
+            return false;
+        }
+
+        if (expensive && !GoalThrottle.hasBudget(mob.getWorld(), tick)) {
+            counters.recordDeferred();
+            nextCheckTick = tick + 1;
+            return false;
+        }
+
+        nextCheckTick = nextSlot(tick, interval);
+
+        long start = System.nanoTime();
+        boolean activate = delegate.shouldActivate();
+        long elapsed = System.nanoTime() - start;
+
+        if (expensive) {
+            GoalThrottle.charge(mob.getWorld(), tick, elapsed);
+        }
+        counters.recordCheck(elapsed, activate);
+        return activate;
+    }
+
+    @Override
+    public boolean shouldStayActive() {
+        if (!ambient && state.getAiTier() != AITier.FULL) return false;
+        return delegate.shouldStayActive();
+    }
+
+    @Override
+    public void start() {
+        delegate.start();
+    }
+
+    @Override
+    public void stop() {
+        delegate.stop();
+        nextCheckTick = Long.MIN_VALUE;
+    }
+
+    @Override
+    public void tick() {
+        long start = System.nanoTime();
+        delegate.tick();
+        counters.recordTick(System.nanoTime() - start);
+    }
+
+    @Override
+    public GoalKey<Mob> getKey() {
+        return delegate.getKey();
+    }
+
+    @Override
+    public EnumSet<GoalType> getTypes() {
+        return delegate.getTypes();
+    }
+
+    private long nextSlot(long tick, int interval) {
+        if (interval <= 1) return tick + 1;
+        return tick + interval - Math.floorMod(tick + slot, interval);
+    }
+}
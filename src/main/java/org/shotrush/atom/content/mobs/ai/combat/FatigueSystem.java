@@ -3,8 +3,8 @@ package org.shotrush.atom.content.mobs.ai.combat;
 import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.entity.Mob;
-import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 
 public class FatigueSystem {
     
@@ -13,57 +13,65 @@ public class FatigueSystem {
     private static final double STAMINA_DRAIN_COMBAT = 0.9;
     private static final double FATIGUE_DAMAGE_MULTIPLIER = 0.6;
     private static final double FATIGUE_ATTACK_SPEED_MULTIPLIER = 0.7;
+    private static final int FATIGUE_RECOVERY_TICKS = 200;
     
     public FatigueSystem(Plugin plugin) {
         this.plugin = plugin;
     }
     
     public void trackCombat(Mob mob) {
-        if (!mob.hasMetadata("combat_ticks")) {
-            mob.setMetadata("combat_ticks", new FixedMetadataValue(plugin, 0));
-        }
-        
-        int combatTicks = mob.getMetadata("combat_ticks").get(0).asInt();
-        combatTicks++;
-        
-        mob.setMetadata("combat_ticks", new FixedMetadataValue(plugin, combatTicks));
+        MobAIState state = MobAIState.get(mob);
+        int combatTicks = state.getCombatTicks() + 1;
+        state.setCombatTicks(combatTicks);
+        state.setLastCombatTick(mob.getWorld().getGameTime());
         
-        drainStamina(mob);
+        drainStamina(state);
         
         if (combatTicks >= FATIGUE_THRESHOLD) {
-            mob.setMetadata("fatigued", new FixedMetadataValue(plugin, true));
+            state.setFatigued(true);
         }
     }
     
     public void resetCombat(Mob mob) {
-        mob.removeMetadata("combat_ticks", plugin);
+        MobAIState state = MobAIState.get(mob);
+        state.setCombatTicks(0);
         
-        if (!mob.hasMetadata("fatigue_recovery_timer")) {
-            mob.setMetadata("fatigue_recovery_timer", new FixedMetadataValue(plugin, 0));
+        int recoveryTimer = state.getFatigueRecoveryTimer() + 1;
+        
+        if (recoveryTimer >= FATIGUE_RECOVERY_TICKS) {
+            state.resetFatigue();
+        } else {
+            state.setFatigueRecoveryTimer(recoveryTimer);
         }
+    }
+    
+    public void recover(MobAIState state, long now, long ticks) {
+        if (now - state.getLastCombatTick() < ticks) return;
         
-        int recoveryTimer = mob.getMetadata("fatigue_recovery_timer").get(0).asInt();
-        recoveryTimer++;
+        state.setCombatTicks(0);
+        if (!state.isFatigued()) return;
         
-        if (recoveryTimer >= 200) {
-            mob.removeMetadata("fatigued", plugin);
-            mob.removeMetadata("fatigue_recovery_timer", plugin);
+        long recoveryTimer = state.getFatigueRecoveryTimer() + ticks;
+        if (recoveryTimer >= FATIGUE_RECOVERY_TICKS) {
+            state.resetFatigue();
         } else {
-            mob.setMetadata("fatigue_recovery_timer", new FixedMetadataValue(plugin, recoveryTimer));
+            state.setFatigueRecoveryTimer((int) recoveryTimer);
         }
     }
     
     public boolean isFatigued(Mob mob) {
-        return mob.hasMetadata("fatigued") && mob.getMetadata("fatigued").get(0).asBoolean();
+        MobAIState state = MobAIState.find(mob);
+        return state != null && state.isFatigued();
     }
     
     public void applyFatigueDebuff(Mob mob) {
-        if (!isFatigued(mob)) {
+        MobAIState state = MobAIState.find(mob);
+        if (state == null || !state.isFatigued()) {
             return;
         }
         
-        mob.setMetadata("fatigue_damage_multiplier", new FixedMetadataValue(plugin, FATIGUE_DAMAGE_MULTIPLIER));
-        mob.setMetadata("fatigue_attack_speed_multiplier", new FixedMetadataValue(plugin, FATIGUE_ATTACK_SPEED_MULTIPLIER));
+        state.setFatigueDamageMultiplier(FATIGUE_DAMAGE_MULTIPLIER);
+        state.setFatigueAttackSpeedMultiplier(FATIGUE_ATTACK_SPEED_MULTIPLIER);
         
         if (mob.getTicksLived() % 40 == 0) {
             spawnFatigueParticles(mob);
@@ -71,34 +79,27 @@ public class FatigueSystem {
     }
     
     public double getDamageMultiplier(Mob mob) {
-        if (isFatigued(mob) && mob.hasMetadata("fatigue_damage_multiplier")) {
-            return mob.getMetadata("fatigue_damage_multiplier").get(0).asDouble();
-        }
-        return 1.0;
+        MobAIState state = MobAIState.find(mob);
+        return state != null && state.isFatigued() ? state.getFatigueDamageMultiplier() : 1.0;
     }
     
     public double getAttackSpeedMultiplier(Mob mob) {
-        if (isFatigued(mob) && mob.hasMetadata("fatigue_attack_speed_multiplier")) {
-            return mob.getMetadata("fatigue_attack_speed_multiplier").get(0).asDouble();
-        }
-        return 1.0;
+        MobAIState state = MobAIState.find(mob);
+        return state != null && state.isFatigued() ? state.getFatigueAttackSpeedMultiplier() : 1.0;
     }
     
-    private void drainStamina(Mob mob) {
-        if (!mob.hasMetadata("stamina")) {
+    private void drainStamina(MobAIState state) {
+        if (!state.hasStamina()) {
             double maxStamina = 100 + (Math.random() * 100);
-            mob.setMetadata("maxStamina", new FixedMetadataValue(plugin, maxStamina));
-            mob.setMetadata("stamina", new FixedMetadataValue(plugin, maxStamina));
+            state.initStamina(maxStamina, maxStamina);
             return;
         }
         
-        double stamina = mob.getMetadata("stamina").get(0).asDouble();
-        stamina = Math.max(0, stamina - STAMINA_DRAIN_COMBAT);
-        
-        mob.setMetadata("stamina", new FixedMetadataValue(plugin, stamina));
+        double stamina = Math.max(0, state.getStamina() - STAMINA_DRAIN_COMBAT);
+        state.setStamina(stamina);
         
         if (stamina <= 0) {
-            mob.setMetadata("fatigued", new FixedMetadataValue(plugin, true));
+            state.setFatigued(true);
         }
     }
     
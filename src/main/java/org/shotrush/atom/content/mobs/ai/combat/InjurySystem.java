@@ -4,8 +4,8 @@ import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.entity.Mob;
-import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 
 public class InjurySystem {
     
@@ -39,25 +39,24 @@ public class InjurySystem {
     
     public void applyInjuryEffects(Mob mob) {
         InjuryLevel level = getInjuryLevel(mob);
+        MobAIState state = MobAIState.get(mob);
+        state.setInjuryLevel(level);
         
         if (level == InjuryLevel.HEALTHY) {
-            mob.removeMetadata("injury_level", plugin);
-            mob.removeMetadata("injury_speed_multiplier", plugin);
+            state.setInjurySpeedMultiplier(1.0);
             return;
         }
         
-        mob.setMetadata("injury_level", new FixedMetadataValue(plugin, level.name()));
-        
         double speedMultiplier = switch (level) {
             case WOUNDED -> WOUNDED_SPEED_MULTIPLIER;
             case CRITICALLY_INJURED -> CRITICAL_SPEED_MULTIPLIER;
             default -> 1.0;
         };
         
-        mob.setMetadata("injury_speed_multiplier", new FixedMetadataValue(plugin, speedMultiplier));
+        state.setInjurySpeedMultiplier(speedMultiplier);
         
         if (level == InjuryLevel.WOUNDED || level == InjuryLevel.CRITICALLY_INJURED) {
-            applyLimpingEffect(mob, level);
+            applyLimpingEffect(mob, state, level);
         }
     }
     
@@ -94,19 +93,12 @@ public class InjurySystem {
     }
     
     public double getSpeedMultiplier(Mob mob) {
-        if (mob.hasMetadata("injury_speed_multiplier")) {
-            return mob.getMetadata("injury_speed_multiplier").get(0).asDouble();
-        }
-        return 1.0;
+        MobAIState state = MobAIState.find(mob);
+        return state != null ? state.getInjurySpeedMultiplier() : 1.0;
     }
     
-    private void applyLimpingEffect(Mob mob, InjuryLevel level) {
-        if (!mob.hasMetadata("limp_timer")) {
-            mob.setMetadata("limp_timer", new FixedMetadataValue(plugin, 0));
-        }
-        
-        int timer = mob.getMetadata("limp_timer").get(0).asInt();
-        timer++;
+    private void applyLimpingEffect(Mob mob, MobAIState state, InjuryLevel level) {
+        int timer = state.getLimpTimer() + 1;
         
         int limpInterval = level == InjuryLevel.CRITICALLY_INJURED ? 10 : 20;
         
@@ -120,7 +112,7 @@ public class InjurySystem {
             }
         }
         
-        mob.setMetadata("limp_timer", new FixedMetadataValue(plugin, timer));
+        state.setLimpTimer(timer);
     }
     
     public enum InjuryLevel {
@@ -1,14 +1,14 @@
 package org.shotrush.atom.content.mobs.ai.combat;
 
-import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.entity.Mob;
-import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
+import org.shotrush.atom.content.mobs.herd.HerdSnapshot;
 
 import java.util.Optional;
-import java.util.UUID;
 
 public class MoraleSystem {
     
@@ -16,6 +16,7 @@ public class MoraleSystem {
     private final HerdManager herdManager;
     private static final double MORALE_BREAK_THRESHOLD = 0.5;
     private static final double NEARBY_CHECK_RADIUS = 20.0;
+    private static final double NEARBY_CHECK_RADIUS_SQUARED = NEARBY_CHECK_RADIUS * NEARBY_CHECK_RADIUS;
     private static final int REGROUP_DURATION = 100;
     
     public MoraleSystem(Plugin plugin, HerdManager herdManager) {
@@ -29,26 +30,25 @@ public class MoraleSystem {
             return true;
         }
         
-        Herd herd = herdOpt.get();
+        HerdSnapshot snapshot = herdOpt.get().snapshot();
+        Location location = mob.getLocation();
         int totalMembers = 0;
         int deadOrFledMembers = 0;
         
-        for (UUID memberId : herd.members()) {
-            Mob member = (Mob) Bukkit.getEntity(memberId);
-            
-            if (member == null || !member.isValid() || member.isDead()) {
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.isDead(i)) {
                 deadOrFledMembers++;
                 totalMembers++;
                 continue;
             }
             
-            if (member.getLocation().distance(mob.getLocation()) > NEARBY_CHECK_RADIUS) {
+            if (snapshot.distanceSquared(i, location) > NEARBY_CHECK_RADIUS_SQUARED) {
                 continue;
             }
             
             totalMembers++;
             
-            if (member.hasMetadata("fleeing") && member.getMetadata("fleeing").get(0).asBoolean()) {
+            if (snapshot.isFleeing(i)) {
                 deadOrFledMembers++;
             }
         }
@@ -68,71 +68,65 @@ public class MoraleSystem {
     }
     
     public boolean isMoraleBroken(Mob mob) {
-        if (!mob.hasMetadata("morale_broken")) {
+        MobAIState state = MobAIState.find(mob);
+        if (state == null || !state.isMoraleBroken()) {
             return false;
         }
         
-        boolean broken = mob.getMetadata("morale_broken").get(0).asBoolean();
+        int breakTimer = state.getMoraleBreakTimer() + 1;
         
-        if (broken) {
-            int breakTimer = mob.hasMetadata("morale_break_timer") 
-                ? mob.getMetadata("morale_break_timer").get(0).asInt() 
-                : 0;
-            
-            breakTimer++;
-            
-            if (breakTimer >= REGROUP_DURATION) {
-                restoreMorale(mob);
-                return false;
-            }
-            
-            mob.setMetadata("morale_break_timer", new FixedMetadataValue(plugin, breakTimer));
+        if (breakTimer >= REGROUP_DURATION) {
+            restoreMorale(mob, state);
+            return false;
         }
         
-        return broken;
+        state.setMoraleBreakTimer(breakTimer);
+        return true;
     }
     
     public void breakMorale(Mob mob) {
-        mob.setMetadata("morale_broken", new FixedMetadataValue(plugin, true));
-        mob.setMetadata("morale_break_timer", new FixedMetadataValue(plugin, 0));
-        mob.setMetadata("fleeing", new FixedMetadataValue(plugin, true));
+        breakMorale(MobAIState.get(mob));
         
         Optional<Herd> herdOpt = herdManager.getHerd(mob.getUniqueId());
         if (herdOpt.isPresent()) {
-            Herd herd = herdOpt.get();
-            for (UUID memberId : herd.members()) {
-                Mob member = (Mob) Bukkit.getEntity(memberId);
-                if (member != null && member.isValid() && !member.isDead()) {
-                    if (member.getLocation().distance(mob.getLocation()) <= NEARBY_CHECK_RADIUS) {
-                        member.setMetadata("morale_broken", new FixedMetadataValue(plugin, true));
-                        member.setMetadata("morale_break_timer", new FixedMetadataValue(plugin, 0));
-                        member.setMetadata("fleeing", new FixedMetadataValue(plugin, true));
-                    }
+            HerdSnapshot snapshot = herdOpt.get().snapshot();
+            Location location = mob.getLocation();
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (snapshot.isDead(i) || snapshot.distanceSquared(i, location) > NEARBY_CHECK_RADIUS_SQUARED) {
+                    continue;
+                }
+                
+                MobAIState memberState = MobAIState.find(snapshot.id(i));
+                if (memberState != null) {
+                    breakMorale(memberState);
                 }
             }
         }
     }
     
-    private void restoreMorale(Mob mob) {
-        mob.removeMetadata("morale_broken", plugin);
-        mob.removeMetadata("morale_break_timer", plugin);
+    private void breakMorale(MobAIState state) {
+        state.setMoraleBroken(true);
+        state.setMoraleBreakTimer(0);
+        state.setFleeing(true);
+    }
+    
+    private void restoreMorale(Mob mob, MobAIState state) {
+        state.resetMorale();
         
         Optional<Herd> herdOpt = herdManager.getHerd(mob.getUniqueId());
         if (herdOpt.isPresent()) {
-            Herd herd = herdOpt.get();
+            HerdSnapshot snapshot = herdOpt.get().snapshot();
+            Location location = mob.getLocation();
             int nearbyAllies = 0;
             
-            for (UUID memberId : herd.members()) {
-                Mob member = (Mob) Bukkit.getEntity(memberId);
-                if (member != null && member.isValid() && !member.isDead()) {
-                    if (member.getLocation().distance(mob.getLocation()) <= NEARBY_CHECK_RADIUS) {
-                        nearbyAllies++;
-                    }
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (!snapshot.isDead(i) && snapshot.distanceSquared(i, location) <= NEARBY_CHECK_RADIUS_SQUARED) {
+                    nearbyAllies++;
                 }
             }
             
             if (nearbyAllies >= 2) {
-                mob.removeMetadata("fleeing", plugin);
+                state.setFleeing(false);
             }
         }
     }
@@ -0,0 +1,175 @@
+package org.shotrush.atom.content.mobs.ai.combat;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Animals;
+import org.shotrush.atom.content.mobs.ai.AITier;
+import org.shotrush.atom.content.mobs.ai.GoalThrottle;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Regenerates stamina and recovers fatigue for tracked animals in one pass per 8x8 chunk cell.
+ * <p>
+ * Cells never straddle a Folia region section, so a cell's timer runs on the region that owns all
+ * of its animals. Animals that leave for another region are handed over on their own scheduler.
+ * Stamina only lives in {@link MobAIState} and reaches the PDC when the animal's chunk unloads.
+ */
+public final class StaminaRegeneration {
+
+    public static final long PERIOD_TICKS = 40L;
+    private static final double REGEN_PER_PERIOD = 2.0;
+    private static final int CELL_SHIFT = 3;
+
+    private final FatigueSystem fatigueSystem;
+    private final Map<UUID, Map<Long, Cell>> cellsByWorld = new ConcurrentHashMap<>();
+    private final Map<UUID, Cell> cellByAnimal = new ConcurrentHashMap<>();
+
+    public StaminaRegeneration(FatigueSystem fatigueSystem) {
+        this.fatigueSystem = fatigueSystem;
+    }
+
+    /**
+     * Adds the animal to the cell it currently stands in. Must run on the animal's region.
+     */
+    public void track(Animals animal) {
+        Location location = animal.getLocation();
+        int cellX = (location.getBlockX() >> 4) >> CELL_SHIFT;
+        int cellZ = (location.getBlockZ() >> 4) >> CELL_SHIFT;
+        Map<Long, Cell> cells = cellsByWorld.computeIfAbsent(animal.getWorld().getUID(), key -> new ConcurrentHashMap<>());
+
+        while (true) {
+            Cell cell = cells.computeIfAbsent(Chunk.getChunkKey(cellX, cellZ),
+                key -> new Cell(animal.getWorld(), cellX, cellZ));
+            if (cell.add(animal)) {
+                Cell previous = cellByAnimal.put(animal.getUniqueId(), cell);
+                if (previous != null && previous != cell) {
+                    previous.remove(animal);
+                }
+                return;
+            }
+            cells.remove(cell.key, cell);
+        }
+    }
+
+    public void untrack(UUID animalId) {
+        Cell cell = cellByAnimal.remove(animalId);
+        if (cell != null) {
+            cell.remove(animalId);
+        }
+    }
+
+    public int getTrackedCount() {
+        return cellByAnimal.size();
+    }
+
+    public int getCellCount() {
+        int count = 0;
+        for (Map<Long, Cell> cells : cellsByWorld.values()) {
+            count += cells.size();
+        }
+        return count;
+    }
+
+    private void regenerate(MobAIState state, long ticks) {
+        if (!state.hasStamina() || state.isFleeing()) return;
+
+        double stamina = state.getStamina();
+        double maxStamina = state.getMaxStamina();
+
+        if (stamina < maxStamina) {
+            state.setStamina(Math.min(maxStamina, stamina + REGEN_PER_PERIOD * ticks / PERIOD_TICKS));
+        }
+    }
+
+    private final class Cell {
+        private final World world;
+        private final long key;
+        private final int cellX;
+        private final int cellZ;
+        private final Map<UUID, Animals> animals = new ConcurrentHashMap<>();
+        private boolean retired;
+        private long pendingTicks;
+
+        Cell(World world, int cellX, int cellZ) {
+            this.world = world;
+            this.key = Chunk.getChunkKey(cellX, cellZ);
+            this.cellX = cellX;
+            this.cellZ = cellZ;
+
+            SchedulerAPI.runTaskTimer(center(), this::run, PERIOD_TICKS, PERIOD_TICKS);
+        }
+
+        synchronized boolean add(Animals animal) {
+            if (retired) return false;
+            animals.put(animal.getUniqueId(), animal);
+            return true;
+        }
+
+        void remove(Animals animal) {
+            animals.remove(animal.getUniqueId(), animal);
+        }
+
+        void remove(UUID animalId) {
+            animals.remove(animalId);
+        }
+
+        private Location center() {
+            return new Location(world, ((cellX << CELL_SHIFT) << 4) + 64, 64, ((cellZ << CELL_SHIFT) << 4) + 64);
+        }
+
+        private void run(ScheduledTask task) {
+            synchronized (this) {
+                if (animals.isEmpty()) {
+                    retired = true;
+                    task.cancel();
+                    Map<Long, Cell> cells = cellsByWorld.get(world.getUID());
+                    if (cells != null) {
+                        cells.remove(key, this);
+                    }
+                    return;
+                }
+            }
+
+            pendingTicks += PERIOD_TICKS;
+            if (GoalThrottle.resolveTier(center()) == AITier.FROZEN && pendingTicks < GoalThrottle.getFrozenInterval()) {
+                return;
+            }
+            long ticks = pendingTicks;
+            pendingTicks = 0;
+            long now = world.getGameTime();
+
+            for (Animals animal : animals.values()) {
+                if (!animal.isValid()) {
+                    untrack(animal.getUniqueId());
+                    continue;
+                }
+
+                if (!Bukkit.isOwnedByCurrentRegion(animal)) {
+                    remove(animal);
+                    SchedulerAPI.runTask(animal, () -> track(animal));
+                    continue;
+                }
+
+                Location location = animal.getLocation();
+                if ((location.getBlockX() >> 4) >> CELL_SHIFT != cellX || (location.getBlockZ() >> 4) >> CELL_SHIFT != cellZ) {
+                    track(animal);
+                }
+
+                MobAIState state = MobAIState.find(animal);
+                if (state == null) continue;
+
+                regenerate(state, ticks);
+                fatigueSystem.recover(state, now, ticks);
+            }
+        }
+    }
+}
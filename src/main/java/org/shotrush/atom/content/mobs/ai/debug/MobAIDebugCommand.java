@@ -8,6 +8,7 @@ import org.bukkit.entity.Animals;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Mob;
 import org.bukkit.entity.Player;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
 
@@ -86,6 +87,12 @@ public class MobAIDebugCommand extends BaseCommand {
                 mob.getLocation().getZ()), 
                 NamedTextColor.WHITE)));
         
+        MobAIState state = MobAIState.find(mob);
+        if (state != null) {
+            player.sendMessage(Component.text("AI Tier: ", NamedTextColor.GRAY)
+                .append(Component.text(state.getAiTier().name(), NamedTextColor.WHITE)));
+        }
+        
         if (mob instanceof Animals animal) {
             displayHerdInfo(player, animal);
         }
@@ -169,6 +176,30 @@ public class MobAIDebugCommand extends BaseCommand {
         PerformanceMonitor.displayStats(player);
     }
     
+    @Subcommand("performance goals")
+    @Description("Show per-goal evaluation counters")
+    public void onPerformanceGoals(Player player) {
+        PerformanceMonitor.displayGoalStats(player);
+    }
+    
+    @Subcommand("bench state")
+    @Description("Compare metadata and MobAIState access on the target mob")
+    public void onBenchState(Player player, @Default("100000") int iterations) {
+        Entity target = player.getTargetEntity(10, false);
+
+        if (!(target instanceof Mob mob)) {
+            player.sendMessage(Component.text("You must be looking at a mob!", NamedTextColor.RED));
+            return;
+        }
+
+        player.sendMessage(Component.text("=== AI State Benchmark ===", NamedTextColor.GOLD));
+        for (String line : MobAIStateBenchmark.run(org.shotrush.atom.Atom.getInstance(), mob, Math.max(1000, iterations))) {
+            player.sendMessage(Component.text(line, NamedTextColor.WHITE));
+        }
+        player.sendMessage(Component.text("Tracked AI states: ", NamedTextColor.GRAY)
+            .append(Component.text(String.valueOf(MobAIState.getTrackedCount()), NamedTextColor.WHITE)));
+    }
+
     @Subcommand("reset")
     @Description("Reset performance metrics")
     public void onReset(Player player) {
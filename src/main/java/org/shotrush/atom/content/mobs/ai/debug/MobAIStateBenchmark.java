@@ -0,0 +1,83 @@
+package org.shotrush.atom.content.mobs.ai.debug;
+
+import org.bukkit.entity.Mob;
+import org.bukkit.metadata.FixedMetadataValue;
+import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class MobAIStateBenchmark {
+
+    private static final String FLEEING_KEY = "atom_bench_fleeing";
+    private static final String STAMINA_KEY = "atom_bench_stamina";
+
+    public static List<String> run(Plugin plugin, Mob mob, int iterations) {
+        List<String> results = new ArrayList<>();
+        MobAIState state = MobAIState.get(mob);
+
+        mob.setMetadata(FLEEING_KEY, new FixedMetadataValue(plugin, false));
+        mob.setMetadata(STAMINA_KEY, new FixedMetadataValue(plugin, 100.0));
+        try {
+            metadataPass(plugin, mob, iterations / 10);
+            statePass(state, iterations / 10);
+
+            results.add(measure("metadata", iterations, () -> metadataPass(plugin, mob, iterations)));
+            results.add(measure("MobAIState", iterations, () -> statePass(state, iterations)));
+        } finally {
+            mob.removeMetadata(FLEEING_KEY, plugin);
+            mob.removeMetadata(STAMINA_KEY, plugin);
+        }
+
+        return results;
+    }
+
+    private static double metadataPass(Plugin plugin, Mob mob, int iterations) {
+        double sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (mob.hasMetadata(FLEEING_KEY) && mob.getMetadata(FLEEING_KEY).get(0).asBoolean()) {
+                continue;
+            }
+            double stamina = mob.getMetadata(STAMINA_KEY).get(0).asDouble();
+            mob.setMetadata(STAMINA_KEY, new FixedMetadataValue(plugin, stamina));
+            sink += stamina;
+        }
+        return sink;
+    }
+
+    private static double statePass(MobAIState state, int iterations) {
+        double sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (state.isFleeing()) {
+                continue;
+            }
+            double stamina = state.getStamina();
+            state.setStamina(stamina);
+            sink += stamina;
+        }
+        return sink;
+    }
+
+    private static String measure(String name, int iterations, Runnable pass) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        pass.run();
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        String allocation = allocatedBefore < 0 ? "n/a" : String.format("%.1f B/op", allocated / (double) iterations);
+        return String.format("%s: %d checks in %.2fms (%.1fns/op, %s)",
+            name, iterations, elapsed / 1e6, elapsed / (double) iterations, allocation);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+            && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -6,10 +6,12 @@ import org.bukkit.entity.Player;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PerformanceMonitor {
     
     private static final Map<String, PerformanceStats> stats = new ConcurrentHashMap<>();
+    private static final Map<String, GoalCounters> goalCounters = new ConcurrentHashMap<>();
     private static final int SAMPLE_SIZE = 100;
     
     private static class PerformanceStats {
@@ -61,6 +63,56 @@ public class PerformanceMonitor {
         }
     }
     
+    public static final class GoalCounters {
+        final String goal;
+        final LongAdder checks = new LongAdder();
+        final LongAdder activations = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder deferred = new LongAdder();
+        final LongAdder checkNanos = new LongAdder();
+        final LongAdder ticks = new LongAdder();
+        final LongAdder tickNanos = new LongAdder();
+        
+        GoalCounters(String goal) {
+            this.goal = goal;
+        }
+        
+        public void recordCheck(long nanos, boolean activated) {
+            checks.increment();
+            checkNanos.add(nanos);
+            if (activated) {
+                activations.increment();
+            }
+        }
+        
+        public void recordSkip() {
+            skipped.increment();
+        }
+        
+        public void recordDeferred() {
+            deferred.increment();
+        }
+        
+        public void recordTick(long nanos) {
+            ticks.increment();
+            tickNanos.add(nanos);
+        }
+        
+        void reset() {
+            checks.reset();
+            activations.reset();
+            skipped.reset();
+            deferred.reset();
+            checkNanos.reset();
+            ticks.reset();
+            tickNanos.reset();
+        }
+    }
+    
+    public static GoalCounters goalCounters(String goal) {
+        return goalCounters.computeIfAbsent(goal, GoalCounters::new);
+    }
+    
     public static void recordExecution(String operation, long nanos) {
         stats.computeIfAbsent(operation, PerformanceStats::new).addSample(nanos);
         
@@ -124,8 +176,37 @@ public class PerformanceMonitor {
         ));
     }
     
+    public static void displayGoalStats(Player player) {
+        List<GoalCounters> sorted = new ArrayList<>(goalCounters.values());
+        sorted.removeIf(counters -> counters.checks.sum() + counters.skipped.sum() + counters.deferred.sum() == 0);
+        
+        if (sorted.isEmpty()) {
+            player.sendMessage(Component.text("No goal evaluations recorded yet.", NamedTextColor.YELLOW));
+            return;
+        }
+        
+        player.sendMessage(Component.text("=== MobAI Goal Evaluation ===", NamedTextColor.GOLD));
+        
+        sorted.sort((a, b) -> Long.compare(b.checkNanos.sum() + b.tickNanos.sum(), a.checkNanos.sum() + a.tickNanos.sum()));
+        
+        for (GoalCounters counters : sorted) {
+            long checks = counters.checks.sum();
+            long ticks = counters.ticks.sum();
+            double checkAvgUs = checks == 0 ? 0 : counters.checkNanos.sum() / (double) checks / 1_000.0;
+            double tickAvgUs = ticks == 0 ? 0 : counters.tickNanos.sum() / (double) ticks / 1_000.0;
+            
+            player.sendMessage(Component.text(counters.goal, NamedTextColor.AQUA));
+            player.sendMessage(Component.text(String.format(
+                "  Checks: %,d (%.1fus) | Activated: %,d | Skipped: %,d | Deferred: %,d | Ticks: %,d (%.1fus)",
+                checks, checkAvgUs, counters.activations.sum(), counters.skipped.sum(),
+                counters.deferred.sum(), ticks, tickAvgUs
+            ), NamedTextColor.GRAY));
+        }
+    }
+    
     public static void reset() {
         stats.clear();
+        goalCounters.values().forEach(GoalCounters::reset);
     }
     
     public static Map<String, Double> getAverages() {
@@ -8,6 +8,8 @@ import org.bukkit.entity.Animals;
 import org.bukkit.entity.Mob;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
+import org.shotrush.atom.content.mobs.ai.NearbyEntityCache;
 import org.shotrush.atom.content.mobs.ai.config.SpeciesBehavior;
 
 import java.util.EnumSet;
@@ -16,6 +18,7 @@ public class AcquireNearestPlayerTargetGoal implements Goal<Mob> {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final SpeciesBehavior behavior;
     private int scanTimer;
     private static final int SCAN_INTERVAL = 20;
@@ -23,6 +26,7 @@ public class AcquireNearestPlayerTargetGoal implements Goal<Mob> {
     
     public AcquireNearestPlayerTargetGoal(Mob mob, Plugin plugin, SpeciesBehavior behavior) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.behavior = behavior;
         this.key = GoalKey.of(Mob.class, new NamespacedKey(plugin, "acquire_player_target"));
         this.scanTimer = 0;
@@ -30,13 +34,12 @@ public class AcquireNearestPlayerTargetGoal implements Goal<Mob> {
     
     @Override
     public boolean shouldActivate() {
-        if (!mob.hasMetadata("aggressive")) return false;
-        if (!mob.getMetadata("aggressive").get(0).asBoolean()) return false;
+        if (!state.isAggressive()) return false;
         
         double healthPercent = mob.getHealth() / mob.getAttribute(org.bukkit.attribute.Attribute.MAX_HEALTH).getValue();
         if (healthPercent < FIGHT_THRESHOLD) return false;
         
-        if (mob.hasMetadata("fleeing") && mob.getMetadata("fleeing").get(0).asBoolean()) {
+        if (state.isFleeing()) {
             return false;
         }
         
@@ -61,7 +64,7 @@ public class AcquireNearestPlayerTargetGoal implements Goal<Mob> {
             return false;
         }
         
-        if (mob.hasMetadata("fleeing") && mob.getMetadata("fleeing").get(0).asBoolean()) {
+        if (state.isFleeing()) {
             mob.setTarget(null);
             return false;
         }
@@ -96,7 +99,7 @@ public class AcquireNearestPlayerTargetGoal implements Goal<Mob> {
         Player nearest = null;
         double nearestDist = behavior.aggroRadius();
         
-        for (Player player : mob.getLocation().getNearbyPlayers(behavior.aggroRadius())) {
+        for (Player player : NearbyEntityCache.players(mob.getLocation(), behavior.aggroRadius())) {
             if (player.getGameMode() == org.bukkit.GameMode.CREATIVE || player.getGameMode() == org.bukkit.GameMode.SPECTATOR) {
                 continue;
             }
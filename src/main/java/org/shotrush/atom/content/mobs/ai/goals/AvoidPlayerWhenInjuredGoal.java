@@ -9,7 +9,9 @@ import org.bukkit.entity.Animals;
 import org.bukkit.entity.Mob;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 import org.shotrush.atom.content.mobs.AnimalDomestication;
+import org.shotrush.atom.content.mobs.ai.NearbyEntityCache;
 import org.shotrush.atom.content.mobs.ai.config.SpeciesBehavior;
 
 import java.util.EnumSet;
@@ -18,6 +20,7 @@ public class AvoidPlayerWhenInjuredGoal implements Goal<Mob> {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final SpeciesBehavior behavior;
     private Player nearestPlayer;
     private int scanTimer;
@@ -26,6 +29,7 @@ public class AvoidPlayerWhenInjuredGoal implements Goal<Mob> {
     
     public AvoidPlayerWhenInjuredGoal(Mob mob, Plugin plugin, SpeciesBehavior behavior) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.behavior = behavior;
         this.key = GoalKey.of(Mob.class, new NamespacedKey(plugin, "avoid_player_injured"));
         this.scanTimer = 0;
@@ -39,7 +43,7 @@ public class AvoidPlayerWhenInjuredGoal implements Goal<Mob> {
             return false;
         }
         
-        if (mob.hasMetadata("aggressive") && mob.getMetadata("aggressive").get(0).asBoolean()) {
+        if (state.isAggressive()) {
             return false;
         }
         
@@ -104,7 +108,7 @@ public class AvoidPlayerWhenInjuredGoal implements Goal<Mob> {
         Player nearest = null;
         double nearestDist = FLEE_DISTANCE;
         
-        for (Player player : mob.getLocation().getNearbyPlayers(FLEE_DISTANCE)) {
+        for (Player player : NearbyEntityCache.players(mob.getLocation(), FLEE_DISTANCE)) {
             double dist = player.getLocation().distance(mob.getLocation());
             if (dist < nearestDist) {
                 nearest = player;
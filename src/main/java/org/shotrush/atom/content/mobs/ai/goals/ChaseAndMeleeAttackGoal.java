@@ -9,6 +9,7 @@ import org.bukkit.entity.Animals;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Mob;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 import org.shotrush.atom.content.mobs.AnimalDomestication;
 import org.shotrush.atom.content.mobs.ai.combat.FatigueSystem;
 import org.shotrush.atom.content.mobs.ai.combat.InjurySystem;
@@ -21,6 +22,7 @@ public class ChaseAndMeleeAttackGoal implements Goal<Mob> {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final SpeciesBehavior behavior;
     private final FatigueSystem fatigueSystem;
     private final InjurySystem injurySystem;
@@ -31,6 +33,7 @@ public class ChaseAndMeleeAttackGoal implements Goal<Mob> {
     
     public ChaseAndMeleeAttackGoal(Mob mob, Plugin plugin, SpeciesBehavior behavior, FatigueSystem fatigueSystem, InjurySystem injurySystem, MoraleSystem moraleSystem) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.behavior = behavior;
         this.fatigueSystem = fatigueSystem;
         this.injurySystem = injurySystem;
@@ -48,7 +51,7 @@ public class ChaseAndMeleeAttackGoal implements Goal<Mob> {
     public boolean shouldStayActive() {
         if (mob.getTarget() == null || !mob.getTarget().isValid()) return false;
         
-        if (mob.hasMetadata("fleeing") && mob.getMetadata("fleeing").get(0).asBoolean()) {
+        if (state.isFleeing()) {
             return false;
         }
         
@@ -14,6 +14,7 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Mob;
 import org.bukkit.entity.PolarBear;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.NearbyEntityCache;
 
 import java.util.EnumSet;
 
@@ -41,7 +42,7 @@ public class CubProtectionGoal implements Goal<Mob> {
         Location bearLoc = mob.getLocation();
         if (bearLoc == null || bearLoc.getWorld() == null) return false;
         
-        for (org.bukkit.entity.Entity nearby : bearLoc.getWorld().getNearbyEntities(bearLoc, CUB_PROTECTION_RADIUS, CUB_PROTECTION_RADIUS, CUB_PROTECTION_RADIUS)) {
+        for (LivingEntity nearby : NearbyEntityCache.living(bearLoc, CUB_PROTECTION_RADIUS)) {
             if (nearby instanceof PolarBear cub && !cub.isAdult() && cub.getUniqueId() != mob.getUniqueId()) {
                 if (cub.getLastDamageCause() != null && cub.getLastDamageCause().getEntity() instanceof LivingEntity attacker) {
                     mob.setTarget(attacker);
@@ -10,11 +10,12 @@ import org.bukkit.Particle;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Mob;
 import org.bukkit.entity.Wolf;
-import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.util.Vector;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
+import org.shotrush.atom.content.mobs.herd.HerdSnapshot;
 
 import java.util.ArrayList;
 import java.util.EnumSet;
@@ -25,6 +26,7 @@ public class FlankAndSurroundGoal implements Goal<Mob> {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final Plugin plugin;
     private final HerdManager herdManager;
     private int coordinationTimer;
@@ -35,6 +37,7 @@ public class FlankAndSurroundGoal implements Goal<Mob> {
     
     public FlankAndSurroundGoal(Mob mob, Plugin plugin, HerdManager herdManager) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.plugin = plugin;
         this.herdManager = herdManager;
         this.key = GoalKey.of(Mob.class, new NamespacedKey(plugin, "flank_surround"));
@@ -67,7 +70,7 @@ public class FlankAndSurroundGoal implements Goal<Mob> {
     @Override
     public void stop() {
         assignedPosition = null;
-        mob.removeMetadata("pack_role", plugin);
+        state.setPackRole(MobAIState.PackRole.NONE);
     }
     
     @Override
@@ -92,17 +95,20 @@ public class FlankAndSurroundGoal implements Goal<Mob> {
         if (herdOpt.isEmpty()) return;
         
         Herd pack = herdOpt.get();
+        HerdSnapshot snapshot = pack.snapshot();
+        Location targetLocation = target.getLocation();
+        double rangeSquared = (SURROUND_RADIUS * 2) * (SURROUND_RADIUS * 2);
         List<Wolf> activePackMembers = new ArrayList<>();
         
-        for (java.util.UUID memberId : pack.members()) {
-            Wolf packMember = (Wolf) Bukkit.getEntity(memberId);
-            if (packMember == null || !packMember.isValid() || packMember.isDead()) continue;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.isDead(i) || snapshot.distanceSquared(i, targetLocation) >= rangeSquared) continue;
             
-            if (packMember.getLocation().distance(target.getLocation()) < SURROUND_RADIUS * 2) {
-                activePackMembers.add(packMember);
-                if (packMember.getTarget() == null) {
-                    packMember.setTarget(target);
-                }
+            if (!(Bukkit.getEntity(snapshot.id(i)) instanceof Wolf packMember)
+                || !packMember.isValid() || packMember.isDead()) continue;
+            
+            activePackMembers.add(packMember);
+            if (packMember.getTarget() == null) {
+                packMember.setTarget(target);
             }
         }
         
@@ -133,9 +139,9 @@ public class FlankAndSurroundGoal implements Goal<Mob> {
                 assignedPosition = surroundPosition;
                 
                 if (isTargetBehind(target, mob, 90)) {
-                    mob.setMetadata("pack_role", new FixedMetadataValue(plugin, "ATTACKER"));
+                    state.setPackRole(MobAIState.PackRole.ATTACKER);
                 } else {
-                    mob.setMetadata("pack_role", new FixedMetadataValue(plugin, "DISTRACTOR"));
+                    state.setPackRole(MobAIState.PackRole.DISTRACTOR);
                 }
             }
         }
@@ -148,13 +154,11 @@ public class FlankAndSurroundGoal implements Goal<Mob> {
         double distanceToPosition = mob.getLocation().distance(assignedPosition);
         double distanceToTarget = mob.getLocation().distance(target.getLocation());
         
-        String role = mob.hasMetadata("pack_role") 
-            ? mob.getMetadata("pack_role").get(0).asString() 
-            : "ATTACKER";
+        MobAIState.PackRole role = state.getPackRole();
         
         if (distanceToPosition > 2.0) {
             mob.getPathfinder().moveTo(assignedPosition, 1.0);
-        } else if (distanceToTarget <= ATTACK_RANGE && role.equals("ATTACKER")) {
+        } else if (distanceToTarget <= ATTACK_RANGE && role != MobAIState.PackRole.DISTRACTOR) {
             mob.getPathfinder().stopPathfinding();
             mob.attack(target);
             
@@ -166,7 +170,7 @@ public class FlankAndSurroundGoal implements Goal<Mob> {
                     3
                 );
             }
-        } else if (role.equals("DISTRACTOR")) {
+        } else if (role == MobAIState.PackRole.DISTRACTOR) {
             Location targetLoc = target.getLocation();
             Vector direction = targetLoc.toVector().subtract(mob.getLocation().toVector()).normalize();
             Location distractPosition = targetLoc.clone().subtract(direction.multiply(3));
@@ -10,6 +10,7 @@ import org.bukkit.Sound;
 import org.bukkit.entity.Mob;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.util.Vector;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 
 import java.util.EnumSet;
 
@@ -17,6 +18,7 @@ public class FlightBurstGoal implements Goal<Mob> {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final Plugin plugin;
     private int flightCooldown;
     private static final int COOLDOWN_TICKS = 60;
@@ -25,6 +27,7 @@ public class FlightBurstGoal implements Goal<Mob> {
     
     public FlightBurstGoal(Mob mob, Plugin plugin) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.plugin = plugin;
         this.key = GoalKey.of(Mob.class, new NamespacedKey(plugin, "flight_burst"));
         this.flightCooldown = 0;
@@ -42,7 +45,7 @@ public class FlightBurstGoal implements Goal<Mob> {
         
         if (!mob.isOnGround()) return false;
         
-        return mob.hasMetadata("fleeing") && mob.getMetadata("fleeing").get(0).asBoolean();
+        return state.isFleeing();
     }
     
     @Override
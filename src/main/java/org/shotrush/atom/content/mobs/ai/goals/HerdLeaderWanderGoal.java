@@ -8,6 +8,7 @@ import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Animals;
 import org.bukkit.entity.Mob;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
 import org.shotrush.atom.content.mobs.herd.HerdRole;
@@ -19,6 +20,7 @@ public class HerdLeaderWanderGoal implements Goal<Mob> {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final HerdManager herdManager;
     private Location wanderTarget;
     private int cooldown;
@@ -28,6 +30,7 @@ public class HerdLeaderWanderGoal implements Goal<Mob> {
     
     public HerdLeaderWanderGoal(Mob mob, Plugin plugin, HerdManager herdManager) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.herdManager = herdManager;
         this.key = GoalKey.of(Mob.class, new NamespacedKey(plugin, "herd_leader_wander"));
         this.cooldown = 0;
@@ -41,7 +44,7 @@ public class HerdLeaderWanderGoal implements Goal<Mob> {
         }
         
         if (mob.getTarget() != null) return false;
-        if (mob.hasMetadata("fleeing") && mob.getMetadata("fleeing").get(0).asBoolean()) {
+        if (state.isFleeing()) {
             return false;
         }
         
@@ -62,7 +65,7 @@ public class HerdLeaderWanderGoal implements Goal<Mob> {
     public boolean shouldStayActive() {
         if (wanderTarget == null) return false;
         if (mob.getTarget() != null) return false;
-        if (mob.hasMetadata("fleeing") && mob.getMetadata("fleeing").get(0).asBoolean()) {
+        if (state.isFleeing()) {
             return false;
         }
         
@@ -7,13 +7,15 @@ import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Animals;
 import org.bukkit.entity.Mob;
-import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 import org.shotrush.atom.content.mobs.AnimalDomestication;
 import org.shotrush.atom.content.mobs.ai.combat.MoraleSystem;
 import org.shotrush.atom.content.mobs.ai.config.SpeciesBehavior;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
+import org.shotrush.atom.content.mobs.herd.HerdRoute;
+import org.shotrush.atom.content.mobs.herd.RouteFollower;
 
 import java.util.EnumSet;
 import java.util.Optional;
@@ -22,16 +24,20 @@ public class HerdPanicGoal implements Goal<Mob> {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final Plugin plugin;
     private final HerdManager herdManager;
     private final SpeciesBehavior behavior;
     private final MoraleSystem moraleSystem;
+    private final RouteFollower routeFollower = new RouteFollower();
     private Location fleeTarget;
     private int repathTimer;
     private static final int REPATH_INTERVAL = 20;
+    private static final double HERD_FLEE_DISTANCE = 25.0;
     
     public HerdPanicGoal(Mob mob, Plugin plugin, HerdManager herdManager, SpeciesBehavior behavior, MoraleSystem moraleSystem) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.plugin = plugin;
         this.herdManager = herdManager;
         this.behavior = behavior;
@@ -56,7 +62,7 @@ public class HerdPanicGoal implements Goal<Mob> {
             return true;
         }
         
-        if (mob.hasMetadata("fleeing") && mob.getMetadata("fleeing").get(0).asBoolean()) {
+        if (state.isFleeing()) {
             return true;
         }
         
@@ -80,7 +86,7 @@ public class HerdPanicGoal implements Goal<Mob> {
             return true;
         }
 
-        if (mob.hasMetadata("fleeing") && mob.getMetadata("fleeing").get(0).asBoolean()) {
+        if (state.isFleeing()) {
             return true;
         }
         
@@ -89,26 +95,41 @@ public class HerdPanicGoal implements Goal<Mob> {
     
     @Override
     public void start() {
-        mob.setMetadata("fleeing", new FixedMetadataValue(plugin, true));
+        state.setFleeing(true);
         computeFleeTarget();
         repathTimer = 0;
     }
     
     @Override
     public void stop() {
-        mob.removeMetadata("fleeing", plugin);
+        state.setFleeing(false);
         fleeTarget = null;
+        routeFollower.reset();
         mob.getPathfinder().stopPathfinding();
     }
     
     @Override
     public void tick() {
-        if (fleeTarget == null) {
-            computeFleeTarget();
+        double domesticationFactor = AnimalDomestication.getDomesticationFactor((Animals) mob);
+        double speed = behavior.getFleeSpeed(domesticationFactor);
+        
+        if (drainStamina()) {
+            return;
+        }
+        
+        Optional<Herd> herdOpt = herdManager.getHerd(mob.getUniqueId());
+        if (herdOpt.isPresent() && herdOpt.get().size() > 1 && herdOpt.get().lastThreatLocation() != null) {
+            Herd herd = herdOpt.get();
+            long tick = mob.getWorld().getGameTime();
+            HerdRoute route = herdManager.fleeRoute(herd, herd.lastThreatLocation(), mob, HERD_FLEE_DISTANCE, tick);
+            routeFollower.follow(mob, route, speed, tick);
+            return;
         }
         
         repathTimer++;
-        if (repathTimer >= REPATH_INTERVAL) {
+        boolean retarget = fleeTarget == null || repathTimer >= REPATH_INTERVAL
+            || mob.getLocation().distanceSquared(fleeTarget) < 9.0;
+        if (retarget) {
             repathTimer = 0;
             computeFleeTarget();
         }
@@ -117,17 +138,7 @@ public class HerdPanicGoal implements Goal<Mob> {
             return;
         }
         
-        double domesticationFactor = AnimalDomestication.getDomesticationFactor((Animals) mob);
-        double speed = behavior.getFleeSpeed(domesticationFactor);
-        
-        drainStamina();
-        
-        
-        if (fleeTarget != null && fleeTarget.getWorld() != null) {
-            
-            if (mob.getLocation().distance(fleeTarget) < 3.0) {
-                computeFleeTarget();
-            }
+        if (retarget || !mob.getPathfinder().hasPath()) {
             mob.getPathfinder().moveTo(fleeTarget, speed);
         }
     }
@@ -172,23 +183,22 @@ public class HerdPanicGoal implements Goal<Mob> {
         }
     }
     
-    private void drainStamina() {
-        if (!mob.hasMetadata("stamina")) {
+    private boolean drainStamina() {
+        if (!state.hasStamina()) {
             double maxStamina = 100 + (Math.random() * 100);
-            mob.setMetadata("maxStamina", new FixedMetadataValue(plugin, maxStamina));
-            mob.setMetadata("stamina", new FixedMetadataValue(plugin, maxStamina));
-            return;
+            state.initStamina(maxStamina, maxStamina);
+            return false;
         }
         
-        double stamina = mob.getMetadata("stamina").get(0).asDouble();
         double drain = 0.3;
-        
-        stamina = Math.max(0, stamina - drain);
-        mob.setMetadata("stamina", new FixedMetadataValue(plugin, stamina));
+        double stamina = Math.max(0, state.getStamina() - drain);
+        state.setStamina(stamina);
         
         if (stamina <= 0) {
             stop();
+            return true;
         }
+        return false;
     }
     
     @Override
@@ -9,8 +9,9 @@ import org.bukkit.entity.*;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDeathEvent;
-import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
+import org.shotrush.atom.content.mobs.ai.NearbyEntityCache;
 import org.shotrush.atom.content.mobs.ai.config.SpeciesBehavior;
 
 import java.util.EnumSet;
@@ -22,6 +23,7 @@ public class HuntPreyGoal implements Goal<Mob>, Listener {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final Plugin plugin;
     private final SpeciesBehavior behavior;
     private LivingEntity preyTarget;
@@ -32,6 +34,7 @@ public class HuntPreyGoal implements Goal<Mob>, Listener {
     
     public HuntPreyGoal(Mob mob, Plugin plugin, SpeciesBehavior behavior) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.plugin = plugin;
         this.behavior = behavior;
         this.key = GoalKey.of(Mob.class, new NamespacedKey(plugin, "hunt_prey"));
@@ -78,7 +81,7 @@ public class HuntPreyGoal implements Goal<Mob>, Listener {
     public void start() {
         if (preyTarget != null && preyTarget instanceof Mob preyMob) {
             mob.setTarget(preyTarget);
-            mob.setMetadata("hunting", new FixedMetadataValue(plugin, preyTarget.getUniqueId()));
+            state.setHuntingTarget(preyTarget.getUniqueId());
             HUNTING_MOBS.add(mob.getUniqueId());
         }
     }
@@ -86,7 +89,7 @@ public class HuntPreyGoal implements Goal<Mob>, Listener {
     @Override
     public void stop() {
         mob.setTarget(null);
-        mob.removeMetadata("hunting", plugin);
+        state.setHuntingTarget(null);
         HUNTING_MOBS.remove(mob.getUniqueId());
         preyTarget = null;
     }
@@ -112,13 +115,10 @@ public class HuntPreyGoal implements Goal<Mob>, Listener {
         Location mobLoc = mob.getLocation();
         if (mobLoc == null || mobLoc.getWorld() == null) return null;
         
-        return mobLoc.getWorld().getNearbyEntities(mobLoc, 
-            behavior.aggroRadius(), behavior.aggroRadius(), behavior.aggroRadius())
+        return NearbyEntityCache.living(mobLoc, behavior.aggroRadius())
             .stream()
-            .filter(entity -> entity instanceof LivingEntity)
             .filter(entity -> PREY_TYPES.contains(entity.getType()))
-            .filter(entity -> entity.isValid() && !((LivingEntity) entity).isDead())
-            .map(entity -> (LivingEntity) entity)
+            .filter(entity -> entity.isValid() && !entity.isDead())
             .min((a, b) -> Double.compare(
                 mobLoc.distanceSquared(a.getLocation()),
                 mobLoc.distanceSquared(b.getLocation())
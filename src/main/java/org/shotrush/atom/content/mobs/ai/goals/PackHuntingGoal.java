@@ -3,7 +3,6 @@ package org.shotrush.atom.content.mobs.ai.goals;
 import com.destroystokyo.paper.entity.ai.Goal;
 import com.destroystokyo.paper.entity.ai.GoalKey;
 import com.destroystokyo.paper.entity.ai.GoalType;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
@@ -12,6 +11,7 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Mob;
 import org.bukkit.entity.Wolf;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.NearbyEntityCache;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
 
@@ -85,15 +85,14 @@ public class PackHuntingGoal implements Goal<Mob> {
         Herd pack = herdOpt.get();
         List<Wolf> nearbyPackMembers = new ArrayList<>();
         
-        for (java.util.UUID memberId : pack.members()) {
-            Wolf packMember = (Wolf) Bukkit.getEntity(memberId);
-            if (packMember == null || !packMember.isValid()) continue;
+        Location targetLoc = target.getLocation();
+        
+        for (LivingEntity nearby : NearbyEntityCache.living(targetLoc, SURROUND_RANGE)) {
+            if (!(nearby instanceof Wolf packMember) || !packMember.isValid()) continue;
             if (packMember.getUniqueId().equals(mob.getUniqueId())) continue;
+            if (!pack.members().contains(packMember.getUniqueId())) continue;
             
-            Location memberLoc = packMember.getLocation();
-            if (memberLoc == null) continue;
-            
-            if (memberLoc.distance(target.getLocation()) < SURROUND_RANGE) {
+            if (packMember.getLocation().distanceSquared(targetLoc) < SURROUND_RANGE * SURROUND_RANGE) {
                 nearbyPackMembers.add(packMember);
             }
         }
@@ -10,6 +10,7 @@ import org.bukkit.Sound;
 import org.bukkit.entity.Armadillo;
 import org.bukkit.entity.Mob;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 
 import java.util.EnumSet;
 
@@ -17,6 +18,7 @@ public class RollDefenseGoal implements Goal<Mob> {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final Plugin plugin;
     private int rollDuration;
     private int rollCooldown;
@@ -27,6 +29,7 @@ public class RollDefenseGoal implements Goal<Mob> {
     
     public RollDefenseGoal(Mob mob, Plugin plugin) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.plugin = plugin;
         this.key = GoalKey.of(Mob.class, new NamespacedKey(plugin, "roll_defense"));
         this.rollDuration = 0;
@@ -46,7 +49,7 @@ public class RollDefenseGoal implements Goal<Mob> {
         double healthPercent = mob.getHealth() / mob.getAttribute(org.bukkit.attribute.Attribute.MAX_HEALTH).getValue();
         if (healthPercent >= PANIC_THRESHOLD) return false;
         
-        return mob.hasMetadata("fleeing") && mob.getMetadata("fleeing").get(0).asBoolean();
+        return state.isFleeing();
     }
     
     @Override
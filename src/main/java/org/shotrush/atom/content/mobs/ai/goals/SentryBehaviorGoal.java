@@ -11,11 +11,13 @@ import org.bukkit.entity.*;
 import org.shotrush.atom.core.data.PersistentData;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.util.Vector;
+import org.shotrush.atom.content.mobs.ai.NearbyEntityCache;
 import org.shotrush.atom.content.mobs.herd.DominanceRank;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
 
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 
 public class SentryBehaviorGoal implements Goal<Mob> {
@@ -121,9 +123,13 @@ public class SentryBehaviorGoal implements Goal<Mob> {
         Location loc = mob.getLocation();
         if (loc == null || loc.getWorld() == null) return;
         
-        for (Entity entity : loc.getWorld().getNearbyEntities(loc, 
-                THREAT_DETECTION_RANGE, THREAT_DETECTION_RANGE, THREAT_DETECTION_RANGE)) {
-            
+        List<Player> players = NearbyEntityCache.players(loc, THREAT_DETECTION_RANGE);
+        if (!players.isEmpty()) {
+            alertHerd(players.get(0).getLocation());
+            return;
+        }
+        
+        for (LivingEntity entity : NearbyEntityCache.living(loc, THREAT_DETECTION_RANGE)) {
             if (isThreat(entity)) {
                 alertHerd(entity.getLocation());
                 break;
@@ -7,9 +7,9 @@ import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Mob;
-import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.util.Vector;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 
 import java.util.EnumSet;
 
@@ -17,6 +17,7 @@ public class StalkPreyGoal implements Goal<Mob> {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final Plugin plugin;
     private LivingEntity prey;
     private static final double POUNCE_DISTANCE = 5.0;
@@ -25,6 +26,7 @@ public class StalkPreyGoal implements Goal<Mob> {
     
     public StalkPreyGoal(Mob mob, Plugin plugin) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.plugin = plugin;
         this.key = GoalKey.of(Mob.class, new NamespacedKey(plugin, "stalk_prey"));
     }
@@ -37,7 +39,7 @@ public class StalkPreyGoal implements Goal<Mob> {
         
         prey = mob.getTarget();
         
-        if (mob.hasMetadata("in_combat") && mob.getMetadata("in_combat").get(0).asBoolean()) {
+        if (state.isInCombat()) {
             return false;
         }
         
@@ -54,7 +56,7 @@ public class StalkPreyGoal implements Goal<Mob> {
         double distance = mob.getLocation().distance(prey.getLocation());
         
         if (distance <= POUNCE_DISTANCE) {
-            mob.setMetadata("ready_to_pounce", new FixedMetadataValue(plugin, true));
+            state.setReadyToPounce(true);
             return false;
         }
         
@@ -63,13 +65,13 @@ public class StalkPreyGoal implements Goal<Mob> {
     
     @Override
     public void start() {
-        mob.setMetadata("stalking", new FixedMetadataValue(plugin, true));
+        state.setStalking(true);
         mob.setSneaking(true);
     }
     
     @Override
     public void stop() {
-        mob.removeMetadata("stalking", plugin);
+        state.setStalking(false);
         mob.setSneaking(false);
     }
     
@@ -92,7 +94,7 @@ public class StalkPreyGoal implements Goal<Mob> {
             mob.getPathfinder().stopPathfinding();
             
             if (Math.random() < 0.3) {
-                mob.setMetadata("in_combat", new FixedMetadataValue(plugin, true));
+                state.setInCombat(true);
                 stop();
             }
         }
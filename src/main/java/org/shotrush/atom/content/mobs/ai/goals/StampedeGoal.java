@@ -3,7 +3,6 @@ package org.shotrush.atom.content.mobs.ai.goals;
 import com.destroystokyo.paper.entity.ai.Goal;
 import com.destroystokyo.paper.entity.ai.GoalKey;
 import com.destroystokyo.paper.entity.ai.GoalType;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
@@ -19,6 +18,8 @@ import org.bukkit.potion.PotionEffectType;
 import org.bukkit.util.Vector;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
+import org.shotrush.atom.content.mobs.herd.HerdRoute;
+import org.shotrush.atom.content.mobs.herd.RouteFollower;
 
 import java.util.EnumSet;
 import java.util.Optional;
@@ -29,9 +30,11 @@ public class StampedeGoal implements Goal<Mob> {
     private final Mob mob;
     private final Plugin plugin;
     private final HerdManager herdManager;
+    private final RouteFollower routeFollower = new RouteFollower();
     private Location stampedeThreat;
     private Vector stampedeDirection;
     private static final double STAMPEDE_SPEED = 1.6;
+    private static final double STAMPEDE_DISTANCE = 30.0;
     private static final double GROUND_SHAKE_RADIUS = 8.0;
     private static final double TRAMPLE_RADIUS = 2.0;
     private static final double TRAMPLE_DAMAGE = 2.0;
@@ -88,19 +91,25 @@ public class StampedeGoal implements Goal<Mob> {
     public void stop() {
         stampedeThreat = null;
         stampedeDirection = null;
+        routeFollower.reset();
     }
     
     @Override
     public void tick() {
-        if (stampedeDirection == null) return;
+        if (stampedeThreat == null) return;
         
         Location mobLoc = mob.getLocation();
         if (mobLoc == null || mobLoc.getWorld() == null) return;
         
-        Location target = mobLoc.clone().add(stampedeDirection.clone().multiply(30));
-        if (target.getWorld() == null) return;
-        
-        mob.getPathfinder().moveTo(target, STAMPEDE_SPEED);
+        Optional<Herd> herdOpt = herdManager.getHerd(mob.getUniqueId());
+        if (herdOpt.isPresent()) {
+            long tick = mob.getWorld().getGameTime();
+            HerdRoute route = herdManager.fleeRoute(herdOpt.get(), stampedeThreat, mob, STAMPEDE_DISTANCE, tick);
+            routeFollower.follow(mob, route, STAMPEDE_SPEED, tick);
+        } else if (stampedeDirection != null && !mob.getPathfinder().hasPath()) {
+            Location target = mobLoc.clone().add(stampedeDirection.clone().multiply(STAMPEDE_DISTANCE));
+            mob.getPathfinder().moveTo(target, STAMPEDE_SPEED);
+        }
         
         if (Math.random() < 0.3) {
             mobLoc.getWorld().spawnParticle(Particle.DUST_PLUME, mobLoc.clone().add(0, 0.1, 0), 8, 0.5, 0.2, 0.5, 0.02);
@@ -115,26 +124,6 @@ public class StampedeGoal implements Goal<Mob> {
         } else {
             soundCooldown--;
         }
-        
-        Optional<Herd> herdOpt = herdManager.getHerd(mob.getUniqueId());
-        if (herdOpt.isEmpty()) return;
-        
-        Herd herd = herdOpt.get();
-        for (java.util.UUID memberId : herd.members()) {
-            Animals member = (Animals) Bukkit.getEntity(memberId);
-            if (member == null || !member.isValid()) continue;
-            if (member.getUniqueId().equals(mob.getUniqueId())) continue;
-            
-            if (member instanceof Mob memberMob) {
-                Location memberLoc = member.getLocation();
-                if (memberLoc != null && mobLoc.distance(memberLoc) < 5.0) {
-                    Location syncTarget = memberLoc.clone().add(stampedeDirection.clone().multiply(25));
-                    if (syncTarget.getWorld() != null) {
-                        memberMob.getPathfinder().moveTo(syncTarget, STAMPEDE_SPEED);
-                    }
-                }
-            }
-        }
     }
     
     private void applyGroundShakeEffects(Location mobLoc) {
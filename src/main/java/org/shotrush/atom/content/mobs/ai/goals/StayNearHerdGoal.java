@@ -3,17 +3,18 @@ package org.shotrush.atom.content.mobs.ai.goals;
 import com.destroystokyo.paper.entity.ai.Goal;
 import com.destroystokyo.paper.entity.ai.GoalKey;
 import com.destroystokyo.paper.entity.ai.GoalType;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Animals;
 import org.bukkit.entity.Mob;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 import org.shotrush.atom.content.mobs.AnimalDomestication;
 import org.shotrush.atom.content.mobs.ai.config.SpeciesBehavior;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
 import org.shotrush.atom.content.mobs.herd.HerdRole;
+import org.shotrush.atom.content.mobs.herd.HerdSnapshot;
 
 import java.util.EnumSet;
 import java.util.Optional;
@@ -22,6 +23,7 @@ public class StayNearHerdGoal implements Goal<Mob> {
     
     private final GoalKey<Mob> key;
     private final Mob mob;
+    private final MobAIState state;
     private final HerdManager herdManager;
     private final SpeciesBehavior behavior;
     private int repathTimer;
@@ -29,6 +31,7 @@ public class StayNearHerdGoal implements Goal<Mob> {
     
     public StayNearHerdGoal(Mob mob, Plugin plugin, HerdManager herdManager, SpeciesBehavior behavior) {
         this.mob = mob;
+        this.state = MobAIState.get(mob);
         this.herdManager = herdManager;
         this.behavior = behavior;
         this.key = GoalKey.of(Mob.class, new NamespacedKey(plugin, "stay_near_herd"));
@@ -45,21 +48,20 @@ public class StayNearHerdGoal implements Goal<Mob> {
         if (herdOpt.isEmpty()) return false;
         
         Herd herd = herdOpt.get();
-        Animals leader = (Animals) Bukkit.getEntity(herd.leader());
-        
-        if (leader == null || !leader.isValid()) return false;
+        HerdSnapshot snapshot = herd.snapshot();
+        int leaderIndex = snapshot.indexOf(herd.leader());
+        if (leaderIndex < 0 || snapshot.isDead(leaderIndex)) return false;
         
         double domesticationFactor = AnimalDomestication.getDomesticationFactor((Animals) mob);
         double cohesionRadius = behavior.getCohesionRadius(domesticationFactor);
         
-        double distance = mob.getLocation().distance(leader.getLocation());
-        return distance > cohesionRadius;
+        return snapshot.distanceSquared(leaderIndex, mob.getLocation()) > cohesionRadius * cohesionRadius;
     }
     
     @Override
     public boolean shouldStayActive() {
         if (mob.getTarget() != null) return false;
-        if (mob.hasMetadata("fleeing") && mob.getMetadata("fleeing").get(0).asBoolean()) {
+        if (state.isFleeing()) {
             return false;
         }
         
@@ -69,14 +71,14 @@ public class StayNearHerdGoal implements Goal<Mob> {
         Herd herd = herdOpt.get();
         if (herd.isPanicking()) return false;
         
-        Animals leader = (Animals) Bukkit.getEntity(herd.leader());
-        if (leader == null || !leader.isValid()) return false;
+        HerdSnapshot snapshot = herd.snapshot();
+        int leaderIndex = snapshot.indexOf(herd.leader());
+        if (leaderIndex < 0 || snapshot.isDead(leaderIndex)) return false;
         
         double domesticationFactor = AnimalDomestication.getDomesticationFactor((Animals) mob);
         double innerRadius = behavior.getCohesionRadius(domesticationFactor) * 0.6;
         
-        double distance = mob.getLocation().distance(leader.getLocation());
-        return distance > innerRadius;
+        return snapshot.distanceSquared(leaderIndex, mob.getLocation()) > innerRadius * innerRadius;
     }
     
     @Override
@@ -99,20 +101,17 @@ public class StayNearHerdGoal implements Goal<Mob> {
         if (herdOpt.isEmpty()) return;
         
         Herd herd = herdOpt.get();
-        Animals leader = (Animals) Bukkit.getEntity(herd.leader());
-        
-        if (leader == null || !leader.isValid()) return;
+        HerdSnapshot snapshot = herd.snapshot();
+        int leaderIndex = snapshot.indexOf(herd.leader());
+        if (leaderIndex < 0 || snapshot.isDead(leaderIndex)) return;
         
-        Location targetLocation = leader.getLocation();
-        if (targetLocation == null || targetLocation.getWorld() == null) return;
+        Location targetLocation = snapshot.position(leaderIndex, mob.getWorld());
         
-        Location centroid = herdManager.getHerdCentroid(herd);
+        Location centroid = snapshot.centroid(mob.getWorld());
         if (centroid != null && Math.random() < 0.3) {
             targetLocation = centroid;
         }
         
-        if (targetLocation == null || targetLocation.getWorld() == null) return;
-        
         double domesticationFactor = AnimalDomestication.getDomesticationFactor((Animals) mob);
         double speed = 1.0 + ((1.2 - 1.0) * (1.0 - domesticationFactor));
         
@@ -9,10 +9,11 @@ import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.Animals;
-import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Mob;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.util.Vector;
+import org.shotrush.atom.content.mobs.ai.NearbyEntityCache;
 import org.shotrush.atom.content.mobs.herd.DominanceRank;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
@@ -56,8 +57,7 @@ public class TerritoryDefenseGoal implements Goal<Mob> {
         Location mobLoc = mob.getLocation();
         if (mobLoc == null || mobLoc.getWorld() == null) return false;
         
-        for (Entity nearby : mobLoc.getWorld().getNearbyEntities(mobLoc, 
-                TERRITORY_RADIUS, TERRITORY_RADIUS, TERRITORY_RADIUS)) {
+        for (LivingEntity nearby : NearbyEntityCache.living(mobLoc, TERRITORY_RADIUS)) {
             
             if (nearby instanceof Animals rival && 
                 rival.getType() == mob.getType() && 
@@ -10,6 +10,7 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.shotrush.atom.Atom;
 import org.shotrush.atom.content.mobs.AnimalBehaviorNew;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
 import org.shotrush.atom.content.mobs.herd.Herd;
 import org.shotrush.atom.content.mobs.herd.HerdManager;
 
@@ -46,9 +47,10 @@ public class HerdCommand extends BaseCommand {
         
         Herd herd = herdOpt.get();
         boolean isLeader = herd.leader().equals(animal.getUniqueId());
-        boolean isAggressive = animal.hasMetadata("aggressive") && animal.getMetadata("aggressive").get(0).asBoolean();
-        double stamina = animal.hasMetadata("stamina") ? animal.getMetadata("stamina").get(0).asDouble() : 0;
-        double maxStamina = animal.hasMetadata("maxStamina") ? animal.getMetadata("maxStamina").get(0).asDouble() : 100;
+        MobAIState state = MobAIState.find(animal);
+        boolean isAggressive = state != null && state.isAggressive();
+        double stamina = state != null && state.hasStamina() ? state.getStamina() : 0;
+        double maxStamina = state != null && state.hasStamina() ? state.getMaxStamina() : 100;
         
         player.sendMessage(Component.text("=== Animal Info ===", NamedTextColor.GOLD));
         player.sendMessage(Component.text("Species: ", NamedTextColor.GRAY)
@@ -29,6 +29,24 @@ public final class DominanceHierarchy {
     
     public void setRank(UUID memberId, DominanceRank rank) {
         memberRanks.put(memberId, rank);
+        herd.markDirty();
+    }
+    
+    DominanceRank findRank(UUID memberId) {
+        return memberRanks.get(memberId);
+    }
+    
+    int getConfrontationWins(UUID memberId) {
+        return confrontationWins.getOrDefault(memberId, 0);
+    }
+    
+    void restore(UUID memberId, DominanceRank rank, int wins) {
+        if (rank != null) {
+            memberRanks.put(memberId, rank);
+        }
+        if (wins > 0) {
+            confrontationWins.put(memberId, wins);
+        }
     }
     
     public void recalculateRanks() {
@@ -37,17 +55,19 @@ public final class DominanceHierarchy {
             if (!members.isEmpty()) {
                 UUID leaderId = members.iterator().next();
                 memberRanks.put(leaderId, DominanceRank.ALPHA);
+                herd.markDirty();
             }
             return;
         }
         
+        HerdSnapshot snapshot = herd.snapshot();
         List<RankedMember> rankings = new ArrayList<>();
         
-        for (UUID memberId : members) {
-            Animals animal = (Animals) Bukkit.getEntity(memberId);
-            if (animal == null || !animal.isValid()) continue;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.isDead(i)) continue;
             
-            double score = calculateDominanceScore(animal, memberId);
+            UUID memberId = snapshot.id(i);
+            double score = calculateDominanceScore(memberId, snapshot.healthRatio(i), snapshot.ticksLived(i));
             rankings.add(new RankedMember(memberId, score));
         }
         
@@ -71,13 +91,17 @@ public final class DominanceHierarchy {
             
             memberRanks.put(memberId, rank);
         }
+        herd.markDirty();
     }
     
     private double calculateDominanceScore(Animals animal, UUID memberId) {
         double healthRatio = animal.getHealth() / 
             Objects.requireNonNull(animal.getAttribute(Attribute.MAX_HEALTH)).getValue();
         
-        long age = animal.getTicksLived();
+        return calculateDominanceScore(memberId, healthRatio, animal.getTicksLived());
+    }
+    
+    private double calculateDominanceScore(UUID memberId, double healthRatio, long age) {
         double ageScore = Math.min(1.0, age / 480000.0);
         
         int wins = confrontationWins.getOrDefault(memberId, 0);
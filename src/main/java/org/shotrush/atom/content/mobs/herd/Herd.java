@@ -1,5 +1,6 @@
 package org.shotrush.atom.content.mobs.herd;
 
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.EntityType;
@@ -14,10 +15,20 @@ public final class Herd {
     private final EntityType species;
     private final World world;
     private final Set<UUID> members;
-    private UUID leader;
+    private volatile UUID leader;
     private long panicUntil;
     private Location lastThreatLocation;
     private final DominanceHierarchy dominanceHierarchy;
+    private final LeaderCandidates candidates = new LeaderCandidates();
+    private volatile double anchorX;
+    private volatile double anchorY;
+    private volatile double anchorZ;
+    private volatile long anchorChunk;
+    private volatile HerdSnapshot snapshot = HerdSnapshot.EMPTY;
+    private volatile Object snapshotToken;
+    private volatile HerdRoute route;
+    private int routeVersion;
+    private volatile boolean dirty = true;
     
     public Herd(UUID id, EntityType species, World world, UUID initialLeader) {
         this.id = id;
@@ -53,6 +64,7 @@ public final class Herd {
     
     public void setLeader(UUID leader) {
         this.leader = leader;
+        this.dirty = true;
     }
     
     public boolean isPanicking() {
@@ -62,6 +74,7 @@ public final class Herd {
     public void setPanic(long durationMs, Location threatLocation) {
         this.panicUntil = System.currentTimeMillis() + durationMs;
         this.lastThreatLocation = threatLocation;
+        this.route = null;
     }
     
     public Location lastThreatLocation() {
@@ -69,11 +82,15 @@ public final class Herd {
     }
     
     public void addMember(UUID memberId) {
-        members.add(memberId);
+        if (members.add(memberId)) {
+            dirty = true;
+        }
     }
     
     public void removeMember(UUID memberId) {
-        members.remove(memberId);
+        if (members.remove(memberId)) {
+            dirty = true;
+        }
     }
     
     public int size() {
@@ -87,4 +104,72 @@ public final class Herd {
     public DominanceHierarchy getDominanceHierarchy() {
         return dominanceHierarchy;
     }
+    
+    void markDirty() {
+        this.dirty = true;
+    }
+    
+    boolean isDirty() {
+        return dirty;
+    }
+
+    boolean consumeDirty() {
+        if (!dirty) return false;
+        dirty = false;
+        return true;
+    }
+    
+    LeaderCandidates candidates() {
+        return candidates;
+    }
+    
+    public HerdRoute route() {
+        return route;
+    }
+    
+    void setRoute(HerdRoute route) {
+        this.route = route;
+    }
+    
+    int nextRouteVersion() {
+        return routeVersion++;
+    }
+    
+    public HerdSnapshot snapshot() {
+        return snapshot;
+    }
+    
+    void setSnapshot(HerdSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+    
+    Object snapshotToken() {
+        return snapshotToken;
+    }
+    
+    void setSnapshotToken(Object snapshotToken) {
+        this.snapshotToken = snapshotToken;
+    }
+    
+    public long anchorChunk() {
+        return anchorChunk;
+    }
+    
+    void setAnchor(double x, double y, double z) {
+        this.anchorX = x;
+        this.anchorY = y;
+        this.anchorZ = z;
+        this.anchorChunk = chunkKey((int) Math.floor(x) >> 4, (int) Math.floor(z) >> 4);
+    }
+    
+    double anchorDistanceSquared(double x, double y, double z) {
+        double dx = anchorX - x;
+        double dy = anchorY - y;
+        double dz = anchorZ - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+    
+    static long chunkKey(int chunkX, int chunkZ) {
+        return Chunk.getChunkKey(chunkX, chunkZ);
+    }
 }
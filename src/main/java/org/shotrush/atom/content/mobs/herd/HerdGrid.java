@@ -0,0 +1,87 @@
+package org.shotrush.atom.content.mobs.herd;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Herds of one species in one world, bucketed by the chunk of their last sampled leader position.
+ */
+final class HerdGrid {
+
+    private final Set<Herd> herds = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Herd>> cells = new ConcurrentHashMap<>();
+
+    void add(Herd herd) {
+        synchronized (herd) {
+            herds.add(herd);
+            addToCell(herd.anchorChunk(), herd);
+        }
+    }
+
+    void remove(Herd herd) {
+        synchronized (herd) {
+            herds.remove(herd);
+            removeFromCell(herd.anchorChunk(), herd);
+        }
+    }
+
+    void moveAnchor(Herd herd, double x, double y, double z) {
+        synchronized (herd) {
+            long fromChunk = herd.anchorChunk();
+            herd.setAnchor(x, y, z);
+            long toChunk = herd.anchorChunk();
+
+            if (fromChunk == toChunk || !herds.contains(herd)) return;
+            removeFromCell(fromChunk, herd);
+            addToCell(toChunk, herd);
+        }
+    }
+
+    Herd findNearest(double x, double y, double z, double radius) {
+        double radiusSquared = radius * radius;
+        int minChunkX = (int) Math.floor(x - radius) >> 4;
+        int maxChunkX = (int) Math.floor(x + radius) >> 4;
+        int minChunkZ = (int) Math.floor(z - radius) >> 4;
+        int maxChunkZ = (int) Math.floor(z + radius) >> 4;
+
+        Herd nearest = null;
+        double nearestDistance = radiusSquared;
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                Set<Herd> cell = cells.get(Herd.chunkKey(chunkX, chunkZ));
+                if (cell == null) continue;
+
+                for (Herd herd : cell) {
+                    double distance = herd.anchorDistanceSquared(x, y, z);
+                    if (distance <= nearestDistance) {
+                        nearestDistance = distance;
+                        nearest = herd;
+                    }
+                }
+            }
+        }
+
+        return nearest;
+    }
+
+    int size() {
+        return herds.size();
+    }
+
+    private void addToCell(long chunk, Herd herd) {
+        cells.compute(chunk, (key, cell) -> {
+            if (cell == null) cell = ConcurrentHashMap.newKeySet();
+            cell.add(herd);
+            return cell;
+        });
+    }
+
+    private void removeFromCell(long chunk, Herd herd) {
+        cells.computeIfPresent(chunk, (key, cell) -> {
+            cell.remove(herd);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package org.shotrush.atom.content.mobs.herd;
+
+import org.bukkit.entity.Entity;
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects member deaths, removals and chunk unloads from entity events and applies them to each
+ * herd in one batch on the next tick, instead of doing the bookkeeping inside the event handlers.
+ * <p>
+ * Dead and removed animals leave their herd. Unloaded animals stay members but stop being leader
+ * candidates until they load again. A leader that is gone is replaced by the best scored candidate,
+ * and a herd with no loaded members left is written back to the store and dropped from memory. Members
+ * restored from the store only count as loaded once their own entity loads.
+ */
+public final class HerdMaintenance {
+
+    enum Change {
+        DIED,
+        UNLOADED,
+        REMOVED
+    }
+
+    private final HerdManager herdManager;
+    private final Map<Herd, Batch> pending = new ConcurrentHashMap<>();
+    private final Set<UUID> unloaded = ConcurrentHashMap.newKeySet();
+    private final Map<Herd, Set<UUID>> loaded = new ConcurrentHashMap<>();
+
+    HerdMaintenance(HerdManager herdManager) {
+        this.herdManager = herdManager;
+    }
+
+    public void memberDied(Entity entity) {
+        unloaded.remove(entity.getUniqueId());
+        enqueue(entity.getUniqueId(), Change.DIED);
+    }
+
+    /**
+     * Called when an entity leaves its world. Removals caused by its chunk unloading were already
+     * reported by {@link #memberUnloaded(Entity)} and are ignored here.
+     */
+    public void memberRemoved(Entity entity) {
+        if (unloaded.contains(entity.getUniqueId())) return;
+        enqueue(entity.getUniqueId(), entity.isDead() ? Change.DIED : Change.REMOVED);
+    }
+
+    public void memberUnloaded(Entity entity) {
+        unloaded.add(entity.getUniqueId());
+        enqueue(entity.getUniqueId(), Change.UNLOADED);
+    }
+
+    void memberLoaded(Herd herd, UUID animalId) {
+        unloaded.remove(animalId);
+        loaded.computeIfAbsent(herd, key -> ConcurrentHashMap.newKeySet()).add(animalId);
+    }
+
+    void forget(Herd herd, Collection<UUID> animalIds) {
+        unloaded.removeAll(animalIds);
+        loaded.computeIfPresent(herd, (key, members) -> {
+            members.removeAll(animalIds);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    void forgetHerd(Herd herd) {
+        unloaded.removeAll(herd.members());
+        loaded.remove(herd);
+    }
+
+    private boolean hasLoadedMembers(Herd herd) {
+        Set<UUID> members = loaded.get(herd);
+        return members != null && !members.isEmpty();
+    }
+
+    private void enqueue(UUID animalId, Change change) {
+        Herd herd = herdManager.getHerd(animalId).orElse(null);
+        if (herd == null) return;
+
+        while (true) {
+            Batch batch = pending.computeIfAbsent(herd, key -> new Batch());
+            synchronized (batch) {
+                if (batch.flushed) {
+                    pending.remove(herd, batch);
+                    continue;
+                }
+
+                boolean first = batch.changes.isEmpty();
+                batch.changes.merge(animalId, change, (a, b) -> a.ordinal() <= b.ordinal() ? a : b);
+                if (first) {
+                    SchedulerAPI.runGlobalTaskLater(() -> flush(herd, batch), 1L);
+                }
+                return;
+            }
+        }
+    }
+
+    private void flush(Herd herd, Batch batch) {
+        synchronized (batch) {
+            batch.flushed = true;
+        }
+        pending.remove(herd, batch);
+
+        boolean leaderGone = false;
+        for (Map.Entry<UUID, Change> entry : batch.changes.entrySet()) {
+            UUID animalId = entry.getKey();
+            if (entry.getValue() == Change.UNLOADED) {
+                herd.candidates().remove(animalId);
+                // It may have loaded again since the event, in which case it still counts.
+                if (unloaded.contains(animalId)) {
+                    Set<UUID> members = loaded.get(herd);
+                    if (members != null) members.remove(animalId);
+                }
+            } else {
+                herdManager.detach(herd, animalId);
+            }
+            leaderGone |= animalId.equals(herd.leader());
+        }
+
+        if (herd.isEmpty()) {
+            herdManager.removeHerd(herd);
+        } else if (!hasLoadedMembers(herd)) {
+            herdManager.unloadHerd(herd);
+        } else if (leaderGone) {
+            herdManager.electNewLeader(herd);
+        }
+    }
+
+    private static final class Batch {
+        private final Map<UUID, Change> changes = new HashMap<>();
+        private boolean flushed;
+    }
+}
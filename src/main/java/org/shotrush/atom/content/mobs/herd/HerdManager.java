@@ -1,12 +1,17 @@
 package org.shotrush.atom.content.mobs.herd;
 
+import com.destroystokyo.paper.entity.Pathfinder;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
 import org.bukkit.entity.Animals;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Mob;
 import org.shotrush.atom.Atom;
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -14,11 +19,15 @@ import java.util.concurrent.ConcurrentHashMap;
 public final class HerdManager {
     
     private final Atom plugin;
-    private final Map<World, Map<EntityType, List<Herd>>> herdsByWorld;
+    private final Map<World, Map<EntityType, HerdGrid>> herdsByWorld;
     private final Map<UUID, Herd> animalToHerd;
     private final Map<UUID, Herd> herdsByUUID;
     private final HerdPersistence persistence;
+    private final HerdMaintenance maintenance;
+    private final HerdStore store;
     private static final double HERD_JOIN_RADIUS = 16.0;
+    private static final long SNAPSHOT_INTERVAL_TICKS = 10L;
+    private static final long ROUTE_LIFETIME_TICKS = 60L;
     
     public HerdManager(Atom plugin) {
         this.plugin = plugin;
@@ -26,28 +35,30 @@ public final class HerdManager {
         this.animalToHerd = new ConcurrentHashMap<>();
         this.herdsByUUID = new ConcurrentHashMap<>();
         this.persistence = new HerdPersistence(plugin);
+        this.maintenance = new HerdMaintenance(this);
+        this.store = new HerdStore(plugin, herdsByUUID::values);
     }
     
     public Herd getOrCreateHerd(Animals animal) {
         Herd existingHerd = animalToHerd.get(animal.getUniqueId());
         if (existingHerd != null) {
+            maintenance.memberLoaded(existingHerd, animal.getUniqueId());
+            updateCandidate(existingHerd, animal);
+            if (existingHerd.leader().equals(animal.getUniqueId())) {
+                scheduleSnapshots(existingHerd, animal);
+            }
             return existingHerd;
         }
         
         UUID persistedHerdId = persistence.getHerdId(animal);
         if (persistedHerdId != null) {
-            Herd persistedHerd = herdsByUUID.get(persistedHerdId);
-            if (persistedHerd != null) {
-                joinHerd(animal, persistedHerd);
-                plugin.getLogger().info("Restored animal to persisted herd: " + persistedHerdId);
-                return persistedHerd;
-            } else {
-                persistedHerd = new Herd(persistedHerdId, animal.getType(), animal.getWorld(), animal.getUniqueId());
-                registerHerd(persistedHerd);
-                animalToHerd.put(animal.getUniqueId(), persistedHerd);
-                plugin.getLogger().info("Re-created persisted herd: " + persistedHerdId + " with original leader");
-                return persistedHerd;
-            }
+            Herd persistedHerd = restoreHerd(persistedHerdId, animal);
+            persistedHerd.addMember(animal.getUniqueId());
+            animalToHerd.put(animal.getUniqueId(), persistedHerd);
+            maintenance.memberLoaded(persistedHerd, animal.getUniqueId());
+            updateCandidate(persistedHerd, animal);
+            ensureLoadedLeader(persistedHerd, animal);
+            return persistedHerd;
         }
         
         World world = animal.getWorld();
@@ -65,57 +76,133 @@ public final class HerdManager {
     }
     
     private Herd findNearbyHerd(World world, EntityType species, Location location) {
-        Map<EntityType, List<Herd>> worldHerds = herdsByWorld.get(world);
-        if (worldHerds == null) return null;
+        HerdGrid grid = getGrid(world, species);
+        if (grid == null) return null;
         
-        List<Herd> speciesHerds = worldHerds.get(species);
-        if (speciesHerds == null) return null;
+        return grid.findNearest(location.getX(), location.getY(), location.getZ(), HERD_JOIN_RADIUS);
+    }
+    
+    private void scheduleSnapshots(Herd herd, Animals leader) {
+        UUID leaderId = leader.getUniqueId();
+        Object token = new Object();
+        herd.setSnapshotToken(token);
         
-        for (Herd herd : speciesHerds) {
-            Animals leader = (Animals) Bukkit.getEntity(herd.leader());
-            if (leader != null && leader.getLocation().distance(location) <= HERD_JOIN_RADIUS) {
-                return herd;
+        SchedulerAPI.runTaskTimer(leader, task -> {
+            if (herd.snapshotToken() != token || !leaderId.equals(herd.leader())
+                || !herdsByUUID.containsKey(herd.id()) || !leader.isValid()) {
+                task.cancel();
+                return;
             }
-        }
+            
+            Location location = leader.getLocation();
+            HerdSnapshot snapshot = HerdSnapshot.capture(herd.members(), herd.snapshot(), location);
+            herd.setSnapshot(snapshot);
+            updateCandidates(herd, snapshot);
+            moveAnchor(herd, location);
+        }, 1L, SNAPSHOT_INTERVAL_TICKS);
+    }
+    
+    private Herd restoreHerd(UUID herdId, Animals animal) {
+        boolean[] created = new boolean[1];
+        Herd herd = herdsByUUID.computeIfAbsent(herdId, id -> {
+            created[0] = true;
+            Herd stored = store.restore(id, animal.getWorld());
+            if (stored != null && stored.species() == animal.getType()) {
+                return stored;
+            }
+            return new Herd(id, animal.getType(), animal.getWorld(), animal.getUniqueId());
+        });
         
-        return null;
+        if (created[0]) {
+            Location location = animal.getLocation();
+            herd.setAnchor(location.getX(), location.getY(), location.getZ());
+            herdsByWorld
+                .computeIfAbsent(herd.world(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(herd.species(), k -> new HerdGrid())
+                .add(herd);
+        }
+        return herd;
+    }
+    
+    private void ensureLoadedLeader(Herd herd, Animals animal) {
+        if (!herd.leader().equals(animal.getUniqueId())) {
+            Entity leader = Bukkit.getEntity(herd.leader());
+            if (leader != null && leader.isValid()) return;
+            herd.setLeader(animal.getUniqueId());
+        }
+        scheduleSnapshots(herd, animal);
+    }
+    
+    private void updateCandidates(Herd herd, HerdSnapshot snapshot) {
+        LeaderCandidates candidates = herd.candidates();
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.isStale(i)) continue;
+            if (snapshot.isDead(i)) {
+                candidates.remove(snapshot.id(i));
+            } else {
+                candidates.update(snapshot.id(i), LeaderCandidates.score(snapshot.healthRatio(i), snapshot.ticksLived(i)));
+            }
+        }
+    }
+    
+    private void updateCandidate(Herd herd, Animals animal) {
+        AttributeInstance maxHealth = animal.getAttribute(Attribute.MAX_HEALTH);
+        double healthRatio = maxHealth != null ? animal.getHealth() / maxHealth.getValue() : 1.0;
+        herd.candidates().update(animal.getUniqueId(), LeaderCandidates.score(healthRatio, animal.getTicksLived()));
+    }
+    
+    private void moveAnchor(Herd herd, Location location) {
+        HerdGrid grid = getGrid(herd.world(), herd.species());
+        if (grid != null) {
+            grid.moveAnchor(herd, location.getX(), location.getY(), location.getZ());
+        }
+    }
+    
+    private HerdGrid getGrid(World world, EntityType species) {
+        Map<EntityType, HerdGrid> worldHerds = herdsByWorld.get(world);
+        return worldHerds != null ? worldHerds.get(species) : null;
     }
     
     private Herd createNewHerd(Animals animal) {
         UUID herdId = UUID.randomUUID();
         Herd herd = new Herd(herdId, animal.getType(), animal.getWorld(), animal.getUniqueId());
         
-        registerHerd(herd);
+        registerHerd(herd, animal);
         animalToHerd.put(animal.getUniqueId(), herd);
+        maintenance.memberLoaded(herd, animal.getUniqueId());
+        updateCandidate(herd, animal);
         
         plugin.getLogger().info("Created new herd " + herdId + " for " + animal.getType() + " with leader " + animal.getUniqueId());
         
         return herd;
     }
     
-    private void registerHerd(Herd herd) {
+    private void registerHerd(Herd herd, Animals leader) {
+        Location leaderLocation = leader.getLocation();
+        herd.setAnchor(leaderLocation.getX(), leaderLocation.getY(), leaderLocation.getZ());
         herdsByWorld
             .computeIfAbsent(herd.world(), k -> new ConcurrentHashMap<>())
-            .computeIfAbsent(herd.species(), k -> new ArrayList<>())
+            .computeIfAbsent(herd.species(), k -> new HerdGrid())
             .add(herd);
         
         herdsByUUID.put(herd.id(), herd);
+        scheduleSnapshots(herd, leader);
     }
     
     private void joinHerd(Animals animal, Herd herd) {
         herd.addMember(animal.getUniqueId());
         animalToHerd.put(animal.getUniqueId(), herd);
+        maintenance.memberLoaded(herd, animal.getUniqueId());
+        updateCandidate(herd, animal);
         
         plugin.getLogger().info(animal.getType() + " " + animal.getUniqueId() + " joined herd " + herd.id());
     }
     
     public void leaveHerd(UUID animalId) {
-        Herd herd = animalToHerd.remove(animalId);
+        Herd herd = animalToHerd.get(animalId);
         if (herd == null) return;
         
-        herd.removeMember(animalId);
-        
-        plugin.getLogger().info("Animal " + animalId + " left herd " + herd.id());
+        detach(herd, animalId);
         
         if (herd.isEmpty()) {
             removeHerd(herd);
@@ -127,51 +214,105 @@ public final class HerdManager {
         }
     }
     
-    private void electNewLeader(Herd herd) {
-        Animals newLeader = null;
-        double highestScore = -1;
+    void detach(Herd herd, UUID animalId) {
+        animalToHerd.remove(animalId, herd);
+        herd.removeMember(animalId);
+        herd.candidates().remove(animalId);
+        maintenance.forget(herd, List.of(animalId));
         
-        for (UUID memberId : herd.members()) {
-            Animals animal = (Animals) Bukkit.getEntity(memberId);
-            if (animal == null || !animal.isValid()) continue;
-            
-            double health = animal.getHealth();
-            double maxHealth = Objects.requireNonNull(animal.getAttribute(Attribute.MAX_HEALTH)).getValue();
-            double healthRatio = health / maxHealth;
-            
-            long age = animal.getTicksLived();
-            double score = healthRatio * 0.6 + (age / 100000.0) * 0.4;
-            
-            if (score > highestScore) {
-                highestScore = score;
-                newLeader = animal;
+        plugin.getLogger().info("Animal " + animalId + " left herd " + herd.id());
+    }
+    
+    /**
+     * Picks the best scored candidate from snapshot data and confirms it on its own region before
+     * handing it the leadership. Candidates that are gone by then are dropped and the next one is tried.
+     */
+    void electNewLeader(Herd herd) {
+        UUID previousLeader = herd.leader();
+        LeaderCandidates candidates = herd.candidates();
+        UUID candidateId;
+        while ((candidateId = candidates.best()) != null) {
+            Entity entity = herd.members().contains(candidateId) ? Bukkit.getEntity(candidateId) : null;
+            if (entity != null) {
+                UUID id = candidateId;
+                Runnable reject = () -> rejectCandidate(herd, id, previousLeader);
+                if (SchedulerAPI.runTask(entity, () -> confirmLeader(herd, entity, previousLeader), reject) != null) {
+                    return;
+                }
             }
+            candidates.remove(candidateId);
         }
-        
-        if (newLeader != null) {
-            herd.setLeader(newLeader.getUniqueId());
-            plugin.getLogger().info("Elected new leader " + newLeader.getUniqueId() + " for herd " + herd.id());
+    }
+    
+    private void confirmLeader(Herd herd, Entity entity, UUID previousLeader) {
+        UUID candidateId = entity.getUniqueId();
+        if (!previousLeader.equals(herd.leader()) || !herdsByUUID.containsKey(herd.id())) return;
+        if (!(entity instanceof Animals newLeader) || !newLeader.isValid() || !herd.members().contains(candidateId)) {
+            rejectCandidate(herd, candidateId, previousLeader);
+            return;
         }
+        
+        herd.setLeader(candidateId);
+        moveAnchor(herd, newLeader.getLocation());
+        scheduleSnapshots(herd, newLeader);
+        plugin.getLogger().info("Elected new leader " + candidateId + " for herd " + herd.id());
     }
     
-    private void removeHerd(Herd herd) {
-        Map<EntityType, List<Herd>> worldHerds = herdsByWorld.get(herd.world());
-        if (worldHerds != null) {
-            List<Herd> speciesHerds = worldHerds.get(herd.species());
-            if (speciesHerds != null) {
-                speciesHerds.remove(herd);
+    private void rejectCandidate(Herd herd, UUID candidateId, UUID previousLeader) {
+        herd.candidates().remove(candidateId);
+        SchedulerAPI.runGlobalTask(() -> {
+            if (previousLeader.equals(herd.leader()) && herdsByUUID.containsKey(herd.id())) {
+                electNewLeader(herd);
             }
+        });
+    }
+    
+    void removeHerd(Herd herd) {
+        HerdGrid grid = getGrid(herd.world(), herd.species());
+        if (grid != null) {
+            grid.remove(herd);
         }
         
         herdsByUUID.remove(herd.id());
+        maintenance.forgetHerd(herd);
+        store.remove(herd);
         
         plugin.getLogger().info("Removed empty herd " + herd.id());
     }
     
+    /**
+     * Writes a herd whose members have all unloaded back to the store and drops it from memory. It is
+     * restored from the store when one of its members loads again.
+     */
+    void unloadHerd(Herd herd) {
+        if (!store.unload(herd)) return;
+        
+        HerdGrid grid = getGrid(herd.world(), herd.species());
+        if (grid != null) {
+            grid.remove(herd);
+        }
+        
+        herdsByUUID.remove(herd.id(), herd);
+        for (UUID memberId : herd.members()) {
+            animalToHerd.remove(memberId, herd);
+        }
+        maintenance.forgetHerd(herd);
+        
+        plugin.getLogger().info("Unloaded herd " + herd.id());
+    }
+    
     public HerdPersistence getPersistence() {
         return persistence;
     }
     
+    public HerdMaintenance getMaintenance() {
+        return maintenance;
+    }
+    
+    public void shutdown() {
+        store.shutdown();
+    }
+    
     public Optional<Herd> getHerd(UUID animalId) {
         return Optional.ofNullable(animalToHerd.get(animalId));
     }
@@ -187,7 +328,49 @@ public final class HerdManager {
         plugin.getLogger().info("Herd " + herd.id() + " entering panic mode for " + durationMs + "ms");
     }
     
+    public HerdRoute fleeRoute(Herd herd, Location threat, Mob mob, double distance, long tick) {
+        HerdRoute route = herd.route();
+        if (route != null && !route.isExpired(tick)) {
+            return route;
+        }
+        
+        synchronized (herd) {
+            route = herd.route();
+            if (route != null && !route.isExpired(tick)) {
+                return route;
+            }
+            
+            Location start = mob.getLocation();
+            HerdSnapshot snapshot = herd.snapshot();
+            Location origin = snapshot.hasCentroid() ? snapshot.centroid(herd.world()) : start;
+            
+            double dx = origin.getX() - threat.getX();
+            double dz = origin.getZ() - threat.getZ();
+            double length = Math.sqrt(dx * dx + dz * dz);
+            if (length < 0.001) {
+                double angle = Math.random() * 2 * Math.PI;
+                dx = Math.cos(angle);
+                dz = Math.sin(angle);
+                length = 1.0;
+            }
+            
+            Location target = new Location(herd.world(), start.getX() + dx / length * distance, start.getY(),
+                start.getZ() + dz / length * distance);
+            Pathfinder.PathResult path = mob.getPathfinder().findPath(target);
+            List<Location> nodes = path != null && !path.getPoints().isEmpty() ? path.getPoints() : List.of(target);
+            
+            route = new HerdRoute(herd.nextRouteVersion(), herd.world(), start, nodes, tick + ROUTE_LIFETIME_TICKS);
+            herd.setRoute(route);
+            return route;
+        }
+    }
+    
     public Location getHerdCentroid(Herd herd) {
+        HerdSnapshot snapshot = herd.snapshot();
+        if (snapshot.hasCentroid()) {
+            return snapshot.centroid(herd.world());
+        }
+        
         List<Location> locations = new ArrayList<>();
         
         for (UUID memberId : herd.members()) {
@@ -1,64 +1,137 @@
 package org.shotrush.atom.content.mobs.herd;
 
+import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Animals;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.Plugin;
 import org.shotrush.atom.core.data.PersistentData;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
+/**
+ * Per-animal herd data, stored as one fixed-size blob in the entity's PDC. Animals saved with the
+ * older one-key-per-field layout are still read, and are rewritten as a blob on their next save.
+ */
 public final class HerdPersistence {
-    
+
+    private static final NamespacedKey KEY = PersistentData.key("herd");
+    private static final NamespacedKey LEGACY_HERD_ID = PersistentData.key("herd_id");
+    private static final NamespacedKey[] LEGACY_KEYS = {
+        LEGACY_HERD_ID,
+        PersistentData.key("is_leader"),
+        PersistentData.key("is_aggressive"),
+        PersistentData.key("max_stamina"),
+        PersistentData.key("stamina")
+    };
+    private static final byte FORMAT_VERSION = 1;
+    private static final int RECORD_SIZE = 34;
+    private static final byte FLAG_LEADER = 1;
+    private static final byte FLAG_AGGRESSIVE = 2;
+
+    public record AnimalRecord(UUID herdId, boolean leader, boolean aggressive, double maxStamina, double stamina) {}
+
     public HerdPersistence(Plugin plugin) {
     }
-    
+
     public void saveHerdData(Animals animal, UUID herdId, boolean isLeader, boolean isAggressive, double maxStamina, double stamina) {
-        PersistentData.set(animal, "herd_id", herdId.toString());
-        PersistentData.set(animal, "is_leader", isLeader);
-        PersistentData.set(animal, "is_aggressive", isAggressive);
-        PersistentData.set(animal, "max_stamina", maxStamina);
-        PersistentData.set(animal, "stamina", stamina);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.put(FORMAT_VERSION);
+        buffer.putLong(herdId.getMostSignificantBits());
+        buffer.putLong(herdId.getLeastSignificantBits());
+        buffer.put((byte) ((isLeader ? FLAG_LEADER : 0) | (isAggressive ? FLAG_AGGRESSIVE : 0)));
+        buffer.putDouble(maxStamina);
+        buffer.putDouble(stamina);
+
+        PersistentDataContainer container = animal.getPersistentDataContainer();
+        container.set(KEY, PersistentDataType.BYTE_ARRAY, buffer.array());
+        if (container.has(LEGACY_HERD_ID)) {
+            for (NamespacedKey key : LEGACY_KEYS) {
+                container.remove(key);
+            }
+        }
+    }
+
+    public AnimalRecord read(Animals animal) {
+        PersistentDataContainer container = animal.getPersistentDataContainer();
+        byte[] data = container.get(KEY, PersistentDataType.BYTE_ARRAY);
+        if (data != null && data.length == RECORD_SIZE && data[0] == FORMAT_VERSION) {
+            ByteBuffer buffer = ByteBuffer.wrap(data, 1, RECORD_SIZE - 1);
+            UUID herdId = new UUID(buffer.getLong(), buffer.getLong());
+            byte flags = buffer.get();
+            return new AnimalRecord(herdId, (flags & FLAG_LEADER) != 0, (flags & FLAG_AGGRESSIVE) != 0,
+                buffer.getDouble(), buffer.getDouble());
+        }
+
+        if (container.has(LEGACY_HERD_ID)) {
+            return readLegacy(animal);
+        }
+        return null;
     }
-    
+
     public boolean hasHerdData(Animals animal) {
-        return PersistentData.has(animal, "herd_id");
+        PersistentDataContainer container = animal.getPersistentDataContainer();
+        return container.has(KEY) || container.has(LEGACY_HERD_ID);
     }
-    
+
     public UUID getHerdId(Animals animal) {
-        String idString = PersistentData.getString(animal, "herd_id", null);
-        if (idString == null) return null;
-        
-        try {
-            return UUID.fromString(idString);
-        } catch (IllegalArgumentException e) {
-            return null;
-        }
+        AnimalRecord record = read(animal);
+        return record != null ? record.herdId() : null;
     }
-    
+
     public boolean isLeader(Animals animal) {
-        return PersistentData.getBoolean(animal, "is_leader", false);
+        AnimalRecord record = read(animal);
+        return record != null && record.leader();
     }
-    
+
     public boolean isAggressive(Animals animal) {
-        return PersistentData.getBoolean(animal, "is_aggressive", false);
+        AnimalRecord record = read(animal);
+        return record != null && record.aggressive();
     }
-    
+
     public double getMaxStamina(Animals animal, double defaultValue) {
-        return PersistentData.getDouble(animal, "max_stamina", defaultValue);
+        AnimalRecord record = read(animal);
+        return record != null ? record.maxStamina() : defaultValue;
     }
-    
+
     public double getStamina(Animals animal, double defaultValue) {
-        return PersistentData.getDouble(animal, "stamina", defaultValue);
+        AnimalRecord record = read(animal);
+        return record != null ? record.stamina() : defaultValue;
     }
-    
+
     public void updateStamina(Animals animal, double stamina) {
-        PersistentData.set(animal, "stamina", stamina);
+        AnimalRecord record = read(animal);
+        if (record == null || record.herdId() == null) return;
+
+        saveHerdData(animal, record.herdId(), record.leader(), record.aggressive(), record.maxStamina(), stamina);
     }
-    
+
     public void clearHerdData(Animals animal) {
-        PersistentData.remove(animal, "herd_id");
-        PersistentData.remove(animal, "is_leader");
-        PersistentData.remove(animal, "is_aggressive");
-        PersistentData.remove(animal, "max_stamina");
-        PersistentData.remove(animal, "stamina");
+        PersistentDataContainer container = animal.getPersistentDataContainer();
+        container.remove(KEY);
+        for (NamespacedKey key : LEGACY_KEYS) {
+            container.remove(key);
+        }
+    }
+
+    private AnimalRecord readLegacy(Animals animal) {
+        UUID herdId = null;
+        String idString = PersistentData.getString(animal, "herd_id", null);
+        if (idString != null) {
+            try {
+                herdId = UUID.fromString(idString);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+
+        double maxStamina = PersistentData.getDouble(animal, "max_stamina", 100.0);
+        return new AnimalRecord(
+            herdId,
+            PersistentData.getBoolean(animal, "is_leader", false),
+            PersistentData.getBoolean(animal, "is_aggressive", false),
+            maxStamina,
+            PersistentData.getDouble(animal, "stamina", maxStamina)
+        );
     }
 }
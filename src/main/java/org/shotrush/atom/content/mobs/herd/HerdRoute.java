@@ -0,0 +1,91 @@
+package org.shotrush.atom.content.mobs.herd;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.List;
+
+/**
+ * A flight route shared by a whole herd: one path away from the threat, found once by the member that
+ * renewed the route. Members walk its points shifted by their own offset from the path's start, clamped,
+ * so they move in formation without each searching the full distance.
+ */
+public final class HerdRoute {
+
+    private static final double MAX_FORMATION_OFFSET = 6.0;
+    private static final int NODES_PER_POINT = 4;
+
+    private final int version;
+    private final World world;
+    private final double originX;
+    private final double originZ;
+    private final double[] points;
+    private final long expiresAt;
+
+    HerdRoute(int version, World world, Location origin, List<Location> nodes, long expiresAt) {
+        this.version = version;
+        this.world = world;
+        this.originX = origin.getX();
+        this.originZ = origin.getZ();
+        this.expiresAt = expiresAt;
+
+        int count = (nodes.size() + NODES_PER_POINT - 1) / NODES_PER_POINT;
+        this.points = new double[count * 3];
+        for (int i = 0; i < count; i++) {
+            Location node = nodes.get(Math.min(nodes.size() - 1, (i + 1) * NODES_PER_POINT - 1));
+            points[i * 3] = node.getX();
+            points[i * 3 + 1] = node.getY();
+            points[i * 3 + 2] = node.getZ();
+        }
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public boolean isExpired(long tick) {
+        return tick >= expiresAt;
+    }
+
+    public int size() {
+        return points.length / 3;
+    }
+
+    /**
+     * The offset a member at {@code position} keeps from the path, as {x, z}.
+     */
+    public double[] offsetFor(Location position) {
+        double offsetX = position.getX() - originX;
+        double offsetZ = position.getZ() - originZ;
+        double length = Math.sqrt(offsetX * offsetX + offsetZ * offsetZ);
+        if (length > MAX_FORMATION_OFFSET) {
+            offsetX *= MAX_FORMATION_OFFSET / length;
+            offsetZ *= MAX_FORMATION_OFFSET / length;
+        }
+        return new double[]{offsetX, offsetZ};
+    }
+
+    /**
+     * Index of the point closest to {@code position} once the member's offset is taken off.
+     */
+    public int nearestPoint(Location position, double[] offset) {
+        double x = position.getX() - offset[0];
+        double z = position.getZ() - offset[1];
+        int nearest = 0;
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < size(); i++) {
+            double dx = points[i * 3] - x;
+            double dz = points[i * 3 + 2] - z;
+            double distance = dx * dx + dz * dz;
+            if (distance < best) {
+                best = distance;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    public Location point(int index, double[] offset) {
+        return new Location(world, points[index * 3] + offset[0], points[index * 3 + 1], points[index * 3 + 2] + offset[1]);
+    }
+}
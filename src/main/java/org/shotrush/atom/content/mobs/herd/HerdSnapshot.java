@@ -0,0 +1,218 @@
+package org.shotrush.atom.content.mobs.herd;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.shotrush.atom.content.mobs.ai.MobAIState;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Herd members' positions, health and flags, captured periodically on the leader's region.
+ */
+public final class HerdSnapshot {
+
+    public static final HerdSnapshot EMPTY = new HerdSnapshot(new UUID[0], new double[0], new double[0], new double[0],
+        new double[0], new long[0], new boolean[0], new boolean[0], new boolean[0], 0L);
+
+    private final UUID[] ids;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final double[] healthRatios;
+    private final long[] ticksLived;
+    private final boolean[] fleeing;
+    private final boolean[] dead;
+    private final boolean[] stale;
+    private final Map<UUID, Integer> indices;
+    private final int aliveCount;
+    private final double centroidX;
+    private final double centroidY;
+    private final double centroidZ;
+    private final long capturedAt;
+
+    private HerdSnapshot(UUID[] ids, double[] xs, double[] ys, double[] zs, double[] healthRatios, long[] ticksLived,
+                         boolean[] fleeing, boolean[] dead, boolean[] stale, long capturedAt) {
+        this.ids = ids;
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.healthRatios = healthRatios;
+        this.ticksLived = ticksLived;
+        this.fleeing = fleeing;
+        this.dead = dead;
+        this.stale = stale;
+        this.capturedAt = capturedAt;
+
+        this.indices = new HashMap<>(ids.length * 2);
+        int alive = 0;
+        double sumX = 0, sumY = 0, sumZ = 0;
+        for (int i = 0; i < ids.length; i++) {
+            indices.put(ids[i], i);
+            if (dead[i]) continue;
+            alive++;
+            sumX += xs[i];
+            sumY += ys[i];
+            sumZ += zs[i];
+        }
+        this.aliveCount = alive;
+        this.centroidX = alive > 0 ? sumX / alive : 0;
+        this.centroidY = alive > 0 ? sumY / alive : 0;
+        this.centroidZ = alive > 0 ? sumZ / alive : 0;
+    }
+
+    // Members owned by another region can't be read here. They keep their previous values, or the leader's
+    // position if they have none yet, and are marked stale.
+    static HerdSnapshot capture(Set<UUID> members, HerdSnapshot previous, Location leader) {
+        int capacity = members.size();
+        UUID[] ids = new UUID[capacity];
+        double[] xs = new double[capacity];
+        double[] ys = new double[capacity];
+        double[] zs = new double[capacity];
+        double[] healthRatios = new double[capacity];
+        long[] ticksLived = new long[capacity];
+        boolean[] fleeing = new boolean[capacity];
+        boolean[] dead = new boolean[capacity];
+        boolean[] stale = new boolean[capacity];
+
+        int size = 0;
+        for (UUID memberId : members) {
+            if (size == capacity) break;
+
+            Entity entity = Bukkit.getEntity(memberId);
+            ids[size] = memberId;
+
+            if (entity != null && !Bukkit.isOwnedByCurrentRegion(entity)) {
+                int index = previous.indexOf(memberId);
+                if (index >= 0) {
+                    xs[size] = previous.xs[index];
+                    ys[size] = previous.ys[index];
+                    zs[size] = previous.zs[index];
+                    healthRatios[size] = previous.healthRatios[index];
+                    ticksLived[size] = previous.ticksLived[index];
+                    fleeing[size] = previous.fleeing[index];
+                    dead[size] = previous.dead[index];
+                } else {
+                    xs[size] = leader.getX();
+                    ys[size] = leader.getY();
+                    zs[size] = leader.getZ();
+                    healthRatios[size] = 1.0;
+                }
+                stale[size] = true;
+                size++;
+                continue;
+            }
+
+            if (!(entity instanceof LivingEntity living) || !living.isValid() || living.isDead()) {
+                dead[size] = true;
+                size++;
+                continue;
+            }
+
+            Location location = living.getLocation();
+            xs[size] = location.getX();
+            ys[size] = location.getY();
+            zs[size] = location.getZ();
+            AttributeInstance maxHealth = living.getAttribute(Attribute.MAX_HEALTH);
+            healthRatios[size] = maxHealth != null ? living.getHealth() / maxHealth.getValue() : 1.0;
+            ticksLived[size] = living.getTicksLived();
+            MobAIState state = MobAIState.find(memberId);
+            fleeing[size] = state != null && state.isFleeing();
+            size++;
+        }
+
+        if (size < capacity) {
+            ids = Arrays.copyOf(ids, size);
+            xs = Arrays.copyOf(xs, size);
+            ys = Arrays.copyOf(ys, size);
+            zs = Arrays.copyOf(zs, size);
+            healthRatios = Arrays.copyOf(healthRatios, size);
+            ticksLived = Arrays.copyOf(ticksLived, size);
+            fleeing = Arrays.copyOf(fleeing, size);
+            dead = Arrays.copyOf(dead, size);
+            stale = Arrays.copyOf(stale, size);
+        }
+
+        return new HerdSnapshot(ids, xs, ys, zs, healthRatios, ticksLived, fleeing, dead, stale, System.currentTimeMillis());
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int aliveCount() {
+        return aliveCount;
+    }
+
+    public UUID id(int index) {
+        return ids[index];
+    }
+
+    public double x(int index) {
+        return xs[index];
+    }
+
+    public double y(int index) {
+        return ys[index];
+    }
+
+    public double z(int index) {
+        return zs[index];
+    }
+
+    public double healthRatio(int index) {
+        return healthRatios[index];
+    }
+
+    public long ticksLived(int index) {
+        return ticksLived[index];
+    }
+
+    public boolean isFleeing(int index) {
+        return fleeing[index];
+    }
+
+    public boolean isDead(int index) {
+        return dead[index];
+    }
+
+    public boolean isStale(int index) {
+        return stale[index];
+    }
+
+    public long capturedAt() {
+        return capturedAt;
+    }
+
+    public int indexOf(UUID memberId) {
+        Integer index = indices.get(memberId);
+        return index != null ? index : -1;
+    }
+
+    public double distanceSquared(int index, Location location) {
+        double dx = xs[index] - location.getX();
+        double dy = ys[index] - location.getY();
+        double dz = zs[index] - location.getZ();
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    public Location position(int index, World world) {
+        return new Location(world, xs[index], ys[index], zs[index]);
+    }
+
+    public boolean hasCentroid() {
+        return aliveCount > 0;
+    }
+
+    public Location centroid(World world) {
+        return aliveCount > 0 ? new Location(world, centroidX, centroidY, centroidZ) : null;
+    }
+}
@@ -0,0 +1,292 @@
+package org.shotrush.atom.content.mobs.herd;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-world table of herd structure and dominance ranks, kept in SQLite.
+ * <p>
+ * Rows are read as raw blobs at startup and only decoded when a member of that herd loads. Herds
+ * are written back on a timer, and only those that changed since the last flush. Unloaded herds go
+ * back to being raw blobs until a member loads again.
+ */
+final class HerdStore {
+
+    private static final long FLUSH_INTERVAL_TICKS = 20L * 30;
+    private static final long SHUTDOWN_FLUSH_TIMEOUT_MS = 10_000L;
+    private static final byte FORMAT_VERSION = 1;
+    private static final String UPSERT_SQL = "INSERT OR REPLACE INTO herds (world, herd_id, data) VALUES (?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM herds WHERE world = ? AND herd_id = ?";
+
+    private final Plugin plugin;
+    private final Supplier<Collection<Herd>> herds;
+    private final Map<UUID, byte[]> stored = new ConcurrentHashMap<>();
+    private final Map<UUID, String> pendingRemovals = new ConcurrentHashMap<>();
+    private final Map<UUID, Row> pendingWrites = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private volatile HikariDataSource dataSource;
+    private volatile List<String> inFlight = List.of();
+    private ScheduledTask flushTask;
+
+    HerdStore(Plugin plugin, Supplier<Collection<Herd>> herds) {
+        this.plugin = plugin;
+        this.herds = herds;
+
+        File databaseFile = new File(plugin.getDataFolder(), "herds.db");
+        databaseFile.getParentFile().mkdirs();
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("Atom-Herds");
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        config.setMaximumPoolSize(1);
+        config.addDataSourceProperty("journal_mode", "WAL");
+        this.dataSource = new HikariDataSource(config);
+
+        createTable();
+        loadStored();
+        this.flushTask = SchedulerAPI.runAsyncTimer(this::flush, FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
+    }
+
+    /**
+     * Decodes the stored herd with this id into a new, unregistered {@link Herd}, or returns null if
+     * there is none. Each stored herd is handed out once; from then on it is saved from the live herd.
+     */
+    Herd restore(UUID herdId, World world) {
+        byte[] data = stored.remove(herdId);
+        if (data == null) return null;
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != FORMAT_VERSION) return null;
+
+            EntityType species = EntityType.valueOf(in.readUTF());
+            Herd herd = new Herd(herdId, species, world, new UUID(in.readLong(), in.readLong()));
+            DominanceHierarchy hierarchy = herd.getDominanceHierarchy();
+            DominanceRank[] ranks = DominanceRank.values();
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID memberId = new UUID(in.readLong(), in.readLong());
+                byte rank = in.readByte();
+                int wins = in.readInt();
+                herd.addMember(memberId);
+                hierarchy.restore(memberId, rank >= 0 && rank < ranks.length ? ranks[rank] : null, wins);
+            }
+            herd.consumeDirty();
+            return herd;
+        } catch (IOException | IllegalArgumentException e) {
+            plugin.getLogger().warning("Could not read stored herd " + herdId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    void remove(Herd herd) {
+        stored.remove(herd.id());
+        pendingWrites.remove(herd.id());
+        pendingRemovals.put(herd.id(), herd.world().getUID().toString());
+    }
+
+    /**
+     * Encodes a herd that is about to be dropped from memory so {@link #restore} can hand it out again,
+     * and queues it for the next flush if it changed. Returns false if it could not be encoded.
+     */
+    boolean unload(Herd herd) {
+        byte[] data;
+        try {
+            data = encode(herd);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not serialize herd " + herd.id() + ", keeping it loaded");
+            return false;
+        }
+
+        stored.put(herd.id(), data);
+        if (herd.consumeDirty()) {
+            pendingWrites.put(herd.id(), new Row(herd.world().getUID().toString(), herd.id(), data));
+        }
+        return true;
+    }
+
+    void flush() {
+        synchronized (flushLock) {
+            Map<UUID, String> removals = new HashMap<>();
+            for (UUID herdId : pendingRemovals.keySet()) {
+                String world = pendingRemovals.remove(herdId);
+                if (world != null) removals.put(herdId, world);
+            }
+
+            List<Row> unloaded = new ArrayList<>();
+            for (UUID herdId : pendingWrites.keySet()) {
+                Row row = pendingWrites.remove(herdId);
+                if (row != null) unloaded.add(row);
+            }
+
+            List<Row> rows = new ArrayList<>(unloaded);
+
+            List<Herd> written = new ArrayList<>();
+            for (Herd herd : herds.get()) {
+                if (!herd.consumeDirty()) continue;
+                try {
+                    rows.add(new Row(herd.world().getUID().toString(), herd.id(), encode(herd)));
+                    written.add(herd);
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Could not serialize herd " + herd.id() + ", retrying next flush");
+                    herd.markDirty();
+                }
+            }
+
+            if (removals.isEmpty() && rows.isEmpty()) return;
+
+            HikariDataSource source = dataSource;
+            if (source == null) return;
+            List<String> describing = new ArrayList<>();
+            removals.keySet().forEach(herdId -> describing.add("removal of herd " + herdId));
+            rows.forEach(row -> describing.add("herd " + row.herdId()));
+            inFlight = describing;
+            try (Connection connection = source.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement delete = connection.prepareStatement(DELETE_SQL)) {
+                    for (Map.Entry<UUID, String> removal : removals.entrySet()) {
+                        delete.setString(1, removal.getValue());
+                        delete.setString(2, removal.getKey().toString());
+                        delete.addBatch();
+                    }
+                    delete.executeBatch();
+                }
+                try (PreparedStatement upsert = connection.prepareStatement(UPSERT_SQL)) {
+                    for (Row row : rows) {
+                        upsert.setString(1, row.world());
+                        upsert.setString(2, row.herdId().toString());
+                        upsert.setBytes(3, row.data());
+                        upsert.addBatch();
+                    }
+                    upsert.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                removals.forEach(pendingRemovals::putIfAbsent);
+                written.forEach(Herd::markDirty);
+                unloaded.forEach(row -> pendingWrites.putIfAbsent(row.herdId(), row));
+                plugin.getLogger().severe("Failed to save herd data, retrying next flush: " + e.getMessage());
+            } finally {
+                inFlight = List.of();
+            }
+        }
+    }
+
+    void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        Thread flusher = new Thread(this::flush, "Atom-Herd-Flush");
+        flusher.setDaemon(true);
+        flusher.start();
+        try {
+            flusher.join(SHUTDOWN_FLUSH_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            List<String> unsaved = new ArrayList<>(inFlight);
+            for (Herd herd : herds.get()) {
+                if (herd.isDirty()) unsaved.add("herd " + herd.id());
+            }
+            pendingWrites.keySet().forEach(herdId -> unsaved.add("herd " + herdId));
+            pendingRemovals.keySet().forEach(herdId -> unsaved.add("removal of herd " + herdId));
+            plugin.getLogger().severe("Herd flush did not finish within " + SHUTDOWN_FLUSH_TIMEOUT_MS + "ms, these "
+                + unsaved.size() + " change(s) may be lost: " + String.join(", ", unsaved));
+            // The stuck flush holds the flush lock, so close without it; the flush then fails instead of hanging on.
+            HikariDataSource source = dataSource;
+            dataSource = null;
+            if (source != null) source.close();
+            return;
+        }
+
+        // Taking the flush lock keeps a timer flush that is still running from losing its connection.
+        synchronized (flushLock) {
+            if (dataSource != null) {
+                dataSource.close();
+                dataSource = null;
+            }
+        }
+    }
+
+    private record Row(String world, UUID herdId, byte[] data) {
+    }
+
+    private static byte[] encode(Herd herd) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + herd.size() * 21);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            UUID leader = herd.leader();
+            DominanceHierarchy hierarchy = herd.getDominanceHierarchy();
+            List<UUID> members = new ArrayList<>(herd.members());
+
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(herd.species().name());
+            out.writeLong(leader.getMostSignificantBits());
+            out.writeLong(leader.getLeastSignificantBits());
+            out.writeInt(members.size());
+            for (UUID memberId : members) {
+                out.writeLong(memberId.getMostSignificantBits());
+                out.writeLong(memberId.getLeastSignificantBits());
+                DominanceRank rank = hierarchy.findRank(memberId);
+                out.writeByte(rank != null ? rank.ordinal() : -1);
+                out.writeInt(hierarchy.getConfrontationWins(memberId));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private void createTable() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS herds (" +
+                "world TEXT NOT NULL, " +
+                "herd_id TEXT PRIMARY KEY, " +
+                "data BLOB NOT NULL)");
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Could not create herds table: " + e.getMessage());
+        }
+    }
+
+    private void loadStored() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT herd_id, data FROM herds")) {
+            while (result.next()) {
+                try {
+                    stored.put(UUID.fromString(result.getString(1)), result.getBytes(2));
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Could not load stored herds: " + e.getMessage());
+        }
+        plugin.getLogger().info("Loaded " + stored.size() + " stored herd(s)");
+    }
+}
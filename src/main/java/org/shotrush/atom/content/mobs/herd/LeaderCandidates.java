@@ -0,0 +1,58 @@
+package org.shotrush.atom.content.mobs.herd;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Leadership scores of a herd's loaded members, kept up to date from snapshots so that picking a
+ * successor never has to resolve entities. The best candidate is tracked incrementally and only
+ * rescanned after it drops out or its score falls.
+ */
+final class LeaderCandidates {
+
+    private final Map<UUID, Double> scores = new HashMap<>();
+    private UUID best;
+    private double bestScore;
+    private boolean dirty;
+
+    static double score(double healthRatio, long ticksLived) {
+        return healthRatio * 0.6 + (ticksLived / 100000.0) * 0.4;
+    }
+
+    synchronized void update(UUID memberId, double score) {
+        scores.put(memberId, score);
+        if (dirty) return;
+
+        if (memberId.equals(best)) {
+            if (score < bestScore) {
+                dirty = true;
+            } else {
+                bestScore = score;
+            }
+        } else if (best == null || score > bestScore) {
+            best = memberId;
+            bestScore = score;
+        }
+    }
+
+    synchronized void remove(UUID memberId) {
+        if (scores.remove(memberId) != null && memberId.equals(best)) {
+            dirty = true;
+        }
+    }
+
+    synchronized UUID best() {
+        if (dirty) {
+            best = null;
+            for (Map.Entry<UUID, Double> entry : scores.entrySet()) {
+                if (best == null || entry.getValue() > bestScore) {
+                    best = entry.getKey();
+                    bestScore = entry.getValue();
+                }
+            }
+            dirty = false;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,69 @@
+package org.shotrush.atom.content.mobs.herd;
+
+import com.destroystokyo.paper.entity.Pathfinder;
+import org.bukkit.Location;
+import org.bukkit.entity.Mob;
+
+/**
+ * Per-mob side of a {@link HerdRoute}. The mob walks the route's points one short hop at a time, so
+ * its pathfinder only searches a few blocks ahead. A renewed route re-projects the mob onto the new
+ * path and keeps its current hop unless the path no longer ends near the new waypoint.
+ */
+public final class RouteFollower {
+
+    private static final double ARRIVAL_DISTANCE_SQUARED = 3.0 * 3.0;
+    private static final double DIVERGENCE_DISTANCE_SQUARED = 4.0 * 4.0;
+    private static final int MIN_REPATH_TICKS = 10;
+
+    private int version = -1;
+    private double[] offset;
+    private int index;
+    private Location waypoint;
+    private long lastRepathTick = Long.MIN_VALUE;
+
+    public void follow(Mob mob, HerdRoute route, double speed, long tick) {
+        if (route.size() == 0) return;
+        Location position = mob.getLocation();
+
+        if (route.version() != version) {
+            version = route.version();
+            if (offset == null) {
+                offset = route.offsetFor(position);
+            }
+            index = route.nearestPoint(position, offset);
+            waypoint = route.point(index, offset);
+            if (!pathEndsNear(mob, waypoint)) {
+                repath(mob, speed, tick);
+            }
+            return;
+        }
+
+        if (position.distanceSquared(waypoint) < ARRIVAL_DISTANCE_SQUARED) {
+            if (index + 1 >= route.size()) return;
+            waypoint = route.point(++index, offset);
+            repath(mob, speed, tick);
+            return;
+        }
+
+        if (tick - lastRepathTick >= MIN_REPATH_TICKS && !pathEndsNear(mob, waypoint)) {
+            repath(mob, speed, tick);
+        }
+    }
+
+    public void reset() {
+        version = -1;
+        offset = null;
+        waypoint = null;
+    }
+
+    private static boolean pathEndsNear(Mob mob, Location waypoint) {
+        Pathfinder.PathResult path = mob.getPathfinder().getCurrentPath();
+        Location end = path != null ? path.getFinalPoint() : null;
+        return end != null && end.distanceSquared(waypoint) <= DIVERGENCE_DISTANCE_SQUARED;
+    }
+
+    private void repath(Mob mob, double speed, long tick) {
+        lastRepathTick = tick;
+        mob.getPathfinder().moveTo(waypoint, speed);
+    }
+}
@@ -12,11 +12,8 @@ import org.bukkit.plugin.Plugin;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-
 import org.shotrush.atom.core.api.annotation.RegisterSystem;
+import org.shotrush.atom.core.api.player.PlayerState;
 import org.shotrush.atom.core.util.ActionBarManager;
 import org.shotrush.atom.core.api.world.EnvironmentalFactorAPI;
 
@@ -33,10 +30,8 @@ public class ThirstSystem implements Listener {
     public static ThirstSystem instance;
 
     private final Plugin plugin;
-    private final Map<UUID, Double> thirstLevels = new HashMap<>();
-    private final Map<UUID, Integer> thirstDamageTicks = new HashMap<>();
-    
-    private static final double MAX_THIRST = 20.0;
+
+    private static final double MAX_THIRST = PlayerState.MAX_THIRST;
     private static final double THIRST_DAMAGE_THRESHOLD = 0.0;
     private static final double BASE_DRAIN_PER_SEC = 0.0166; 
 
@@ -48,42 +43,38 @@ public class ThirstSystem implements Listener {
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
-        UUID playerId = player.getUniqueId();
+        PlayerState state = PlayerState.of(player);
 
-        double savedThirst = org.shotrush.atom.core.api.player.PlayerDataAPI.getDouble(player, "thirst.level", MAX_THIRST);
-
-        thirstLevels.put(playerId, savedThirst);
-        updateThirstDisplay(player);
-        startThirstTickForPlayer(player);
+        state.setThirst(org.shotrush.atom.core.api.player.PlayerDataAPI.getDouble(player, "thirst.level", MAX_THIRST));
+        state.setThirstDamageTicks(0);
+        updateThirstDisplay(player, state);
+        startThirstTickForPlayer(player, state);
     }
 
     @EventHandler
     public void onPlayerQuit(org.bukkit.event.player.PlayerQuitEvent event) {
         Player player = event.getPlayer();
-        UUID playerId = player.getUniqueId();
-
-        double thirst = thirstLevels.getOrDefault(playerId, MAX_THIRST);
-        org.shotrush.atom.core.api.player.PlayerDataAPI.setDouble(player, "thirst.level", thirst);
+        PlayerState state = PlayerState.find(player);
+        if (state != null) {
+            org.shotrush.atom.core.api.player.PlayerDataAPI.setDouble(player, "thirst.level", state.getThirst());
+        }
 
-        thirstLevels.remove(playerId);
-        thirstDamageTicks.remove(playerId);
         ActionBarManager.getInstance().removeMessage(player, "thirst");
     }
 
-    private void startThirstTickForPlayer(Player player) {
+    private void startThirstTickForPlayer(Player player, PlayerState state) {
         org.shotrush.atom.core.api.scheduler.SchedulerAPI.runTaskTimer(player, task -> {
             if (!player.isOnline()) {
                 task.cancel();
                 return;
             }
 
-            updateThirst(player);
+            updateThirst(player, state);
         }, 20L, 20L);
     }
 
-    private void updateThirst(Player player) {
-        UUID playerId = player.getUniqueId();
-        double currentThirst = thirstLevels.getOrDefault(playerId, MAX_THIRST);
+    private void updateThirst(Player player, PlayerState state) {
+        double currentThirst = state.getThirst();
         
         double drain = BASE_DRAIN_PER_SEC;
 
@@ -100,19 +91,18 @@ public class ThirstSystem implements Listener {
         
         currentThirst -= drain;
         currentThirst = Math.max(0, Math.min(MAX_THIRST, currentThirst));
-        thirstLevels.put(playerId, currentThirst);
+        state.setThirst(currentThirst);
 
         if (currentThirst <= THIRST_DAMAGE_THRESHOLD) {
-            int damageTicks = thirstDamageTicks.getOrDefault(playerId, 0);
-            damageTicks += 20;
-            thirstDamageTicks.put(playerId, damageTicks);
+            int damageTicks = state.getThirstDamageTicks() + 20;
+            state.setThirstDamageTicks(damageTicks);
 
             if (damageTicks >= 80) { // Every 4 seconds damage
                 player.damage(1.0);
-                thirstDamageTicks.put(playerId, 0);
+                state.setThirstDamageTicks(0);
             }
         } else {
-            thirstDamageTicks.remove(playerId);
+            state.setThirstDamageTicks(0);
 
             if (currentThirst <= 5.0) {
                 player.addPotionEffect(new org.bukkit.potion.PotionEffect(
@@ -122,7 +112,7 @@ public class ThirstSystem implements Listener {
         }
 
         checkWaterPurification(player);
-        updateThirstDisplay(player);
+        updateThirstDisplay(player, state);
     }
 
     @EventHandler
@@ -205,8 +195,8 @@ public class ThirstSystem implements Listener {
         }
     }
 
-    private void updateThirstDisplay(Player player) {
-        double thirst = thirstLevels.getOrDefault(player.getUniqueId(), MAX_THIRST);
+    private void updateThirstDisplay(Player player, PlayerState state) {
+        double thirst = state.getThirst();
         int displayThirst = (int) Math.ceil(thirst);
 
         String color;
@@ -228,14 +218,13 @@ public class ThirstSystem implements Listener {
     }
 
     public void addThirst(Player player, int amount) {
-        UUID playerId = player.getUniqueId();
-        double currentThirst = thirstLevels.getOrDefault(playerId, MAX_THIRST);
-        double newThirst = Math.min(currentThirst + amount, MAX_THIRST);
-        thirstLevels.put(playerId, newThirst);
-        updateThirstDisplay(player);
+        PlayerState state = PlayerState.of(player);
+        state.setThirst(Math.min(state.getThirst() + amount, MAX_THIRST));
+        updateThirstDisplay(player, state);
     }
     
     public int getThirst(Player player) {
-        return (int) Math.ceil(thirstLevels.getOrDefault(player.getUniqueId(), MAX_THIRST));
+        PlayerState state = PlayerState.find(player);
+        return (int) Math.ceil(state != null ? state.getThirst() : MAX_THIRST);
     }
 }
@@ -115,6 +115,12 @@ public final class AtomAPI {
             blockManager.stopGlobalUpdate();
             blockManager.cleanupAllDisplays();
             blockManager.saveBlocks();
+            blockManager.closeStorage();
+        }
+
+        if (dataStorage != null) {
+            plugin.getLogger().info("Flushing data storage...");
+            dataStorage.shutdown();
         }
 
         plugin.getLogger().info("AtomAPI shutdown complete!");
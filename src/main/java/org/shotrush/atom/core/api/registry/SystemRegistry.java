@@ -91,8 +91,13 @@ public class SystemRegistry {
         
         
         try {
-            Constructor<?> constructor = info.clazz.getConstructor(Plugin.class);
-            Object instance = constructor.newInstance(plugin);
+            Object instance;
+            try {
+                Constructor<?> constructor = info.clazz.getConstructor(Plugin.class);
+                instance = constructor.newInstance(plugin);
+            } catch (NoSuchMethodException e) {
+                instance = info.clazz.getConstructor().newInstance();
+            }
             
             
             if (instance instanceof Listener) {
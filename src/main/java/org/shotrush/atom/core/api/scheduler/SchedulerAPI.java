@@ -21,6 +21,10 @@ public class SchedulerAPI {
         return entity.getScheduler().run(plugin, t -> task.run(), null);
     }
     
+    public static ScheduledTask runTask(Entity entity, Runnable task, Runnable retired) {
+        return entity.getScheduler().run(plugin, t -> task.run(), retired);
+    }
+    
     public static ScheduledTask runTaskLater(Entity entity, Runnable task, long delay) {
         return entity.getScheduler().runDelayed(plugin, t -> task.run(), null, delay);
     }
@@ -45,6 +49,10 @@ public class SchedulerAPI {
     public static ScheduledTask runTaskTimer(Location location, Runnable task, long delay, long period) {
         return plugin.getServer().getRegionScheduler().runAtFixedRate(plugin, location, t -> task.run(), delay, period);
     }
+    
+    public static ScheduledTask runTaskTimer(Location location, Consumer<ScheduledTask> task, long delay, long period) {
+        return plugin.getServer().getRegionScheduler().runAtFixedRate(plugin, location, task, delay, period);
+    }
 
     
     public static ScheduledTask runGlobalTask(Runnable task) {
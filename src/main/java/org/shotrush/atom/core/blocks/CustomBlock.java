@@ -12,6 +12,7 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.util.Transformation;
 import org.joml.AxisAngle4f;
+import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.shotrush.atom.Atom;
 import org.shotrush.atom.core.blocks.*;
@@ -102,6 +103,17 @@ public abstract class CustomBlock implements BlockType {
         });
     }
 
+    public void despawn() {
+        if (displayUUID != null) {
+            Entity display = Bukkit.getEntity(displayUUID);
+            if (display != null) display.remove();
+        }
+        if (interactionUUID != null) {
+            Entity interaction = Bukkit.getEntity(interactionUUID);
+            if (interaction != null) interaction.remove();
+        }
+    }
+
     protected void cleanupExistingEntities() {
         if (spawnLocation.getWorld() == null) return;
         
@@ -155,6 +167,13 @@ public abstract class CustomBlock implements BlockType {
     
     public void onRemoved() {
     }
+
+    protected void markDirty() {
+        CustomBlockManager manager = Atom.getInstance().getBlockManager();
+        if (manager != null) {
+            manager.markDirty(this);
+        }
+    }
     
     protected String serializeAdditionalData() {
         return "";
@@ -268,12 +287,8 @@ public abstract class CustomBlock implements BlockType {
     protected void spawnDisplay(ItemDisplay display, Atom plugin, ItemStack itemStack,
                                 Vector3f translation, AxisAngle4f initialRotation, Vector3f scale, 
                                 boolean placeBarrier, float interactionWidth, float interactionHeight) {
-        plugin.getLogger().info("[CustomBlock] spawnDisplay called for: " + getIdentifier());
-        plugin.getLogger().info("[CustomBlock] ItemStack: " + itemStack.getType() + ", Display UUID: " + display.getUniqueId());
-        
         if (placeBarrier) {
             blockLocation.getBlock().setType(Material.BLACK_STAINED_GLASS);
-            plugin.getLogger().info("[CustomBlock] Placed black stained glass at: " + blockLocation);
         }
         
         display.setItemStack(itemStack);
@@ -286,42 +301,41 @@ public abstract class CustomBlock implements BlockType {
                 new AxisAngle4f()
         ));
         display.setGravity(false);
-        
-        plugin.getLogger().info("[CustomBlock] Display configured, spawning interaction...");
+        // The block data is the source of truth, the entities are respawned whenever its chunk loads.
+        display.setPersistent(false);
+
         Interaction interaction = (Interaction) spawnLocation.getWorld().spawnEntity(spawnLocation, EntityType.INTERACTION);
         interaction.setInteractionWidth(interactionWidth);
         interaction.setInteractionHeight(interactionHeight);
         interaction.setResponsive(true);
         interaction.setInvulnerable(true);
         interaction.setGravity(false);
+        interaction.setPersistent(false);
 
         this.interactionUUID = interaction.getUniqueId();
         this.displayUUID = display.getUniqueId();
     }
 
     
-    protected void updateDisplayRotation(float globalAngle, int rotationDirection, Vector3f translation, Vector3f scale) {
+    protected void spinDisplay(double angle, int durationTicks, Vector3f translation, Vector3f scale) {
         if (displayUUID == null) return;
-        
+
         Entity entity = Bukkit.getEntity(displayUUID);
         if (!(entity instanceof ItemDisplay)) return;
-        
+
         ItemDisplay display = (ItemDisplay) entity;
         if (display.isDead() || !display.isValid()) return;
 
+        // Split across both rotations so each one slerps through less than half a turn.
+        float half = (float) (angle % (Math.PI * 4) / 2);
         display.getScheduler().run(Atom.getInstance(), task -> {
-            AxisAngle4f baseRotation = BlockRotationUtil.getInitialRotationFromFace(blockFace);
-            AxisAngle4f spinRotation = new AxisAngle4f(globalAngle * rotationDirection, 0, 1, 0);
-            AxisAngle4f combinedRotation = BlockRotationUtil.combineRotations(baseRotation, spinRotation);
-
-            Transformation transformation = new Transformation(
-                    translation,
-                    combinedRotation,
-                    scale,
-                    new AxisAngle4f()
-            );
+            AxisAngle4f base = BlockRotationUtil.getInitialRotationFromFace(blockFace);
+            Quaternionf left = new Quaternionf().rotateAxis(base.angle, base.x, base.y, base.z).rotateY(half);
+            Quaternionf right = new Quaternionf().rotateY(half);
 
-            display.setTransformation(transformation);
+            display.setInterpolationDuration(durationTicks);
+            display.setTransformation(new Transformation(translation, left, scale, right));
+            display.setInterpolationDelay(0);
         }, null);
     }
 }
@@ -1,101 +1,301 @@
 package org.shotrush.atom.core.blocks;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.shotrush.atom.Atom;
-import org.shotrush.atom.core.blocks.*;
 
 import java.io.File;
-import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public class CustomBlockDataManager {
+    private static final String UPSERT_SQL =
+        "INSERT OR REPLACE INTO blocks (world, chunk_key, block_key, type, data) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM blocks WHERE world = ? AND block_key = ?";
+    private static final String SELECT_CHUNK_SQL = "SELECT block_key, type, data FROM blocks WHERE world = ? AND chunk_key = ?";
+
     private final Atom plugin;
     private final CustomBlockRegistry registry;
-    private final File dataFile;
-    private FileConfiguration dataConfig;
+    private final File legacyFile;
+    private final HikariDataSource dataSource;
+    private final Map<StoredKey, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
 
     public CustomBlockDataManager(Atom plugin, CustomBlockRegistry registry) {
         this.plugin = plugin;
         this.registry = registry;
-        this.dataFile = new File(plugin.getDataFolder(), "blocks.yml");
-        loadConfig();
+        this.legacyFile = new File(plugin.getDataFolder(), "blocks.yml");
+
+        plugin.getDataFolder().mkdirs();
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("Atom-Blocks");
+        config.setJdbcUrl("jdbc:sqlite:" + new File(plugin.getDataFolder(), "blocks.db").getAbsolutePath());
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setMaximumPoolSize(1);
+        this.dataSource = new HikariDataSource(config);
+
+        createTable();
+        migrateLegacyFile();
     }
 
-    private void loadConfig() {
-        if (!dataFile.exists()) {
-            plugin.getDataFolder().mkdirs();
-            try {
-                dataFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().severe("Could not create blocks.yml!");
+    private void createTable() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("CREATE TABLE IF NOT EXISTS blocks (" +
+                "world TEXT NOT NULL, " +
+                "chunk_key INTEGER NOT NULL, " +
+                "block_key INTEGER NOT NULL, " +
+                "type TEXT NOT NULL, " +
+                "data TEXT NOT NULL, " +
+                "PRIMARY KEY (world, block_key))");
+            statement.execute("CREATE INDEX IF NOT EXISTS blocks_by_chunk ON blocks (world, chunk_key)");
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Could not create blocks table!");
+            e.printStackTrace();
+        }
+    }
+
+    private void migrateLegacyFile() {
+        if (!legacyFile.exists()) return;
+
+        FileConfiguration legacy = YamlConfiguration.loadConfiguration(legacyFile);
+        ConfigurationSection section = legacy.getConfigurationSection("blocks");
+        int migrated = 0;
+
+        if (section != null) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement upsert = connection.prepareStatement(UPSERT_SQL)) {
+                connection.setAutoCommit(false);
+                for (String typeId : section.getKeys(false)) {
+                    for (String data : legacy.getStringList("blocks." + typeId)) {
+                        String[] parts = data.split(";", 5);
+                        if (parts.length < 4) {
+                            plugin.getLogger().warning("Could not migrate block: " + data);
+                            continue;
+                        }
+                        int x = (int) Math.floor(Double.parseDouble(parts[1]));
+                        int y = (int) Math.floor(Double.parseDouble(parts[2]));
+                        int z = (int) Math.floor(Double.parseDouble(parts[3]));
+
+                        upsert.setString(1, parts[0]);
+                        upsert.setLong(2, Chunk.getChunkKey(x >> 4, z >> 4));
+                        upsert.setLong(3, Block.getBlockKey(x, y, z));
+                        upsert.setString(4, typeId);
+                        upsert.setString(5, data);
+                        upsert.addBatch();
+                        migrated++;
+                    }
+                }
+                upsert.executeBatch();
+                connection.commit();
+            } catch (SQLException | NumberFormatException e) {
+                plugin.getLogger().severe("Could not migrate blocks.yml, leaving it in place!");
                 e.printStackTrace();
+                return;
             }
         }
-        dataConfig = YamlConfiguration.loadConfiguration(dataFile);
+
+        File backup = new File(plugin.getDataFolder(), "blocks.yml.migrated");
+        if (!legacyFile.renameTo(backup)) {
+            plugin.getLogger().warning("Could not rename blocks.yml after migration");
+        }
+        plugin.getLogger().info("Migrated " + migrated + " block(s) from blocks.yml");
     }
 
-    
-    public void saveBlocks(List<CustomBlock> blocks) {
-        dataConfig.set("blocks", null);
-
-        
-        Map<String, List<String>> blocksByType = new HashMap<>();
-        
-        for (CustomBlock block : blocks) {
-            if (block.isValid()) {
-                String type = block.getBlockType();
-                String data = block.serialize();
-                blocksByType.computeIfAbsent(type, k -> new ArrayList<>()).add(data);
+
+    public List<CustomBlock> loadChunk(World world, int chunkX, int chunkZ) {
+        List<CustomBlock> blocks = new ArrayList<>();
+        long chunkKey = Chunk.getChunkKey(chunkX, chunkZ);
+
+        // Blocks with unsaved changes, e.g. from before the chunk last unloaded, win over their stored rows.
+        for (Map.Entry<StoredKey, PendingWrite> entry : pending.entrySet()) {
+            StoredKey key = entry.getKey();
+            if (key.chunkKey() == chunkKey && key.world().equals(world.getName()) && !entry.getValue().removed()) {
+                blocks.add(entry.getValue().block());
             }
         }
-        
-        
-        for (Map.Entry<String, List<String>> entry : blocksByType.entrySet()) {
-            dataConfig.set("blocks." + entry.getKey(), entry.getValue());
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement(SELECT_CHUNK_SQL)) {
+            select.setString(1, world.getName());
+            select.setLong(2, chunkKey);
+
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    if (pending.containsKey(new StoredKey(world.getName(), chunkKey, rs.getLong(1)))) continue;
+
+                    String typeId = rs.getString(2);
+                    String data = rs.getString(3);
+
+                    BlockType blockType = registry.getBlockType(typeId);
+                    if (blockType == null) {
+                        plugin.getLogger().warning("Unknown block type: " + typeId);
+                        continue;
+                    }
+
+                    try {
+                        CustomBlock block = blockType.deserialize(data);
+                        if (block != null) {
+                            blocks.add(block);
+                        }
+                    } catch (Exception e) {
+                        plugin.getLogger().warning("Could not load block: " + data);
+                        e.printStackTrace();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Could not load blocks for chunk " + chunkX + ", " + chunkZ + " in " + world.getName());
+            e.printStackTrace();
+        }
+
+        return blocks;
+    }
+
+
+    public List<Long> getStoredChunks(World world) {
+        List<Long> chunks = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement("SELECT DISTINCT chunk_key FROM blocks WHERE world = ?")) {
+            select.setString(1, world.getName());
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    chunks.add(rs.getLong(1));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Could not list stored chunks for " + world.getName());
+            e.printStackTrace();
         }
-        
+
+        return chunks;
+    }
+
+    public void markDirty(CustomBlock block) {
+        StoredKey key = StoredKey.of(block);
+        if (key == null) return;
+
+        // Called on the block's region thread, so the async flush only ever writes this snapshot.
+        String data;
         try {
-            dataConfig.save(dataFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save blocks.yml!");
+            data = block.serialize();
+        } catch (Exception e) {
+            plugin.getLogger().warning("Could not serialize block at " + key + ", keeping its last saved state");
             e.printStackTrace();
+            return;
         }
+        pending.put(key, new PendingWrite(block, block.getBlockType(), data, false));
     }
 
-    
-    public List<CustomBlock> loadBlocks() {
-        List<CustomBlock> blocks = new ArrayList<>();
-        
-        if (!dataConfig.contains("blocks")) {
-            return blocks;
+    public void markRemoved(CustomBlock block) {
+        StoredKey key = StoredKey.of(block);
+        if (key != null) {
+            pending.put(key, new PendingWrite(block, null, null, true));
         }
-        
-        for (String typeId : dataConfig.getConfigurationSection("blocks").getKeys(false)) {
-            BlockType blockType = registry.getBlockType(typeId);
-            if (blockType == null) {
-                plugin.getLogger().warning("Unknown block type: " + typeId);
-                continue;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        synchronized (flushLock) {
+            Map<StoredKey, PendingWrite> drained = new HashMap<>();
+            List<StoredKey> deletes = new ArrayList<>();
+            List<StoredKey> upserts = new ArrayList<>();
+
+            for (Map.Entry<StoredKey, PendingWrite> entry : pending.entrySet()) {
+                StoredKey key = entry.getKey();
+                PendingWrite write = entry.getValue();
+                if (!pending.remove(key, write)) continue;
+                drained.put(key, write);
+
+                if (write.removed()) {
+                    deletes.add(key);
+                } else {
+                    upserts.add(key);
+                }
             }
-            
-            List<String> blockData = dataConfig.getStringList("blocks." + typeId);
-            for (String data : blockData) {
-                try {
-                    CustomBlock block = blockType.deserialize(data);
-                    if (block != null) {
-                        blocks.add(block);
-                    }
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Could not load block: " + data);
-                    e.printStackTrace();
+
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement upsert = connection.prepareStatement(UPSERT_SQL);
+                 PreparedStatement delete = connection.prepareStatement(DELETE_SQL)) {
+                connection.setAutoCommit(false);
+
+                for (StoredKey key : deletes) {
+                    delete.setString(1, key.world());
+                    delete.setLong(2, key.blockKey());
+                    delete.addBatch();
+                }
+                for (StoredKey key : upserts) {
+                    PendingWrite write = drained.get(key);
+                    upsert.setString(1, key.world());
+                    upsert.setLong(2, key.chunkKey());
+                    upsert.setLong(3, key.blockKey());
+                    upsert.setString(4, write.type());
+                    upsert.setString(5, write.data());
+                    upsert.addBatch();
                 }
+
+                delete.executeBatch();
+                upsert.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                drained.forEach(pending::putIfAbsent);
+                plugin.getLogger().severe("Could not save " + drained.size() + " block change(s), retrying next flush!");
+                e.printStackTrace();
             }
         }
-        
-        return blocks;
+    }
+
+
+    public void clear() {
+        pending.clear();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM blocks");
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Could not clear blocks table!");
+            e.printStackTrace();
+        }
+    }
+
+    public void close() {
+        flush();
+        dataSource.close();
+    }
+
+    private record PendingWrite(CustomBlock block, String type, String data, boolean removed) {
+    }
+
+    private record StoredKey(String world, long chunkKey, long blockKey) {
+        static StoredKey of(CustomBlock block) {
+            World world = block.getBlockLocation().getWorld();
+            if (world == null) return null;
+            int x = block.getBlockLocation().getBlockX();
+            int y = block.getBlockLocation().getBlockY();
+            int z = block.getBlockLocation().getBlockZ();
+            return new StoredKey(world.getName(), Chunk.getChunkKey(x >> 4, z >> 4), Block.getBlockKey(x, y, z));
+        }
     }
 }
@@ -0,0 +1,136 @@
+package org.shotrush.atom.core.blocks;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class CustomBlockIndex {
+
+    private final Map<UUID, Map<Long, Map<Long, CustomBlock>>> blocksByWorld = new ConcurrentHashMap<>();
+    private final Map<UUID, CustomBlock> blocksByInteraction = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public void add(CustomBlock block) {
+        Location loc = block.getBlockLocation();
+        World world = loc.getWorld();
+        if (world == null) return;
+
+        CustomBlock previous = blocksByWorld
+            .computeIfAbsent(world.getUID(), k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(chunkKey(loc), k -> new ConcurrentHashMap<>())
+            .put(blockKey(loc), block);
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+
+        bindInteraction(block);
+    }
+
+    public void remove(CustomBlock block) {
+        Location loc = block.getBlockLocation();
+        World world = loc.getWorld();
+        if (world != null) {
+            Map<Long, Map<Long, CustomBlock>> chunks = blocksByWorld.get(world.getUID());
+            if (chunks != null) {
+                long chunkKey = chunkKey(loc);
+                Map<Long, CustomBlock> chunk = chunks.get(chunkKey);
+                if (chunk != null) {
+                    if (chunk.remove(blockKey(loc), block)) {
+                        size.decrementAndGet();
+                    }
+                    if (chunk.isEmpty()) {
+                        chunks.remove(chunkKey, chunk);
+                    }
+                }
+            }
+        }
+
+        UUID interactionUUID = block.getInteractionUUID();
+        if (interactionUUID != null) {
+            blocksByInteraction.remove(interactionUUID, block);
+        }
+    }
+
+    public void clear() {
+        blocksByWorld.clear();
+        blocksByInteraction.clear();
+        size.set(0);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public List<CustomBlock> getAll() {
+        List<CustomBlock> all = new ArrayList<>(size.get());
+        for (Map<Long, Map<Long, CustomBlock>> chunks : blocksByWorld.values()) {
+            for (Map<Long, CustomBlock> chunk : chunks.values()) {
+                all.addAll(chunk.values());
+            }
+        }
+        return all;
+    }
+
+    public CustomBlock get(Location location) {
+        World world = location.getWorld();
+        if (world == null) return null;
+        return get(world, location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    public CustomBlock get(World world, int x, int y, int z) {
+        Map<Long, Map<Long, CustomBlock>> chunks = blocksByWorld.get(world.getUID());
+        if (chunks == null) return null;
+
+        Map<Long, CustomBlock> chunk = chunks.get(Chunk.getChunkKey(x >> 4, z >> 4));
+        if (chunk == null) return null;
+
+        return chunk.get(Block.getBlockKey(x, y, z));
+    }
+
+    public CustomBlock getByInteraction(UUID interactionUUID) {
+        CustomBlock block = blocksByInteraction.get(interactionUUID);
+        if (block == null) return null;
+
+        if (!interactionUUID.equals(block.getInteractionUUID())) {
+            blocksByInteraction.remove(interactionUUID, block);
+            return null;
+        }
+        return block;
+    }
+
+    public void bindInteraction(CustomBlock block) {
+        UUID interactionUUID = block.getInteractionUUID();
+        if (interactionUUID != null) {
+            blocksByInteraction.put(interactionUUID, block);
+        }
+    }
+
+    public Collection<CustomBlock> getBlocksInChunk(World world, int chunkX, int chunkZ) {
+        Map<Long, Map<Long, CustomBlock>> chunks = blocksByWorld.get(world.getUID());
+        if (chunks == null) return Collections.emptyList();
+
+        Map<Long, CustomBlock> chunk = chunks.get(Chunk.getChunkKey(chunkX, chunkZ));
+        if (chunk == null) return Collections.emptyList();
+
+        return Collections.unmodifiableCollection(chunk.values());
+    }
+
+    private static long chunkKey(Location loc) {
+        return Chunk.getChunkKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+    }
+
+    private static long blockKey(Location loc) {
+        return Block.getBlockKey(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+    }
+}
@@ -0,0 +1,82 @@
+package org.shotrush.atom.core.blocks;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.BlockFace;
+import org.shotrush.atom.content.blocks.cog.Cog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares {@link CustomBlockIndex} lookups against the linear scan over every block they replaced,
+ * on detached blocks laid out as one square sheet above the world's build height.
+ */
+public class CustomBlockIndexBenchmark {
+
+    private static final int SAMPLES = 10_000;
+
+    public static List<String> run(World world, int count) {
+        List<CustomBlock> blocks = layout(world, count);
+        List<String> results = new ArrayList<>();
+
+        CustomBlockIndex index = new CustomBlockIndex();
+        long start = System.nanoTime();
+        blocks.forEach(index::add);
+        long build = System.nanoTime() - start;
+        results.add(String.format("Index: %d blocks added in %.1fms", count, build / 1e6));
+
+        List<Location> queries = queries(world, blocks);
+        int found = 0;
+        start = System.nanoTime();
+        for (Location query : queries) {
+            if (index.get(query) != null) found++;
+        }
+        long indexed = System.nanoTime() - start;
+        results.add(String.format("Index: %.3fus per lookup (%d/%d hits)", indexed / 1e3 / SAMPLES, found, SAMPLES));
+
+        found = 0;
+        start = System.nanoTime();
+        for (Location query : queries) {
+            if (linearScan(blocks, query) != null) found++;
+        }
+        long scanned = System.nanoTime() - start;
+        results.add(String.format("Linear scan: %.3fus per lookup (%d/%d hits), %.0fx slower",
+            scanned / 1e3 / SAMPLES, found, SAMPLES, (double) scanned / Math.max(indexed, 1)));
+
+        return results;
+    }
+
+    private static List<CustomBlock> layout(World world, int count) {
+        int side = (int) Math.ceil(Math.sqrt(count));
+        int y = world.getMaxHeight() + 64;
+        List<CustomBlock> blocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Location spawn = new Location(world, i % side + 0.5, y, i / side + 0.5);
+            blocks.add(new Cog(spawn, BlockFace.UP, false));
+        }
+        return blocks;
+    }
+
+    // Half the queries hit a block, the other half miss just beside the sheet.
+    private static List<Location> queries(World world, List<CustomBlock> blocks) {
+        Random random = new Random(42);
+        List<Location> queries = new ArrayList<>(SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            Location location = blocks.get(random.nextInt(blocks.size())).getBlockLocation().clone();
+            if (i % 2 == 1) location.add(0, 1, 0);
+            queries.add(location);
+        }
+        return queries;
+    }
+
+    private static CustomBlock linearScan(List<CustomBlock> blocks, Location location) {
+        for (CustomBlock block : blocks) {
+            if (block.getBlockLocation().equals(location)) {
+                return block;
+            }
+        }
+        return null;
+    }
+}
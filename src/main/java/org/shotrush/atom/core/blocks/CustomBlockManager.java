@@ -3,20 +3,27 @@ package org.shotrush.atom.core.blocks;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import lombok.Getter;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Interaction;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.reflections.Reflections;
 import org.shotrush.atom.Atom;
+import org.shotrush.atom.content.blocks.cog.Cog;
 import org.shotrush.atom.content.blocks.cog.CogManager;
 import org.shotrush.atom.core.blocks.annotation.AutoRegister;
 import org.shotrush.atom.core.data.PersistentData;
@@ -24,26 +31,34 @@ import org.shotrush.atom.core.util.ActionBarManager;
 
 import java.lang.reflect.Constructor;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 
 public class CustomBlockManager implements Listener {
 
+    private static final long FLUSH_INTERVAL_TICKS = 20L * 60;
+
     private final Atom plugin;
     @Getter
     public final CustomBlockRegistry registry;
     private final NamespacedKey wrenchKey;
     @Getter
-    public final List<CustomBlock> blocks;
+    private final CustomBlockIndex index;
+    private final CustomBlockTicker ticker;
+    @Getter
+    private final CogManager cogManager;
     private final CustomBlockDataManager dataManager;
-    private ScheduledTask globalUpdateTask;
-    private float globalAngle = 0;
+    private final Map<UUID, Set<Long>> pendingChunksByWorld = new ConcurrentHashMap<>();
+    private ScheduledTask flushTask;
 
     public CustomBlockManager(Atom plugin) {
         this.plugin = plugin;
         this.registry = new CustomBlockRegistry(plugin);
         this.wrenchKey = new NamespacedKey(plugin, "wrench");
-        this.blocks = new ArrayList<>();
+        this.index = new CustomBlockIndex();
+        this.ticker = new CustomBlockTicker(registry);
+        this.cogManager = new CogManager();
         this.dataManager = new CustomBlockDataManager(plugin, registry);
 
         
@@ -98,81 +113,153 @@ public class CustomBlockManager implements Listener {
 
     
     private void startGlobalUpdate() {
-        globalUpdateTask = org.shotrush.atom.core.api.scheduler.SchedulerAPI.runGlobalTaskTimer(() -> {
-            globalAngle += 0.1f;
-            if (globalAngle > Math.PI * 2) {
-                globalAngle = 0;
-            }
+        ticker.start();
+    }
 
-            
-            
-            for (CustomBlock block : new ArrayList<>(blocks)) {
-                BlockType type = registry.getBlockType(block.getBlockType());
-                if (type != null && type.requiresUpdate()) {
-                    block.update(globalAngle);
+    public void stopGlobalUpdate() {
+        ticker.stop();
+    }
+
+    private void loadBlocks() {
+        int pendingCount = 0;
+        for (World world : Bukkit.getWorlds()) {
+            Set<Long> pending = pendingChunks(world);
+            pendingCount += pending.size();
+            for (long chunkKey : pending) {
+                int chunkX = (int) chunkKey;
+                int chunkZ = (int) (chunkKey >> 32);
+                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                    loadChunk(world, chunkX, chunkZ);
                 }
             }
-        }, 1L, 1L);
+        }
+        plugin.getLogger().info("Found custom blocks in " + pendingCount + " chunk(s), loading lazily");
+
+        flushTask = org.shotrush.atom.core.api.scheduler.SchedulerAPI.runAsyncTimer(
+            dataManager::flush, FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
     }
 
-    public void stopGlobalUpdate() {
-        if (globalUpdateTask != null) {
-            globalUpdateTask.cancel();
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent event) {
+        Chunk chunk = event.getChunk();
+        loadChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        World world = chunk.getWorld();
+        List<CustomBlock> unloaded = new ArrayList<>(index.getBlocksInChunk(world, chunk.getX(), chunk.getZ()));
+        if (unloaded.isEmpty()) return;
+
+        // Unsaved changes stay queued in the data manager and are picked up again when the chunk reloads.
+        // The entities are not persistent, so they go with the chunk and are spawned afresh on reload.
+        for (CustomBlock block : unloaded) {
+            block.despawn();
+            index.remove(block);
+            ticker.remove(block);
+            if (block instanceof Cog cog) cogManager.remove(cog);
         }
+        pendingChunks(world).add(chunk.getChunkKey());
     }
 
-    private void loadBlocks() {
-        List<CustomBlock> loadedBlocks = dataManager.loadBlocks();
-        blocks.addAll(loadedBlocks);
-        plugin.getLogger().info("Loaded " + loadedBlocks.size() + " block(s) from data");
-        
-        org.shotrush.atom.core.api.scheduler.SchedulerAPI.runGlobalTaskLater(() -> {
-            int spawnedCount = 0;
-            
-            for (CustomBlock block : blocks) {
-                if (block.getSpawnLocation().getWorld() != null) {
+    @EventHandler
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        // Entities saved before blocks spawned non-persistent ones would otherwise sit under the fresh ones.
+        for (Entity entity : event.getEntities()) {
+            if (!entity.isPersistent()) continue;
+            if (!(entity instanceof org.bukkit.entity.ItemDisplay) && !(entity instanceof Interaction)) continue;
+
+            CustomBlock block = index.get(entity.getLocation());
+            if (block != null && entity.getLocation().distanceSquared(block.getSpawnLocation()) < 0.01) {
+                entity.remove();
+            }
+        }
+    }
+
+    private Set<Long> pendingChunks(World world) {
+        return pendingChunksByWorld.computeIfAbsent(world.getUID(), k -> {
+            Set<Long> set = ConcurrentHashMap.newKeySet();
+            set.addAll(dataManager.getStoredChunks(world));
+            return set;
+        });
+    }
+
+    private void loadChunk(World world, int chunkX, int chunkZ) {
+        if (!pendingChunks(world).remove(Chunk.getChunkKey(chunkX, chunkZ))) return;
+
+        org.shotrush.atom.core.api.scheduler.SchedulerAPI.runAsync(() -> {
+            List<CustomBlock> loadedBlocks = dataManager.loadChunk(world, chunkX, chunkZ);
+            if (loadedBlocks.isEmpty()) return;
+
+            Location anchor = new Location(world, (chunkX << 4) + 8, 0, (chunkZ << 4) + 8);
+            org.shotrush.atom.core.api.scheduler.SchedulerAPI.runTask(anchor, () -> {
+                if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                    pendingChunks(world).add(Chunk.getChunkKey(chunkX, chunkZ));
+                    return;
+                }
+
+                List<Cog> cogs = new ArrayList<>();
+
+                for (CustomBlock block : loadedBlocks) {
+                    if (index.get(block.getBlockLocation()) != null) continue;
+
                     block.setDisplayUUID(null);
                     block.setInteractionUUID(null);
-
                     if (block instanceof InteractiveSurface surface) {
                         for (InteractiveSurface.PlacedItem item : surface.getPlacedItems()) {
                             item.setDisplayUUID(null);
                         }
-                        plugin.getLogger().info("Cleared stale UUIDs for " + block.getIdentifier());
-                    } else {
-                        plugin.getLogger().info("Cleared stale UUIDs for " + block.getIdentifier());
                     }
-                    
+
+                    register(block);
                     block.spawn(plugin);
-                    spawnedCount++;
+                    if (block instanceof Cog cog) cogs.add(cog);
                 }
-            }
-            
-            plugin.getLogger().info("Spawned " + spawnedCount + " block(s) after world load");
-
 
-            CogManager cogManager = new CogManager(plugin);
-            cogManager.recalculatePower(blocks);
-        }, 20L);
+                if (!cogs.isEmpty()) {
+                    cogManager.addAll(cogs);
+                }
+            });
+        });
+    }
 
+    public void markDirty(CustomBlock block) {
+        if (index.get(block.getBlockLocation()) == block) {
+            dataManager.markDirty(block);
+        }
     }
 
     public void saveBlocks() {
-        blocks.removeIf(block -> !block.isValid());
-        dataManager.saveBlocks(blocks);
-        plugin.getLogger().info("Saved " + blocks.size() + " block(s)");
+        int pendingCount = dataManager.getPendingCount();
+        dataManager.flush();
+        plugin.getLogger().info("Saved " + pendingCount + " block change(s)");
+    }
+
+    public void closeStorage() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        dataManager.close();
     }
     
     public void cleanupAllDisplays() {
         plugin.getLogger().info("Skipping entity cleanup on shutdown (Folia-safe)");
     }
 
+    public int getBlockCount() {
+        return index.size();
+    }
+
     public void removeAllBlocks() {
-        for (CustomBlock block : blocks) {
+        for (CustomBlock block : index.getAll()) {
             block.remove();
         }
-        blocks.clear();
-        dataManager.saveBlocks(blocks);
+        index.clear();
+        ticker.clear();
+        cogManager.getNetwork().clear();
+        pendingChunksByWorld.clear();
+        dataManager.clear();
         plugin.getLogger().info("Removed all blocks");
     }
 
@@ -244,12 +331,38 @@ public class CustomBlockManager implements Listener {
     }
     
     public CustomBlock getBlockAt(Location location) {
-        for (CustomBlock block : blocks) {
-            if (block.getBlockLocation().equals(location)) {
-                return block;
+        return index.get(location);
+    }
+
+    public CustomBlock getBlockByInteraction(Interaction interaction) {
+        CustomBlock block = index.getByInteraction(interaction.getUniqueId());
+        if (block != null) {
+            return block;
+        }
+
+        Location interactionLoc = interaction.getLocation();
+        block = index.get(interactionLoc);
+        if (block == null || block.getSpawnLocation().distanceSquared(interactionLoc) >= 0.25) {
+            return null;
+        }
+
+        block.setInteractionUUID(interaction.getUniqueId());
+
+        for (Entity nearbyEntity : interactionLoc.getWorld().getNearbyEntities(block.getSpawnLocation(), 1, 1, 1)) {
+            if (nearbyEntity instanceof org.bukkit.entity.ItemDisplay) {
+                if (nearbyEntity.getLocation().distance(block.getSpawnLocation()) < 0.5) {
+                    block.setDisplayUUID(nearbyEntity.getUniqueId());
+                    break;
+                }
             }
         }
-        return null;
+
+        if (block instanceof InteractiveSurface surface) {
+            surface.updateItemDisplayUUIDs();
+        }
+
+        index.bindInteraction(block);
+        return block;
     }
     
     private void updateBlockEntityUUIDs(CustomBlock block) {
@@ -270,10 +383,21 @@ public class CustomBlockManager implements Listener {
     
     public void removeBlock(CustomBlock block) {
         block.remove();
-        blocks.remove(block);
+        unregister(block);
         block.onRemoved();
     }
 
+    private void register(CustomBlock block) {
+        index.add(block);
+        ticker.add(block);
+    }
+
+    private void unregister(CustomBlock block) {
+        index.remove(block);
+        ticker.remove(block);
+        dataManager.markRemoved(block);
+    }
+
     @EventHandler
     public void onBlockPlace(BlockPlaceEvent event) {
         ItemStack item = event.getItemInHand();
@@ -293,11 +417,9 @@ public class CustomBlockManager implements Listener {
             Location blockLocation = event.getBlock().getLocation();
             Location spawnLocation = blockLocation.clone().add(0.5, 0, 0.5);
             
-            for (CustomBlock existingBlock : blocks) {
-                if (existingBlock.getBlockLocation().equals(blockLocation)) {
-                    event.getPlayer().sendMessage("§cA block is already placed here!");
-                    return;
-                }
+            if (index.get(blockLocation) != null) {
+                event.getPlayer().sendMessage("§cA block is already placed here!");
+                return;
             }
             
             CustomBlock customBlock = blockType.createBlock(
@@ -306,7 +428,8 @@ public class CustomBlockManager implements Listener {
                 event.getBlockAgainst().getFace(event.getBlock())
             );
             customBlock.spawn(plugin);
-            blocks.add(customBlock);
+            register(customBlock);
+            dataManager.markDirty(customBlock);
             customBlock.onPlaced();
 
             if (item.getAmount() > 1) {
@@ -327,59 +450,19 @@ public class CustomBlockManager implements Listener {
         if (!(entity instanceof Interaction)) return;
         
         Interaction interaction = (Interaction) entity;
-        
-        for (int i = 0; i < blocks.size(); i++) {
-            CustomBlock block = blocks.get(i);
-            if (block.getInteractionUUID() != null && block.getInteractionUUID().equals(entity.getUniqueId())) {
-                org.shotrush.atom.core.api.scheduler.SchedulerAPI.runTask(interaction.getLocation(), () -> {
-                    org.bukkit.entity.Entity ent = Bukkit.getEntity(interaction.getUniqueId());
-                    if (ent instanceof Interaction inter) {
-                        inter.setResponsive(false);
-                        inter.setResponsive(true);
-                    }
-                });
-                
-                handleBlockInteraction(block, i, event.getPlayer(), event);
-                return;
-            }
-        }
 
-        Location interactionLoc = interaction.getLocation();
-        for (int i = 0; i < blocks.size(); i++) {
-            CustomBlock block = blocks.get(i);
-            Location blockLoc = block.getSpawnLocation();
-            if (blockLoc.getWorld().equals(interactionLoc.getWorld()) &&
-                blockLoc.distance(interactionLoc) < 0.5) {
-
-                block.setInteractionUUID(entity.getUniqueId());
-
-                for (Entity nearbyEntity : blockLoc.getWorld().getNearbyEntities(blockLoc, 1, 1, 1)) {
-                    if (nearbyEntity instanceof org.bukkit.entity.ItemDisplay) {
-                        if (nearbyEntity.getLocation().distance(blockLoc) < 0.5) {
-                            block.setDisplayUUID(nearbyEntity.getUniqueId());
-                            plugin.getLogger().info("Updated display and interaction UUIDs for block at " + blockLoc);
-                            break;
-                        }
-                    }
-                }
+        CustomBlock block = getBlockByInteraction(interaction);
+        if (block == null) return;
 
-                if (block instanceof InteractiveSurface surface) {
-                    surface.updateItemDisplayUUIDs();
-                    plugin.getLogger().info("Updated item display UUIDs for InteractiveSurface");
-                }
-                
-                org.shotrush.atom.core.api.scheduler.SchedulerAPI.runTask(interaction.getLocation(), () -> {
-                    org.bukkit.entity.Entity ent = Bukkit.getEntity(interaction.getUniqueId());
-                    if (ent instanceof Interaction inter) {
-                        inter.setResponsive(false);
-                        inter.setResponsive(true);
-                    }
-                });
-                
-                handleBlockInteraction(block, i, event.getPlayer(), event);
-                return;
+        org.shotrush.atom.core.api.scheduler.SchedulerAPI.runTask(interaction.getLocation(), () -> {
+            org.bukkit.entity.Entity ent = Bukkit.getEntity(interaction.getUniqueId());
+            if (ent instanceof Interaction inter) {
+                inter.setResponsive(false);
+                inter.setResponsive(true);
             }
-        }
+        });
+
+        handleBlockInteraction(block, event.getPlayer(), event);
     }
     
     @EventHandler(priority = org.bukkit.event.EventPriority.HIGHEST)
@@ -391,69 +474,24 @@ public class CustomBlockManager implements Listener {
         Player player = (Player) event.getDamager();
         Interaction interaction = (Interaction) event.getEntity();
 
-        for (int i = 0; i < blocks.size(); i++) {
-            CustomBlock block = blocks.get(i);
-            if (block.getInteractionUUID() != null && block.getInteractionUUID().equals(interaction.getUniqueId())) {
-                event.setCancelled(true);
-
-                if (block.getBlockLocation().getBlock().getType() != Material.BLACK_STAINED_GLASS) {
-                    BlockType blockType = registry.getBlockType(block.getBlockType());
-                    if (blockType != null) {
-                        ItemStack dropItem = blockType.getDropItem();
-                        if (dropItem != null) {
-                            block.getSpawnLocation().getWorld().dropItemNaturally(block.getSpawnLocation(), dropItem);
-                        }
-                    }
-                    
-                    block.remove();
-                    blocks.remove(i);
-                    block.onRemoved();
-                    ActionBarManager.send(player, "§cCustom block removed");
-                }
-                return;
-            }
-        }
-
-        Location interactionLoc = interaction.getLocation();
-        for (int i = 0; i < blocks.size(); i++) {
-            CustomBlock block = blocks.get(i);
-            Location blockLoc = block.getSpawnLocation();
-            if (blockLoc.getWorld().equals(interactionLoc.getWorld()) &&
-                blockLoc.distance(interactionLoc) < 0.5) {
-
-                block.setInteractionUUID(interaction.getUniqueId());
-
-                for (Entity nearbyEntity : blockLoc.getWorld().getNearbyEntities(blockLoc, 1, 1, 1)) {
-                    if (nearbyEntity instanceof org.bukkit.entity.ItemDisplay) {
-                        if (nearbyEntity.getLocation().distance(blockLoc) < 0.5) {
-                            block.setDisplayUUID(nearbyEntity.getUniqueId());
-                            break;
-                        }
-                    }
-                }
+        CustomBlock block = getBlockByInteraction(interaction);
+        if (block == null) return;
 
-                if (block instanceof InteractiveSurface surface) {
-                    surface.updateItemDisplayUUIDs();
-                }
-                
-                event.setCancelled(true);
+        event.setCancelled(true);
 
-                if (block.getBlockLocation().getBlock().getType() != Material.BLACK_STAINED_GLASS) {
-                    BlockType blockType = registry.getBlockType(block.getBlockType());
-                    if (blockType != null) {
-                        ItemStack dropItem = blockType.getDropItem();
-                        if (dropItem != null) {
-                            block.getSpawnLocation().getWorld().dropItemNaturally(block.getSpawnLocation(), dropItem);
-                        }
-                    }
-                    
-                    block.remove();
-                    blocks.remove(i);
-                    block.onRemoved();
-                    ActionBarManager.send(player, "§cCustom block removed");
+        if (block.getBlockLocation().getBlock().getType() != Material.BLACK_STAINED_GLASS) {
+            BlockType blockType = registry.getBlockType(block.getBlockType());
+            if (blockType != null) {
+                ItemStack dropItem = blockType.getDropItem();
+                if (dropItem != null) {
+                    block.getSpawnLocation().getWorld().dropItemNaturally(block.getSpawnLocation(), dropItem);
                 }
-                return;
             }
+            
+            block.remove();
+            unregister(block);
+            block.onRemoved();
+            ActionBarManager.send(player, "§cCustom block removed");
         }
     }
     
@@ -467,27 +505,21 @@ public class CustomBlockManager implements Listener {
         if (blockType != Material.BLACK_STAINED_GLASS) return;
         
         Location blockLoc = event.getBlock().getLocation();
-        for (int i = 0; i < blocks.size(); i++) {
-            CustomBlock block = blocks.get(i);
-            if (block.getBlockLocation().equals(blockLoc)) {
-                
-                BlockType blockTypeData = registry.getBlockType(block.getBlockType());
-                if (blockTypeData != null) {
-                    ItemStack dropItem = blockTypeData.getDropItem();
-                    if (dropItem != null) {
-                        blockLoc.getWorld().dropItemNaturally(blockLoc, dropItem);
-                    }
-                }
-                
-                
-                block.remove();
-                blocks.remove(i);
-                block.onRemoved();
-                
-                
-                return;
+        CustomBlock block = index.get(blockLoc);
+        if (block == null) return;
+
+        BlockType blockTypeData = registry.getBlockType(block.getBlockType());
+        if (blockTypeData != null) {
+            ItemStack dropItem = blockTypeData.getDropItem();
+            if (dropItem != null) {
+                blockLoc.getWorld().dropItemNaturally(blockLoc, dropItem);
             }
         }
+
+
+        block.remove();
+        unregister(block);
+        block.onRemoved();
     }
     
     @EventHandler(priority = org.bukkit.event.EventPriority.LOWEST)
@@ -502,17 +534,13 @@ public class CustomBlockManager implements Listener {
         // Only handle BLACK_STAINED_GLASS, exclude CAMPFIRE to avoid conflicts with CampfireSystem
         if (blockType != Material.BLACK_STAINED_GLASS) return;
         
-        Location clickedLoc = event.getClickedBlock().getLocation();
-        for (int i = 0; i < blocks.size(); i++) {
-            CustomBlock block = blocks.get(i);
-            if (block.getBlockLocation().equals(clickedLoc)) {
-                handleBlockInteraction(block, i, event.getPlayer(), event);
-                return;
-            }
+        CustomBlock block = index.get(event.getClickedBlock().getLocation());
+        if (block != null) {
+            handleBlockInteraction(block, event.getPlayer(), event);
         }
     }
     
-    private void handleBlockInteraction(CustomBlock block, int index, Player player, org.bukkit.event.Cancellable event) {
+    private void handleBlockInteraction(CustomBlock block, Player player, org.bukkit.event.Cancellable event) {
         ItemStack itemInHand = player.getInventory().getItemInMainHand();
         boolean hasWrench = plugin.getItemRegistry().getItem("wrench") != null &&
                            plugin.getItemRegistry().getItem("wrench").isCustomItem(itemInHand);
@@ -525,7 +553,7 @@ public class CustomBlockManager implements Listener {
                         return;
                     }
                     block.remove();
-                    blocks.remove(index);
+                    unregister(block);
                     block.onRemoved();
                     ActionBarManager.send(player, "§cBlock removed!");
                     return;
@@ -553,7 +581,7 @@ public class CustomBlockManager implements Listener {
                     return;
                 }
                 block.remove();
-                blocks.remove(index);
+                unregister(block);
                 block.onRemoved();
                 ActionBarManager.send(player, "§cBlock removed!");
                 return;
@@ -0,0 +1,141 @@
+package org.shotrush.atom.core.blocks;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+public class CustomBlockTicker {
+
+    public static final float ANGLE_STEP = 0.1f;
+    private static final int ANGLE_STEPS = (int) Math.ceil(Math.PI * 2 / ANGLE_STEP);
+
+    private final CustomBlockRegistry registry;
+    private final Map<UUID, Map<Long, ChunkGroup>> groupsByWorld = new ConcurrentHashMap<>();
+    private volatile boolean running = false;
+
+    public CustomBlockTicker(CustomBlockRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void start() {
+        running = true;
+        for (Map<Long, ChunkGroup> groups : groupsByWorld.values()) {
+            for (ChunkGroup group : groups.values()) {
+                group.schedule();
+            }
+        }
+    }
+
+    public void stop() {
+        running = false;
+        cancelAll();
+    }
+
+    public void add(CustomBlock block) {
+        BlockType type = registry.getBlockType(block.getBlockType());
+        if (type == null || !type.requiresUpdate()) return;
+
+        Location loc = block.getBlockLocation();
+        World world = loc.getWorld();
+        if (world == null) return;
+
+        int chunkX = loc.getBlockX() >> 4;
+        int chunkZ = loc.getBlockZ() >> 4;
+
+        groupsByWorld
+            .computeIfAbsent(world.getUID(), k -> new ConcurrentHashMap<>())
+            .compute(Chunk.getChunkKey(chunkX, chunkZ), (key, group) -> {
+                if (group == null) {
+                    group = new ChunkGroup(world, chunkX, chunkZ);
+                    if (running) group.schedule();
+                }
+                group.blocks.addIfAbsent(block);
+                return group;
+            });
+    }
+
+    public void remove(CustomBlock block) {
+        Location loc = block.getBlockLocation();
+        World world = loc.getWorld();
+        if (world == null) return;
+
+        Map<Long, ChunkGroup> groups = groupsByWorld.get(world.getUID());
+        if (groups == null) return;
+
+        groups.computeIfPresent(Chunk.getChunkKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4), (key, group) -> {
+            group.blocks.remove(block);
+            if (group.blocks.isEmpty()) {
+                group.cancel();
+                return null;
+            }
+            return group;
+        });
+    }
+
+    public void clear() {
+        cancelAll();
+        groupsByWorld.clear();
+    }
+
+    private void cancelAll() {
+        for (Map<Long, ChunkGroup> groups : groupsByWorld.values()) {
+            for (ChunkGroup group : groups.values()) {
+                group.cancel();
+            }
+        }
+    }
+
+    public static float currentAngle() {
+        return (currentTick() % ANGLE_STEPS) * ANGLE_STEP;
+    }
+
+    /** Wall-clock tick shared by every region, so animations stay in phase across chunks. */
+    public static long currentTick() {
+        return System.currentTimeMillis() / 50L;
+    }
+
+    private static final class ChunkGroup {
+        private final World world;
+        private final int chunkX;
+        private final int chunkZ;
+        private final CopyOnWriteArrayList<CustomBlock> blocks = new CopyOnWriteArrayList<>();
+        private ScheduledTask task;
+
+        ChunkGroup(World world, int chunkX, int chunkZ) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        synchronized void schedule() {
+            if (task != null) return;
+            Location anchor = new Location(world, (chunkX << 4) + 8, 0, (chunkZ << 4) + 8);
+            task = SchedulerAPI.runTaskTimer(anchor, this::tick, 1L, 1L);
+        }
+
+        synchronized void cancel() {
+            if (task != null) {
+                task.cancel();
+                task = null;
+            }
+        }
+
+        private void tick() {
+            if (!world.isChunkLoaded(chunkX, chunkZ)) return;
+            if (world.getChunkAt(chunkX, chunkZ).getPlayersSeeingChunk().isEmpty()) return;
+
+            float angle = currentAngle();
+            for (CustomBlock block : blocks) {
+                block.update(angle);
+            }
+        }
+    }
+}
@@ -84,48 +84,43 @@ public class CustomBlockTypeDropHandler implements Listener {
         CustomBlockManager manager = plugin.getBlockManager();
         if (manager == null) return;
         
-        for (CustomBlock block : manager.getBlocks()) {
-            if (block.getInteractionUUID() != null && 
-                block.getInteractionUUID().equals(interaction.getUniqueId())) {
-                
-                
-                DropConfigWithAge dropConfig = customDrops.get(block.getClass());
-                if (dropConfig == null) return;
-                
-                
-                String currentAge = plugin.getAgeManager().getCurrentAge().getId();
-                if (!dropConfig.allowedAges.isEmpty() && !dropConfig.allowedAges.contains(currentAge)) {
-                    return;
+        CustomBlock block = manager.getIndex().getByInteraction(interaction.getUniqueId());
+        if (block == null) return;
+
+
+        DropConfigWithAge dropConfig = customDrops.get(block.getClass());
+        if (dropConfig == null) return;
+        
+        
+        String currentAge = plugin.getAgeManager().getCurrentAge().getId();
+        if (!dropConfig.allowedAges.isEmpty() && !dropConfig.allowedAges.contains(currentAge)) {
+            return;
+        }
+        
+        
+        for (DropConfig drop : dropConfig.drops) {
+            if (random.nextDouble() <= drop.chance) {
+                int amount = drop.min;
+                if (drop.max > drop.min) {
+                    amount = drop.min + random.nextInt(drop.max - drop.min + 1);
                 }
                 
+                ItemStack itemToDrop;
+                
                 
-                for (DropConfig drop : dropConfig.drops) {
-                    if (random.nextDouble() <= drop.chance) {
-                        int amount = drop.min;
-                        if (drop.max > drop.min) {
-                            amount = drop.min + random.nextInt(drop.max - drop.min + 1);
-                        }
-                        
-                        ItemStack itemToDrop;
-                        
-                        
-                        if (!drop.customItemId.isEmpty()) {
-                            itemToDrop = plugin.getItemRegistry().createItem(drop.customItemId);
-                            if (itemToDrop == null) {
-                                plugin.getLogger().warning("Custom item not found: " + drop.customItemId);
-                                continue;
-                            }
-                        } else {
-                            itemToDrop = new ItemStack(drop.material);
-                        }
-                        
-                        itemToDrop.setAmount(amount);
-                        block.getSpawnLocation().getWorld().dropItemNaturally(
-                            block.getSpawnLocation(), itemToDrop);
+                if (!drop.customItemId.isEmpty()) {
+                    itemToDrop = plugin.getItemRegistry().createItem(drop.customItemId);
+                    if (itemToDrop == null) {
+                        plugin.getLogger().warning("Custom item not found: " + drop.customItemId);
+                        continue;
                     }
+                } else {
+                    itemToDrop = new ItemStack(drop.material);
                 }
                 
-                return;
+                itemToDrop.setAmount(amount);
+                block.getSpawnLocation().getWorld().dropItemNaturally(
+                    block.getSpawnLocation(), itemToDrop);
             }
         }
     }
@@ -1,6 +1,7 @@
 package org.shotrush.atom.core.blocks;
 
 import lombok.Setter;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
 import org.bukkit.block.BlockFace;
@@ -56,12 +57,6 @@ public abstract class InteractiveSurface extends CustomBlock {
             return;
         }
 
-        plugin.getLogger().info(String.format(
-            "[InteractiveSurface] spawn() called for %s with %d placedItems",
-            getIdentifier(), placedItems.size()
-        ));
-
-
         org.shotrush.atom.core.api.scheduler.SchedulerAPI.runTask(spawnLocation, () -> {
 
             cleanupExistingEntities();
@@ -131,6 +126,7 @@ public abstract class InteractiveSurface extends CustomBlock {
             player.getWorld().dropItemNaturally(spawnLocation, placedItem.getItem());
         }
         placedItems.clear();
+        markDirty();
     }
 
     protected void clearAllItems() {
@@ -138,6 +134,7 @@ public abstract class InteractiveSurface extends CustomBlock {
             removeItemDisplay(placedItem);
         }
         placedItems.clear();
+        markDirty();
     }
 
     public boolean placeItem(ItemStack item, Vector3f position, float yaw) {
@@ -149,6 +146,7 @@ public abstract class InteractiveSurface extends CustomBlock {
         PlacedItem placedItem = new PlacedItem(singleItem, position, yaw);
         placedItems.add(placedItem);
         spawnItemDisplay(placedItem);
+        markDirty();
         return true;
     }
 
@@ -164,6 +162,7 @@ public abstract class InteractiveSurface extends CustomBlock {
         if (placedItems.isEmpty()) return null;
         PlacedItem item = placedItems.remove(placedItems.size() - 1);
         removeItemDisplay(item);
+        markDirty();
         return item.getItem();
     }
 
@@ -198,6 +197,7 @@ public abstract class InteractiveSurface extends CustomBlock {
             display.setViewRange(64.0f);
             display.setShadowRadius(0.0f);
             display.setShadowStrength(0.0f);
+            display.setPersistent(false);
             
             
             if (interactionUUID != null) {
@@ -356,6 +356,17 @@ public abstract class InteractiveSurface extends CustomBlock {
         public java.util.UUID getDisplayUUID() { return displayUUID; }
     }
 
+    @Override
+    public void despawn() {
+        super.despawn();
+        for (PlacedItem item : placedItems) {
+            if (item.getDisplayUUID() == null) continue;
+            org.shotrush.atom.content.systems.ItemHeatSystem.stopItemDisplayHeatTracking(item.getDisplayUUID());
+            Entity display = Bukkit.getEntity(item.getDisplayUUID());
+            if (display != null) display.remove();
+        }
+    }
+
     @Override
     protected void cleanupExistingEntities() {
         for (Entity entity : spawnLocation.getWorld().getNearbyEntities(spawnLocation, 0.5, 0.5, 0.5)) {
@@ -1,81 +1,244 @@
 package org.shotrush.atom.core.storage;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI;
+import org.shotrush.atom.core.storage.backend.SqliteStorageBackend;
+import org.shotrush.atom.core.storage.backend.StorageBackend;
+import org.shotrush.atom.core.storage.backend.YamlStorageBackend;
 
 import java.io.File;
-import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DataStorage implements Listener {
+
+    private static final long FLUSH_INTERVAL_TICKS = 20L * 30;
 
-public class DataStorage {
-    
     private final Plugin plugin;
-    private final File playerDataFolder;
-    private final File serverDataFile;
-    
+    private final StorageBackend backend;
+    // Player and server data are held as serialized documents so every caller parses its own copy;
+    // callers edit what they get and save it back, so region threads must never share one instance.
+    private final LoadingCache<UUID, String> playerCache;
+    private final Map<UUID, String> pendingPlayerWrites = new ConcurrentHashMap<>();
+    private final AtomicReference<String> pendingServerWrite = new AtomicReference<>();
+    private volatile String serverDocument;
+    private final Object flushLock = new Object();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedDocuments = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos = 0;
+    private ScheduledTask flushTask;
+
     public DataStorage(Plugin plugin) {
         this.plugin = plugin;
-        this.playerDataFolder = new File(plugin.getDataFolder(), "playerdata");
-        this.serverDataFile = new File(plugin.getDataFolder(), "serverdata.yml");
-        
-        if (!playerDataFolder.exists()) {
-            playerDataFolder.mkdirs();
-        }
+        this.backend = createBackend(plugin);
+        plugin.getLogger().info("Using " + backend.getName() + " data storage backend");
+
+        this.playerCache = Caffeine.newBuilder()
+            .expireAfterAccess(15, TimeUnit.MINUTES)
+            .maximumSize(10_000)
+            .recordStats()
+            .build(this::loadPlayerData);
+
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        this.flushTask = SchedulerAPI.runAsyncTimer(this::flush, FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
     }
-    
+
     public YamlConfiguration getPlayerData(UUID uuid) {
-        File playerFile = new File(playerDataFolder, uuid.toString() + ".yml");
-        
-        if (!playerFile.exists()) {
-            try {
-                playerFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().warning("Failed to create player data file for " + uuid);
-            }
-        }
-        
-        return YamlConfiguration.loadConfiguration(playerFile);
+        return parse(playerCache.get(uuid), "player data for " + uuid);
     }
-    
+
     public void savePlayerData(UUID uuid, YamlConfiguration config) {
-        File playerFile = new File(playerDataFolder, uuid.toString() + ".yml");
-        
-        try {
-            config.save(playerFile);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Failed to save player data for " + uuid);
-        }
+        String yaml = config.saveToString();
+        playerCache.put(uuid, yaml);
+        pendingPlayerWrites.put(uuid, yaml);
     }
-    
+
     public YamlConfiguration getServerData() {
-        if (!serverDataFile.exists()) {
-            try {
-                serverDataFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().warning("Failed to create server data file");
+        String document = serverDocument;
+        if (document == null) {
+            synchronized (this) {
+                document = serverDocument;
+                if (document == null) {
+                    document = backend.loadServer();
+                    if (document == null) document = "";
+                    serverDocument = document;
+                }
             }
         }
-        
-        return YamlConfiguration.loadConfiguration(serverDataFile);
+        return parse(document, "server data");
     }
-    
+
     public void saveServerData(YamlConfiguration config) {
-        try {
-            config.save(serverDataFile);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Failed to save server data");
-        }
+        String yaml = config.saveToString();
+        serverDocument = yaml;
+        pendingServerWrite.set(yaml);
     }
-    
+
     public boolean hasPlayerData(UUID uuid) {
-        File playerFile = new File(playerDataFolder, uuid.toString() + ".yml");
-        return playerFile.exists();
+        return pendingPlayerWrites.containsKey(uuid) || backend.hasPlayer(uuid);
     }
-    
+
     public void deletePlayerData(UUID uuid) {
-        File playerFile = new File(playerDataFolder, uuid.toString() + ".yml");
-        if (playerFile.exists()) {
-            playerFile.delete();
+        pendingPlayerWrites.remove(uuid);
+        playerCache.invalidate(uuid);
+        backend.deletePlayer(uuid);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        SchedulerAPI.runAsync(() -> {
+            flushPlayer(uuid);
+            playerCache.invalidate(uuid);
+        });
+    }
+
+
+    public void flush() {
+        if (pendingPlayerWrites.isEmpty() && pendingServerWrite.get() == null) return;
+
+        synchronized (flushLock) {
+            long start = System.nanoTime();
+            int written = 0;
+
+            Map<UUID, String> batch = new HashMap<>();
+            for (Map.Entry<UUID, String> entry : pendingPlayerWrites.entrySet()) {
+                if (pendingPlayerWrites.remove(entry.getKey(), entry.getValue())) {
+                    batch.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!batch.isEmpty()) {
+                if (backend.savePlayers(batch)) {
+                    written += batch.size();
+                } else {
+                    batch.forEach(pendingPlayerWrites::putIfAbsent);
+                }
+            }
+
+            String server = pendingServerWrite.getAndSet(null);
+            if (server != null) {
+                if (backend.saveServer(server)) {
+                    written++;
+                } else {
+                    pendingServerWrite.compareAndSet(null, server);
+                }
+            }
+
+            recordFlush(start, written);
         }
     }
+
+    public void flushPlayer(UUID uuid) {
+        synchronized (flushLock) {
+            String yaml = pendingPlayerWrites.remove(uuid);
+            if (yaml == null) return;
+
+            long start = System.nanoTime();
+            if (backend.savePlayers(Map.of(uuid, yaml))) {
+                recordFlush(start, 1);
+            } else {
+                pendingPlayerWrites.putIfAbsent(uuid, yaml);
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        flush();
+        backend.close();
+        plugin.getLogger().info("Data storage: " + describeMetrics());
+    }
+
+    public double getHitRate() {
+        return playerCache.stats().hitRate();
+    }
+
+    public double getAverageFlushMillis() {
+        long count = flushCount.get();
+        return count == 0 ? 0 : totalFlushNanos.get() / (double) count / 1_000_000.0;
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushNanos / 1_000_000.0;
+    }
+
+    public int getPendingWrites() {
+        return pendingPlayerWrites.size() + (pendingServerWrite.get() != null ? 1 : 0);
+    }
+
+    public String describeMetrics() {
+        CacheStats stats = playerCache.stats();
+        return String.format(
+            "backend=%s, cached=%d, hitRate=%.1f%% (%d hits, %d misses), pending=%d, flushes=%d (%d docs), avgFlush=%.2fms, lastFlush=%.2fms",
+            backend.getName(), playerCache.estimatedSize(), stats.hitRate() * 100, stats.hitCount(), stats.missCount(),
+            getPendingWrites(), flushCount.get(), flushedDocuments.get(), getAverageFlushMillis(), getLastFlushMillis()
+        );
+    }
+
+    private static StorageBackend createBackend(Plugin plugin) {
+        String type = plugin.getConfig().getString("storage.backend", "yaml");
+        if (!"sqlite".equalsIgnoreCase(type)) {
+            return new YamlStorageBackend(plugin.getDataFolder(), plugin.getLogger());
+        }
+
+        SqliteStorageBackend sqlite = new SqliteStorageBackend(
+            new File(plugin.getDataFolder(), plugin.getConfig().getString("storage.sqlite.file", "storage.db")),
+            plugin.getLogger()
+        );
+        if (plugin.getConfig().getBoolean("storage.sqlite.import-yaml", true)) {
+            int imported = sqlite.importYaml(plugin.getDataFolder());
+            if (imported > 0) {
+                plugin.getLogger().info("Imported " + imported + " YAML data file(s) into SQLite");
+            }
+        }
+        return sqlite;
+    }
+
+    private String loadPlayerData(UUID uuid) {
+        String pending = pendingPlayerWrites.get(uuid);
+        if (pending != null) return pending;
+        String stored = backend.loadPlayer(uuid);
+        return stored != null ? stored : "";
+    }
+
+    private YamlConfiguration parse(String document, String description) {
+        YamlConfiguration config = new YamlConfiguration();
+        if (document == null || document.isEmpty()) {
+            return config;
+        }
+        try {
+            config.loadFromString(document);
+        } catch (InvalidConfigurationException e) {
+            plugin.getLogger().warning("Failed to parse " + description + ": " + e.getMessage());
+        }
+        return config;
+    }
+
+    private void recordFlush(long start, int written) {
+        if (written == 0) return;
+        long elapsed = System.nanoTime() - start;
+        lastFlushNanos = elapsed;
+        totalFlushNanos.addAndGet(elapsed);
+        flushCount.incrementAndGet();
+        flushedDocuments.addAndGet(written);
+    }
 }
@@ -0,0 +1,76 @@
+package org.shotrush.atom.core.storage;
+
+import org.shotrush.atom.core.storage.backend.SqliteStorageBackend;
+import org.shotrush.atom.core.storage.backend.StorageBackend;
+import org.shotrush.atom.core.storage.backend.YamlStorageBackend;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+
+public class StorageBenchmark {
+
+    private static final String SAMPLE_DOCUMENT = """
+        stats:
+          kills: 12
+          deaths: 3
+          playtime: 918273
+        thirst:
+          level: 17
+        temperature:
+          body: 36.8
+        """;
+
+    public static List<String> run(File dataFolder, Logger logger, int players) {
+        File root = new File(dataFolder, "benchmark-" + System.currentTimeMillis());
+        List<String> results = new ArrayList<>();
+
+        Map<UUID, String> documents = new HashMap<>();
+        for (int i = 0; i < players; i++) {
+            documents.put(UUID.randomUUID(), SAMPLE_DOCUMENT);
+        }
+
+        try {
+            results.add(measure(new YamlStorageBackend(new File(root, "yaml"), logger), documents));
+            results.add(measure(new SqliteStorageBackend(new File(root, "sqlite/storage.db"), logger), documents));
+        } finally {
+            delete(root);
+        }
+
+        return results;
+    }
+
+    private static String measure(StorageBackend backend, Map<UUID, String> documents) {
+        try {
+            long start = System.nanoTime();
+            backend.savePlayers(documents);
+            long write = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (UUID uuid : documents.keySet()) {
+                backend.loadPlayer(uuid);
+            }
+            long read = System.nanoTime() - start;
+
+            return String.format("%s: %d players, batch write %.1fms, reads %.1fms (%.3fms/player)",
+                backend.getName(), documents.size(), write / 1e6, read / 1e6, read / 1e6 / documents.size());
+        } finally {
+            backend.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
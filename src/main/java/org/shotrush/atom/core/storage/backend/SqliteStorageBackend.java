@@ -0,0 +1,203 @@
+package org.shotrush.atom.core.storage.backend;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+
+public class SqliteStorageBackend implements StorageBackend {
+
+    private static final String SERVER_KEY = "server";
+    private static final String UPSERT_PLAYER_SQL =
+        "INSERT OR REPLACE INTO player_data (uuid, data, updated_at) VALUES (?, ?, ?)";
+    private static final String UPSERT_SERVER_SQL =
+        "INSERT OR REPLACE INTO server_data (id, data, updated_at) VALUES (?, ?, ?)";
+
+    private final Logger logger;
+    private final HikariDataSource dataSource;
+
+    public SqliteStorageBackend(File databaseFile, Logger logger) {
+        this.logger = logger;
+
+        databaseFile.getParentFile().mkdirs();
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("Atom-Storage");
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        config.setMaximumPoolSize(4);
+        config.addDataSourceProperty("journal_mode", "WAL");
+        config.addDataSourceProperty("busy_timeout", "5000");
+        this.dataSource = new HikariDataSource(config);
+
+        createTables();
+    }
+
+    private void createTables() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS player_data (" +
+                "uuid TEXT PRIMARY KEY, " +
+                "data TEXT NOT NULL, " +
+                "updated_at INTEGER NOT NULL)");
+            statement.execute("CREATE TABLE IF NOT EXISTS server_data (" +
+                "id TEXT PRIMARY KEY, " +
+                "data TEXT NOT NULL, " +
+                "updated_at INTEGER NOT NULL)");
+        } catch (SQLException e) {
+            logger.severe("Could not create storage tables!");
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "sqlite";
+    }
+
+    @Override
+    public String loadPlayer(UUID uuid) {
+        return querySingle("SELECT data FROM player_data WHERE uuid = ?", uuid.toString());
+    }
+
+    @Override
+    public boolean savePlayers(Map<UUID, String> documents) {
+        if (documents.isEmpty()) return true;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement upsert = connection.prepareStatement(UPSERT_PLAYER_SQL)) {
+            connection.setAutoCommit(false);
+            long now = System.currentTimeMillis();
+            for (Map.Entry<UUID, String> entry : documents.entrySet()) {
+                upsert.setString(1, entry.getKey().toString());
+                upsert.setString(2, entry.getValue());
+                upsert.setLong(3, now);
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            logger.warning("Failed to save " + documents.size() + " player document(s): " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean hasPlayer(UUID uuid) {
+        return querySingle("SELECT 1 FROM player_data WHERE uuid = ?", uuid.toString()) != null;
+    }
+
+    @Override
+    public void deletePlayer(UUID uuid) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM player_data WHERE uuid = ?")) {
+            delete.setString(1, uuid.toString());
+            delete.executeUpdate();
+        } catch (SQLException e) {
+            logger.warning("Failed to delete player data for " + uuid + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String loadServer() {
+        return querySingle("SELECT data FROM server_data WHERE id = ?", SERVER_KEY);
+    }
+
+    @Override
+    public boolean saveServer(String document) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement upsert = connection.prepareStatement(UPSERT_SERVER_SQL)) {
+            upsert.setString(1, SERVER_KEY);
+            upsert.setString(2, document);
+            upsert.setLong(3, System.currentTimeMillis());
+            upsert.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            logger.warning("Failed to save server data: " + e.getMessage());
+            return false;
+        }
+    }
+
+
+    public int importYaml(File dataFolder) {
+        File playerDataFolder = new File(dataFolder, "playerdata");
+        File serverDataFile = new File(dataFolder, "serverdata.yml");
+        int imported = 0;
+
+        File[] files = playerDataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files != null && files.length > 0) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement insert = connection.prepareStatement(
+                     "INSERT OR IGNORE INTO player_data (uuid, data, updated_at) VALUES (?, ?, ?)")) {
+                connection.setAutoCommit(false);
+                for (File file : files) {
+                    String name = file.getName().substring(0, file.getName().length() - 4);
+                    try {
+                        UUID uuid = UUID.fromString(name);
+                        insert.setString(1, uuid.toString());
+                        insert.setString(2, Files.readString(file.toPath(), StandardCharsets.UTF_8));
+                        insert.setLong(3, file.lastModified());
+                        insert.addBatch();
+                        imported++;
+                    } catch (IllegalArgumentException | IOException e) {
+                        logger.warning("Skipping player data file " + file.getName() + ": " + e.getMessage());
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                logger.severe("Failed to import YAML player data, leaving files in place!");
+                e.printStackTrace();
+                return 0;
+            }
+
+            File importedFolder = new File(dataFolder, "playerdata.imported");
+            if (!playerDataFolder.renameTo(importedFolder)) {
+                logger.warning("Could not rename playerdata folder after import");
+            }
+        }
+
+        if (serverDataFile.exists() && loadServer() == null) {
+            try {
+                if (saveServer(Files.readString(serverDataFile.toPath(), StandardCharsets.UTF_8))) {
+                    serverDataFile.renameTo(new File(dataFolder, "serverdata.yml.imported"));
+                    imported++;
+                }
+            } catch (IOException e) {
+                logger.warning("Failed to import serverdata.yml: " + e.getMessage());
+            }
+        }
+
+        return imported;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    private String querySingle(String sql, String key) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement(sql)) {
+            select.setString(1, key);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            logger.warning("Storage query failed: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.shotrush.atom.core.storage.backend;
+
+import java.util.Map;
+import java.util.UUID;
+
+
+public interface StorageBackend {
+
+    String getName();
+
+    String loadPlayer(UUID uuid);
+
+    boolean savePlayers(Map<UUID, String> documents);
+
+    boolean hasPlayer(UUID uuid);
+
+    void deletePlayer(UUID uuid);
+
+    String loadServer();
+
+    boolean saveServer(String document);
+
+    void close();
+}
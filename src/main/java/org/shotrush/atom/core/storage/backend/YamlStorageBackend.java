@@ -0,0 +1,102 @@
+package org.shotrush.atom.core.storage.backend;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+
+public class YamlStorageBackend implements StorageBackend {
+
+    private final Logger logger;
+    private final File playerDataFolder;
+    private final File serverDataFile;
+
+    public YamlStorageBackend(File dataFolder, Logger logger) {
+        this.logger = logger;
+        this.playerDataFolder = new File(dataFolder, "playerdata");
+        this.serverDataFile = new File(dataFolder, "serverdata.yml");
+
+        if (!playerDataFolder.exists()) {
+            playerDataFolder.mkdirs();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "yaml";
+    }
+
+    @Override
+    public String loadPlayer(UUID uuid) {
+        return read(getPlayerFile(uuid));
+    }
+
+    @Override
+    public boolean savePlayers(Map<UUID, String> documents) {
+        boolean success = true;
+        for (Map.Entry<UUID, String> entry : documents.entrySet()) {
+            success &= write(getPlayerFile(entry.getKey()), entry.getValue());
+        }
+        return success;
+    }
+
+    @Override
+    public boolean hasPlayer(UUID uuid) {
+        return getPlayerFile(uuid).exists();
+    }
+
+    @Override
+    public void deletePlayer(UUID uuid) {
+        File playerFile = getPlayerFile(uuid);
+        if (playerFile.exists()) {
+            playerFile.delete();
+        }
+    }
+
+    @Override
+    public String loadServer() {
+        return read(serverDataFile);
+    }
+
+    @Override
+    public boolean saveServer(String document) {
+        return write(serverDataFile, document);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private File getPlayerFile(UUID uuid) {
+        return new File(playerDataFolder, uuid.toString() + ".yml");
+    }
+
+    private String read(File file) {
+        if (!file.exists()) return null;
+        try {
+            return Files.readString(file.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warning("Failed to read " + file.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean write(File file, String contents) {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+        try {
+            Files.writeString(temp, contents, StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            logger.warning("Failed to save " + file.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
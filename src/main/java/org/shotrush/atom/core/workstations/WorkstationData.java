@@ -1,17 +1,18 @@
 package org.shotrush.atom.core.workstations;
 
 import lombok.Getter;
-import lombok.Setter;
+import net.momirealms.craftengine.core.world.BlockPos;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.ItemDisplay;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.util.io.BukkitObjectInputStream;
-import org.bukkit.util.io.BukkitObjectOutputStream;
 import org.joml.Vector3f;
+import org.shotrush.atom.content.workstation.core.PlacedItem;
+import org.shotrush.atom.content.workstation.core.WorkstationDataManager;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Base64;
@@ -27,8 +28,7 @@ public class WorkstationData {
     private final Location blockLocation;
     @Getter
     private final String workstationType;
-    @Getter
-    private final List<PlacedItem> placedItems = new ArrayList<>();
+    private final WorkstationDataManager.WorkstationData entry;
     
     public static void registerHandler(String type, org.shotrush.atom.core.workstations.WorkstationHandler<?> handler) {
         handlers.put(type, handler);
@@ -38,32 +38,41 @@ public class WorkstationData {
         return handlers.get(type);
     }
     
-    public WorkstationData(Location blockLocation, String workstationType) {
+    public WorkstationData(Location blockLocation, WorkstationDataManager.WorkstationData entry) {
         this.blockLocation = blockLocation;
-        this.workstationType = workstationType;
+        this.workstationType = entry.getType();
+        this.entry = entry;
+    }
+    
+    public List<PlacedItem> getPlacedItems() {
+        return entry.getPlacedItems();
     }
     
     public boolean placeItem(ItemStack item, Vector3f position, float yaw) {
         ItemStack singleItem = item.clone();
         singleItem.setAmount(1);
-        PlacedItem placedItem = new PlacedItem(singleItem, position, yaw);
-        placedItems.add(placedItem);
+        PlacedItem placedItem = new PlacedItem(singleItem, position, yaw, null);
+        entry.getPlacedItems().add(placedItem);
+        entry.markDirty();
         spawnItemDisplay(placedItem);
         return true;
     }
     
     public ItemStack removeLastItem() {
+        List<PlacedItem> placedItems = entry.getPlacedItems();
         if (placedItems.isEmpty()) return null;
         PlacedItem item = placedItems.remove(placedItems.size() - 1);
+        entry.markDirty();
         removeItemDisplay(item);
         return item.getItem();
     }
     
     public void clearAllItems() {
-        for (PlacedItem item : new ArrayList<>(placedItems)) {
+        for (PlacedItem item : new ArrayList<>(entry.getPlacedItems())) {
             removeItemDisplay(item);
         }
-        placedItems.clear();
+        entry.getPlacedItems().clear();
+        entry.markDirty();
     }
     
     private void spawnItemDisplay(PlacedItem item) {
@@ -105,6 +114,7 @@ public class WorkstationData {
             display.setShadowRadius(0.0f);
             display.setShadowStrength(0.0f);
             
+            // The display id is only a runtime handle; displays are matched by position on respawn.
             item.setDisplayUUID(display.getUniqueId());
             org.shotrush.atom.content.systems.ItemHeatSystem.startItemDisplayHeatTracking(display);
         });
@@ -127,6 +137,7 @@ public class WorkstationData {
                 if (nearby instanceof ItemDisplay display) {
                     String displayId = org.shotrush.atom.core.data.PersistentData.getString(display, "workstation_id", "");
                     if (locationKey.equals(displayId)) {
+                        org.shotrush.atom.content.systems.ItemHeatSystem.stopItemDisplayHeatTracking(nearby.getUniqueId());
                         nearby.remove();
                         return; 
                     }
@@ -148,50 +159,67 @@ public class WorkstationData {
             if (entity instanceof ItemDisplay display) {
                 String displayId = org.shotrush.atom.core.data.PersistentData.getString(display, "workstation_id", "");
                 if (locationKey.equals(displayId)) {
+                    org.shotrush.atom.content.systems.ItemHeatSystem.stopItemDisplayHeatTracking(entity.getUniqueId());
                     entity.remove();
                 }
             }
         }
     }
     
+    /**
+     * Reattaches to the item displays still in the world and only spawns the ones that are missing.
+     * Tagged displays that no placed item accounts for are removed.
+     */
     public void respawnAllDisplays() {
         if (blockLocation.getWorld() == null) return;
         
+        String locationKey = "Workstation_" + workstationType + "_" + 
+            blockLocation.getBlockX() + "_" + blockLocation.getBlockY() + "_" + blockLocation.getBlockZ();
         
-        removeAllDisplays();
-        
-        
-        for (PlacedItem item : placedItems) {
-            spawnItemDisplay(item);
+        Location center = blockLocation.clone().add(0.5, 0.5, 0.5);
+        List<ItemDisplay> existing = new ArrayList<>();
+        for (Entity entity : center.getWorld().getNearbyEntities(center, 2, 2, 2)) {
+            if (entity instanceof ItemDisplay display
+                && locationKey.equals(org.shotrush.atom.core.data.PersistentData.getString(display, "workstation_id", ""))) {
+                existing.add(display);
+            }
         }
-    }
-    
-    public String serialize() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(workstationType).append(";");
-        sb.append(placedItems.size());
-        
-        for (PlacedItem item : placedItems) {
-            try {
-                String base64 = itemToBase64(item.getItem());
-                sb.append(";").append(base64)
-                    .append(",").append(item.getPosition().x)
-                    .append(",").append(item.getPosition().y)
-                    .append(",").append(item.getPosition().z)
-                    .append(",").append(item.getYaw());
-            } catch (IOException e) {
-                e.printStackTrace();
+        
+        for (PlacedItem item : entry.getPlacedItems()) {
+            Vector3f pos = item.getPosition();
+            Location expected = center.clone().add(pos.x, pos.y, pos.z);
+            ItemDisplay match = null;
+            for (ItemDisplay display : existing) {
+                if (display.getLocation().distanceSquared(expected) < 0.01) {
+                    match = display;
+                    break;
+                }
+            }
+            
+            if (match == null) {
+                spawnItemDisplay(item);
+                continue;
             }
+            existing.remove(match);
+            item.setDisplayUUID(match.getUniqueId());
+            org.shotrush.atom.content.systems.ItemHeatSystem.startItemDisplayHeatTracking(match);
+        }
+        
+        for (ItemDisplay leftover : existing) {
+            org.shotrush.atom.content.systems.ItemHeatSystem.stopItemDisplayHeatTracking(leftover.getUniqueId());
+            leftover.remove();
         }
-        return sb.toString();
     }
     
-    public static WorkstationData deserialize(Location location, String data) {
+    public static WorkstationData deserialize(World world, BlockPos pos, String data) {
         String[] parts = data.split(";");
         if (parts.length < 2) return null;
         
         String type = parts[0];
-        WorkstationData workstation = new WorkstationData(location, type);
+        WorkstationDataManager.WorkstationData entry = WorkstationDataManager.getWorkstationData(world, pos, type);
+        if (!entry.getPlacedItems().isEmpty()) {
+            return new WorkstationData(entry.getLocation(), entry);
+        }
         
         try {
             int itemCount = Integer.parseInt(parts[1]);
@@ -208,21 +236,14 @@ public class WorkstationData {
                 
                 ItemStack item = itemFromBase64(base64);
                 Vector3f position = new Vector3f(x, y, z);
-                workstation.placedItems.add(new PlacedItem(item, position, yaw));
+                entry.getPlacedItems().add(new PlacedItem(item, position, yaw, null));
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
+        entry.markDirty();
         
-        return workstation;
-    }
-    
-    private static String itemToBase64(ItemStack item) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        BukkitObjectOutputStream dataOutput = new BukkitObjectOutputStream(outputStream);
-        dataOutput.writeObject(item);
-        dataOutput.close();
-        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+        return new WorkstationData(entry.getLocation(), entry);
     }
     
     private static ItemStack itemFromBase64(String base64) throws IOException, ClassNotFoundException {
@@ -232,21 +253,4 @@ public class WorkstationData {
         dataInput.close();
         return item;
     }
-    
-    public static class PlacedItem {
-        @Getter
-        private final ItemStack item;
-        @Getter
-        private final Vector3f position;
-        @Getter
-        private final float yaw;
-        @Setter @Getter
-        private java.util.UUID displayUUID;
-        
-        public PlacedItem(ItemStack item, Vector3f position, float yaw) {
-            this.item = item;
-            this.position = position;
-            this.yaw = yaw;
-        }
-    }
 }
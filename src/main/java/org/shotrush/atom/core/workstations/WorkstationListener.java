@@ -69,7 +69,7 @@ public class WorkstationListener implements Listener {
             event.getPlayer().sendMessage("§eBlock break - data: " + (data != null ? "found" : "null") + ", items: " + (data != null ? data.getPlacedItems().size() : 0));
             if (data != null) {
                 
-                for (WorkstationData.PlacedItem item : data.getPlacedItems()) {
+                for (org.shotrush.atom.content.workstation.core.PlacedItem item : data.getPlacedItems()) {
                     block.getWorld().dropItemNaturally(block.getLocation(), item.getItem());
                     event.getPlayer().sendMessage("§eDropped: " + item.getItem().getType());
                 }
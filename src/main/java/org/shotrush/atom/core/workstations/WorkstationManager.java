@@ -3,14 +3,16 @@ package org.shotrush.atom.core.workstations;
 import lombok.Getter;
 import net.momirealms.craftengine.bukkit.api.CraftEngineBlocks;
 import net.momirealms.craftengine.core.util.Key;
+import net.momirealms.craftengine.core.world.BlockPos;
 import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.plugin.Plugin;
+import org.shotrush.atom.content.workstation.core.WorkstationDataManager;
 import org.shotrush.atom.core.api.annotation.RegisterSystem;
 
 import java.io.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 
@@ -21,155 +23,104 @@ import java.util.Objects;
     description = "Manages item placement data on CraftEngine workstation blocks"
 )
 public class WorkstationManager {
-    
+
     @Getter
     public static WorkstationManager instance;
-    private final Map<Location, WorkstationData> workstations = new HashMap<>();
     private final Plugin plugin;
-    
+
     public WorkstationManager(Plugin plugin) {
         this.plugin = plugin;
         instance = this;
-        loadWorkstations();
+        WorkstationDataManager.onEntriesLoaded(this::respawnDisplays);
+        migrateLegacyFile();
     }
 
-    private Location toBlockLocation(Block block) {
-        return new Location(
-            block.getWorld(),
-            block.getX(),
-            block.getY(),
-            block.getZ()
-        );
-    }
-    
     public WorkstationData getOrCreate(Block block, String workstationType) {
-        Location loc = toBlockLocation(block);
-        return workstations.computeIfAbsent(loc, k -> new WorkstationData(k, workstationType));
+        return new WorkstationData(block.getLocation(), WorkstationDataManager.getWorkstationData(block, workstationType));
     }
-    
+
     public WorkstationData get(Block block) {
-        Location lookupLoc = toBlockLocation(block);
-        WorkstationData result = workstations.get(lookupLoc);
-
-        if (result == null && !workstations.isEmpty()) {
-            plugin.getLogger().info("DEBUG: Looking up " + lookupLoc.getBlockX() + "," + lookupLoc.getBlockY() + "," + lookupLoc.getBlockZ());
-            plugin.getLogger().info("DEBUG: Map has " + workstations.size() + " entries:");
-            for (Location loc : workstations.keySet()) {
-                plugin.getLogger().info("  - " + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ() + 
-                    " (equals: " + loc.equals(lookupLoc) + ")");
-            }
-        }
-        
-        return result;
+        WorkstationDataManager.WorkstationData entry = WorkstationDataManager.findWorkstationData(block);
+        return entry != null ? new WorkstationData(block.getLocation(), entry) : null;
     }
-    
+
     public WorkstationData get(Location location) {
-        return workstations.get(location);
+        return get(location.getBlock());
     }
-    
+
     public int getWorkstationCount() {
-        return workstations.size();
+        return WorkstationDataManager.getLoadedCount();
     }
-    
+
     public void remove(Block block) {
-        WorkstationData data = workstations.remove(toBlockLocation(block));
+        WorkstationData data = get(block);
         if (data != null) {
             data.clearAllItems();
+            WorkstationDataManager.removeWorkstationData(block);
         }
     }
-    
+
     public boolean isWorkstationBlock(Block block, String workstationType) {
         Key key = Key.of("atom:" + workstationType);
         return CraftEngineBlocks.getCustomBlockState(block) != null &&
                Objects.requireNonNull(CraftEngineBlocks.getCustomBlockState(block)).owner().matchesKey(key);
     }
-    
-    public void saveWorkstations() {
-        File file = new File(plugin.getDataFolder(), "workstations.dat");
-        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
-            out.writeInt(workstations.size());
-            
-            for (Map.Entry<Location, WorkstationData> entry : workstations.entrySet()) {
-                Location loc = entry.getKey();
-                WorkstationData data = entry.getValue();
-                
-                plugin.getLogger().info("Saving workstation at " + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ() + 
-                    " with " + data.getPlacedItems().size() + " items");
-                
-                
-                out.writeUTF(loc.getWorld().getName());
-                out.writeInt(loc.getBlockX());
-                out.writeInt(loc.getBlockY());
-                out.writeInt(loc.getBlockZ());
-                
-                
-                String serialized = data.serialize();
-                plugin.getLogger().info("Serialized data: " + serialized);
-                out.writeUTF(serialized);
-            }
-            
-            plugin.getLogger().info("Saved " + workstations.size() + " workstation(s)");
-        } catch (IOException e) {
-            plugin.getLogger().severe("Failed to save workstations: " + e.getMessage());
-            e.printStackTrace();
+
+    private void respawnDisplays(List<WorkstationDataManager.WorkstationData> entries) {
+        for (WorkstationDataManager.WorkstationData entry : entries) {
+            Location location = entry.getLocation();
+            if (location == null || entry.getPlacedItems().isEmpty()) continue;
+
+            // Wait for the chunk's entities so existing displays are reattached instead of duplicated.
+            WorkstationData data = new WorkstationData(location, entry);
+            org.shotrush.atom.core.api.scheduler.SchedulerAPI.runTaskLater(location, data::respawnAllDisplays, 40L);
         }
     }
-    
-    private void loadWorkstations() {
+
+    private void migrateLegacyFile() {
         File file = new File(plugin.getDataFolder(), "workstations.dat");
-        if (!file.exists()) {
-            plugin.getLogger().info("No workstations data file found");
-            return;
-        }
-        
+        if (!file.exists()) return;
+
+        List<WorkstationData> migrated = new ArrayList<>();
         try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
             int count = in.readInt();
-            plugin.getLogger().info("Loading " + count + " workstation(s)");
-            
+            plugin.getLogger().info("Migrating " + count + " workstation(s) from workstations.dat");
+
             for (int i = 0; i < count; i++) {
-                
+
                 String worldName = in.readUTF();
                 int x = in.readInt();
                 int y = in.readInt();
                 int z = in.readInt();
-                
+                String data = in.readUTF();
+
                 org.bukkit.World world = plugin.getServer().getWorld(worldName);
                 if (world == null) {
                     plugin.getLogger().warning("World " + worldName + " not found, skipping workstation");
                     continue;
                 }
-                
-                Location loc = new Location(world, x, y, z);
-                
-                
-                String data = in.readUTF();
-                plugin.getLogger().info("Loading workstation at " + x + "," + y + "," + z + " - data: " + data);
-                WorkstationData workstation = WorkstationData.deserialize(loc, data);
-                
+
+                WorkstationData workstation = WorkstationData.deserialize(world, new BlockPos(x, y, z), data);
                 if (workstation != null) {
-                    plugin.getLogger().info("Deserialized workstation with " + workstation.getPlacedItems().size() + " items");
-                    workstations.put(loc, workstation);
+                    migrated.add(workstation);
                 } else {
                     plugin.getLogger().warning("Failed to deserialize workstation data");
                 }
             }
-            
-            plugin.getLogger().info("Loaded " + workstations.size() + " workstation(s)");
-            
-            
-            for (WorkstationData data : workstations.values()) {
-                org.shotrush.atom.core.api.scheduler.SchedulerAPI.runTaskLater(data.getBlockLocation(), () -> {
-                    data.respawnAllDisplays();
-                    plugin.getLogger().info("Respawned displays for workstation at " + 
-                        data.getBlockLocation().getBlockX() + "," + 
-                        data.getBlockLocation().getBlockY() + "," + 
-                        data.getBlockLocation().getBlockZ());
-                }, 40L);
-            }
-            
         } catch (IOException e) {
-            plugin.getLogger().severe("Failed to load workstations: " + e.getMessage());
+            plugin.getLogger().severe("Failed to migrate workstations.dat, leaving it in place: " + e.getMessage());
             e.printStackTrace();
+            return;
+        }
+
+        if (!file.renameTo(new File(plugin.getDataFolder(), "workstations.dat.migrated"))) {
+            plugin.getLogger().warning("Could not rename workstations.dat after migration");
+        }
+        plugin.getLogger().info("Migrated " + migrated.size() + " workstation(s) into the workstation registry");
+
+
+        for (WorkstationData data : migrated) {
+            org.shotrush.atom.core.api.scheduler.SchedulerAPI.runTaskLater(data.getBlockLocation(), data::respawnAllDisplays, 40L);
         }
     }
 }
@@ -7,6 +7,8 @@ import dev.jorel.commandapi.CommandAPIPaperConfig
 import org.bukkit.Bukkit
 import org.bukkit.Material
 import org.shotrush.atom.commands.Commands
+import org.shotrush.atom.content.base.display.DisplayLod
+import org.shotrush.atom.content.mobs.AnimalBehaviorNew
 import org.shotrush.atom.content.mobs.ai.debug.MobAIDebugCommand
 import org.shotrush.atom.content.mobs.ai.debug.VisualDebugger
 import org.shotrush.atom.content.mobs.commands.HerdCommand
@@ -15,13 +17,13 @@ import org.shotrush.atom.content.systems.ItemHeatSystem
 import org.shotrush.atom.content.systems.PlayerTemperatureSystem
 import org.shotrush.atom.content.systems.ThirstSystem
 import org.shotrush.atom.content.workstation.Workstations
+import org.shotrush.atom.content.workstation.core.WorkstationDataManager
 import org.shotrush.atom.core.age.AgeManager
 import org.shotrush.atom.core.api.AtomAPI
 import org.shotrush.atom.core.api.player.PlayerDataAPI
 import org.shotrush.atom.core.blocks.CustomBlockManager
 import org.shotrush.atom.core.items.CustomItemRegistry
 import org.shotrush.atom.core.storage.DataStorage
-import org.shotrush.atom.core.workstations.WorkstationManager
 import org.shotrush.atom.listener.PlayerDataTrackingListener
 import org.shotrush.atom.listener.PlayerMiningListener
 import org.shotrush.atom.listener.RecipeUnlockHandler
@@ -49,7 +51,7 @@ class Atom : SuspendingJavaPlugin() {
         super.onEnable()
         CommandAPI.onEnable()
         instance = this
-
+        saveDefaultConfig()
 
         AtomAPI.initialize(this)
 
@@ -65,6 +67,7 @@ class Atom : SuspendingJavaPlugin() {
         AtomAPI.registerBlocks()
         AtomAPI.registerSystems()
 
+        DisplayLod.load(config)
         Workstations.init()
         org.shotrush.atom.content.carcass.CarcassConfigs.load()
         org.shotrush.atom.content.carcass.CarcassBlock.init()
@@ -104,9 +107,8 @@ class Atom : SuspendingJavaPlugin() {
         saveAllPlayerData()
 
 
-        if (WorkstationManager.instance != null) {
-            WorkstationManager.instance.saveWorkstations()
-        }
+        WorkstationDataManager.shutdown()
+        AnimalBehaviorNew.shutdown()
 
 
         AtomAPI.shutdown()
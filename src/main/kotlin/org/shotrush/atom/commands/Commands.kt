@@ -1,11 +1,19 @@
 package org.shotrush.atom.commands
 
 import co.aikar.commands.PaperCommandManager
+import org.shotrush.atom.commands.debug.BlockDebugCommand
+import org.shotrush.atom.commands.debug.CogDebugCommand
+import org.shotrush.atom.commands.debug.DisplayDebugCommand
+import org.shotrush.atom.commands.debug.StorageDebugCommand
 import org.shotrush.atom.commands.debug.TemperatureDebugCommand
 
 object Commands {
     fun register(manager: PaperCommandManager) {
         manager.registerCommand(TemperatureDebugCommand())
+        manager.registerCommand(StorageDebugCommand())
+        manager.registerCommand(DisplayDebugCommand())
+        manager.registerCommand(CogDebugCommand())
+        manager.registerCommand(BlockDebugCommand())
 //        LivingCommands.register()
 //        MoldCommand.register()
     }
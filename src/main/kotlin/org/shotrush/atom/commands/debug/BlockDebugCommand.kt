@@ -0,0 +1,35 @@
+package org.shotrush.atom.commands.debug
+
+import co.aikar.commands.BaseCommand
+import co.aikar.commands.annotation.*
+import org.bukkit.Bukkit
+import org.bukkit.command.CommandSender
+import org.bukkit.entity.Player
+import org.shotrush.atom.Atom
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI
+import org.shotrush.atom.core.blocks.CustomBlockIndexBenchmark
+import org.shotrush.atom.core.util.ChatUtil
+
+@CommandAlias("blockdebug")
+@CommandPermission("atom.debug.blocks")
+@Description("Show custom block metrics")
+class BlockDebugCommand : BaseCommand() {
+
+    @Default
+    fun onDebug(sender: CommandSender) {
+        val manager = Atom.instance.blockManager ?: return
+
+        sender.sendMessage(ChatUtil.color("<gold>--- Block Debug ---"))
+        sender.sendMessage(ChatUtil.color("<gray>Loaded Blocks: <white>" + manager.blockCount))
+    }
+
+    @Subcommand("bench")
+    fun onBench(sender: CommandSender, @Default("10000") blocks: Int) {
+        val world = (sender as? Player)?.world ?: Bukkit.getWorlds().first()
+        sender.sendMessage(ChatUtil.color("<gray>Benchmarking block lookups with <white>$blocks<gray> blocks..."))
+        SchedulerAPI.runAsync {
+            val results = CustomBlockIndexBenchmark.run(world, blocks)
+            results.forEach { sender.sendMessage(ChatUtil.color("<white>$it")) }
+        }
+    }
+}
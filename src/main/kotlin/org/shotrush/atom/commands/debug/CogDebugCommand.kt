@@ -0,0 +1,36 @@
+package org.shotrush.atom.commands.debug
+
+import co.aikar.commands.BaseCommand
+import co.aikar.commands.annotation.*
+import org.bukkit.Bukkit
+import org.bukkit.command.CommandSender
+import org.bukkit.entity.Player
+import org.shotrush.atom.Atom
+import org.shotrush.atom.content.blocks.cog.CogNetworkBenchmark
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI
+import org.shotrush.atom.core.util.ChatUtil
+
+@CommandAlias("cogdebug")
+@CommandPermission("atom.debug.cog")
+@Description("Show cog power network metrics")
+class CogDebugCommand : BaseCommand() {
+
+    @Default
+    fun onDebug(sender: CommandSender) {
+        val network = Atom.instance.blockManager?.cogManager?.network ?: return
+
+        sender.sendMessage(ChatUtil.color("<gold>--- Cog Debug ---"))
+        sender.sendMessage(ChatUtil.color("<gray>Cogs: <white>" + network.cogCount))
+        sender.sendMessage(ChatUtil.color("<gray>Components: <white>" + network.componentCount))
+    }
+
+    @Subcommand("bench")
+    fun onBench(sender: CommandSender, @Default("10000") cogs: Int) {
+        val world = (sender as? Player)?.world ?: Bukkit.getWorlds().first()
+        sender.sendMessage(ChatUtil.color("<gray>Benchmarking cog power network with <white>$cogs<gray> cogs..."))
+        SchedulerAPI.runAsync {
+            val results = CogNetworkBenchmark.run(world, cogs)
+            results.forEach { sender.sendMessage(ChatUtil.color("<white>$it")) }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.shotrush.atom.commands.debug
+
+import co.aikar.commands.BaseCommand
+import co.aikar.commands.annotation.*
+import org.bukkit.command.CommandSender
+import org.shotrush.atom.content.base.display.TickWheel
+import org.shotrush.atom.content.base.display.TickWheelBenchmark
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI
+import org.shotrush.atom.core.util.ChatUtil
+
+@CommandAlias("displaydebug")
+@CommandPermission("atom.debug.display")
+@Description("Show display element tick scheduling metrics")
+class DisplayDebugCommand : BaseCommand() {
+
+    @Default
+    fun onDebug(sender: CommandSender) {
+        val wheel = TickWheel.displays
+
+        sender.sendMessage(ChatUtil.color("<gold>--- Display Debug ---"))
+        sender.sendMessage(ChatUtil.color("<gray>Ticking Entries: <white>" + wheel.activeCount))
+        sender.sendMessage(ChatUtil.color("<gray>Last Tick: <white>" + String.format("%.3fms", wheel.lastAdvanceNanos / 1_000_000.0)))
+    }
+
+    @Subcommand("bench")
+    fun onBench(sender: CommandSender, @Default("50") elements: Int, @Default("80") maxViewers: Int) {
+        val viewerCounts = generateSequence(10) { it * 2 }.takeWhile { it <= maxViewers.coerceAtLeast(10) }.toList()
+        sender.sendMessage(ChatUtil.color("<gray>Benchmarking display tick scheduling with <white>$elements<gray> elements..."))
+        SchedulerAPI.runAsync {
+            val results = TickWheelBenchmark.run(elements, viewerCounts)
+            results.forEach { sender.sendMessage(ChatUtil.color("<white>$it")) }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.shotrush.atom.commands.debug
+
+import co.aikar.commands.BaseCommand
+import co.aikar.commands.annotation.*
+import org.bukkit.command.CommandSender
+import org.shotrush.atom.Atom
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI
+import org.shotrush.atom.core.storage.StorageBenchmark
+import org.shotrush.atom.core.util.ChatUtil
+
+@CommandAlias("storagedebug")
+@CommandPermission("atom.debug.storage")
+@Description("Show data storage cache and flush metrics")
+class StorageDebugCommand : BaseCommand() {
+
+    @Default
+    fun onDebug(sender: CommandSender) {
+        val storage = Atom.instance.dataStorage ?: return
+
+        sender.sendMessage(ChatUtil.color("<gold>--- Storage Debug ---"))
+        sender.sendMessage(ChatUtil.color("<gray>Hit Rate: <white>" + String.format("%.1f%%", storage.hitRate * 100)))
+        sender.sendMessage(ChatUtil.color("<gray>Pending Writes: <white>" + storage.pendingWrites))
+        sender.sendMessage(ChatUtil.color("<gray>Avg Flush: <white>" + String.format("%.2fms", storage.averageFlushMillis)))
+        sender.sendMessage(ChatUtil.color("<gray>Last Flush: <white>" + String.format("%.2fms", storage.lastFlushMillis)))
+    }
+
+    @Subcommand("flush")
+    fun onFlush(sender: CommandSender) {
+        val storage = Atom.instance.dataStorage ?: return
+        SchedulerAPI.runAsync {
+            storage.flush()
+            sender.sendMessage(ChatUtil.color("<green>" + storage.describeMetrics()))
+        }
+    }
+
+    @Subcommand("bench")
+    fun onBench(sender: CommandSender, @Default("1000") players: Int) {
+        sender.sendMessage(ChatUtil.color("<gray>Benchmarking storage backends with <white>$players<gray> players..."))
+        SchedulerAPI.runAsync {
+            val results = StorageBenchmark.run(Atom.instance.dataFolder, Atom.instance.logger, players)
+            results.forEach { sender.sendMessage(ChatUtil.color("<white>$it")) }
+        }
+    }
+}
@@ -3,7 +3,10 @@ package org.shotrush.atom.commands.debug
 import co.aikar.commands.BaseCommand
 import co.aikar.commands.annotation.*
 import org.bukkit.entity.Player
+import org.shotrush.atom.core.api.world.AmbientTemperatureGrid
 import org.shotrush.atom.core.api.world.EnvironmentalFactorAPI
+import org.shotrush.atom.core.api.world.HeatSourceBenchmark
+import org.shotrush.atom.core.api.world.HeatSourceCache
 import org.shotrush.atom.core.api.world.SeasonAPI
 import org.shotrush.atom.core.util.ChatUtil
 
@@ -23,6 +26,7 @@ class TemperatureDebugCommand : BaseCommand() {
         val seasonMod = SeasonAPI.getCurrentSeason(world).tempModifier
         val heatSources = EnvironmentalFactorAPI.getNearbyHeatSources(player.location, 5)
         val finalAmbient = EnvironmentalFactorAPI.getAmbientTemperature(player)
+        val exactAmbient = EnvironmentalFactorAPI.computeAmbientTemperature(player.location)
         
         player.sendMessage(ChatUtil.color("<gold>--- Temperature Debug ---"))
         player.sendMessage(ChatUtil.color("<gray>Biome MC Temp: <white>" + String.format("%.2f", mcTemp)))
@@ -32,5 +36,16 @@ class TemperatureDebugCommand : BaseCommand() {
         player.sendMessage(ChatUtil.color("<gray>Season Mod: <white>" + String.format("%.1f", seasonMod) + " (" + SeasonAPI.getCurrentSeason(world).name + ")"))
         player.sendMessage(ChatUtil.color("<gray>Heat Sources: <white>" + String.format("%.1f", heatSources)))
         player.sendMessage(ChatUtil.color("<yellow>Final Ambient: <white>" + String.format("%.1f", finalAmbient)))
+        player.sendMessage(ChatUtil.color("<gray>Exact Ambient: <white>" + String.format("%.1f", exactAmbient) +
+            " (grid " + AmbientTemperatureGrid.getCellSize() + "³, " + AmbientTemperatureGrid.getCachedCellCount() + " cells)"))
+    }
+
+    @Subcommand("bench")
+    fun onBench(player: Player, @Default("5") radius: Int, @Default("1000") iterations: Int) {
+        player.sendMessage(ChatUtil.color("<gold>--- Heat Source Benchmark ---"))
+        HeatSourceBenchmark.run(player.location, radius, iterations).forEach {
+            player.sendMessage(ChatUtil.color("<gray>$it"))
+        }
+        player.sendMessage(ChatUtil.color("<gray>Cached sections: <white>" + HeatSourceCache.getCachedSectionCount()))
     }
 }
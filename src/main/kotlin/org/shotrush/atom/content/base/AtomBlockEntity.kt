@@ -43,6 +43,10 @@ abstract class AtomBlockEntity(
         val render = blockEntityRenderer ?: return
         val chunk = getChunk() ?: return
         val tracking = chunk.trackedBy
-        tracking.forEach(render::update)
+        if (render is AtomBlockEntityRenderer) {
+            render.update(tracking)
+        } else {
+            tracking.forEach(render::update)
+        }
     }
 }
\ No newline at end of file
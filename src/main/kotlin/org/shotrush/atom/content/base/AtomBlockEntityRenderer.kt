@@ -19,4 +19,8 @@ abstract class AtomBlockEntityRenderer(block: RendererSceneBuilder.() -> Unit) :
     override fun update(player: Player) {
         scene.update(player)
     }
+
+    fun update(players: Collection<Player>) {
+        scene.update(players)
+    }
 }
\ No newline at end of file
@@ -2,11 +2,24 @@ package org.shotrush.atom.content.base.display
 
 import net.momirealms.craftengine.core.entity.player.Player
 
+/**
+ * Element state is only touched on the display wheel's thread. The single-viewer calls below hand over
+ * to it and are sent with the wheel's next batch.
+ */
 interface DisplayElement {
     val id: String
-    fun show(player: Player)
-    fun update(player: Player)
-    fun hide(player: Player)
-    fun startTicking(player: Player, tm: TickManager)
-    fun stopTicking(player: Player, tm: TickManager)
-}
\ No newline at end of file
+    fun show(player: Player, batch: PacketBatch)
+    fun update(viewers: Collection<Player>, batch: PacketBatch)
+    fun hide(player: Player, batch: PacketBatch)
+
+    /** Ticks between updates for [player] at its current distance, or 0 if it only changes on scene updates. */
+    fun interval(player: Player): Int
+    fun tick(viewers: Collection<Player>, batch: PacketBatch, now: Long)
+
+    /** Drops all state kept for [player] without sending anything, once it can no longer be shown to. */
+    fun forget(player: Player) {}
+
+    fun show(player: Player) = TickWheel.displays.submit { show(player, it) }
+    fun update(player: Player) = TickWheel.displays.submit { update(listOf(player), it) }
+    fun hide(player: Player) = TickWheel.displays.submit { hide(player, it) }
+}
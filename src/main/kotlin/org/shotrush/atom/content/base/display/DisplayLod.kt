@@ -0,0 +1,65 @@
+package org.shotrush.atom.content.base.display
+
+import org.bukkit.configuration.ConfigurationSection
+
+/**
+ * Distance tiers for display elements. Within [fullRange] a viewer gets the element's own update rate,
+ * within [reducedRange] at most [reducedUps] updates per second, within [cullRange] a static snapshot
+ * that only changes on scene updates, and beyond that the element is despawned. A viewer only drops
+ * to a farther tier once it is [margin] blocks past the boundary. Each viewer's tier is re-checked at
+ * least every [refreshTicks] while its scene isn't ticking faster.
+ */
+data class DisplayLod(
+    val fullRange: Float,
+    val reducedRange: Float,
+    val cullRange: Float,
+    val reducedUps: Float,
+    val refreshTicks: Int,
+    val margin: Float,
+) {
+    enum class Tier { FULL, REDUCED, STATIC, CULLED }
+
+    private val fullSq = fullRange * fullRange
+    private val reducedSq = reducedRange * reducedRange
+    private val cullSq = cullRange * cullRange
+    private val fullOutSq = (fullRange + margin) * (fullRange + margin)
+    private val reducedOutSq = (reducedRange + margin) * (reducedRange + margin)
+    private val cullOutSq = (cullRange + margin) * (cullRange + margin)
+
+    fun tier(distanceSq: Float, current: Tier? = null): Tier {
+        val tier = tier(distanceSq, fullSq, reducedSq, cullSq)
+        if (current == null || tier <= current) return tier
+        return maxOf(current, tier(distanceSq, fullOutSq, reducedOutSq, cullOutSq))
+    }
+
+    private fun tier(distanceSq: Float, full: Float, reduced: Float, cull: Float): Tier = when {
+        distanceSq <= full -> Tier.FULL
+        distanceSq <= reduced -> Tier.REDUCED
+        distanceSq <= cull -> Tier.STATIC
+        else -> Tier.CULLED
+    }
+
+    companion object {
+        private val BUILT_IN = DisplayLod(24f, 64f, 96f, 5f, 20, 4f)
+
+        /** Used by every element that doesn't set its own; loaded from `displays.lod`. */
+        @Volatile
+        var default = BUILT_IN
+            private set
+
+        @JvmStatic
+        fun load(config: ConfigurationSection) {
+            val full = config.getDouble("displays.lod.full-range", BUILT_IN.fullRange.toDouble()).toFloat().coerceAtLeast(0f)
+            val reduced = config.getDouble("displays.lod.reduced-range", BUILT_IN.reducedRange.toDouble()).toFloat().coerceAtLeast(full)
+            val cull = config.getDouble("displays.lod.cull-range", BUILT_IN.cullRange.toDouble()).toFloat().coerceAtLeast(reduced)
+            default = DisplayLod(
+                full,
+                reduced,
+                cull,
+                config.getDouble("displays.lod.reduced-ups", BUILT_IN.reducedUps.toDouble()).toFloat().coerceAtLeast(0f),
+                config.getInt("displays.lod.refresh-ticks", BUILT_IN.refreshTicks).coerceAtLeast(1),
+                config.getDouble("displays.lod.margin", BUILT_IN.margin.toDouble()).toFloat().coerceAtLeast(0f)
+            )
+        }
+    }
+}
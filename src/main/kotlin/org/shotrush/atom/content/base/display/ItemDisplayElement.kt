@@ -1,11 +1,7 @@
 package org.shotrush.atom.content.base.display
 
-import com.github.shynixn.mccoroutine.folia.asyncDispatcher
-import com.github.shynixn.mccoroutine.folia.launch
-import com.github.shynixn.mccoroutine.folia.ticks
 import it.unimi.dsi.fastutil.ints.IntList
-import kotlinx.coroutines.delay
-import kotlinx.coroutines.isActive
+import net.momirealms.craftengine.bukkit.entity.data.EntityData
 import net.momirealms.craftengine.bukkit.entity.data.ItemDisplayEntityData
 import net.momirealms.craftengine.bukkit.nms.FastNMS
 import net.momirealms.craftengine.bukkit.plugin.reflection.minecraft.CoreReflections
@@ -17,9 +13,8 @@ import net.momirealms.craftengine.core.plugin.CraftEngine
 import org.bukkit.inventory.ItemStack
 import org.joml.Quaternionf
 import org.joml.Vector3f
-import org.shotrush.atom.Atom
 import java.util.*
-import java.util.concurrent.ConcurrentHashMap
+import kotlin.math.roundToInt
 
 class ItemDisplayElement(
     override val id: String,
@@ -36,12 +31,96 @@ class ItemDisplayElement(
     private val viewRange: Prop<Float>,
     private val updatesPerSecond: Prop<Float>,
     private val visible: Prop<Boolean>,
+    private val lod: DisplayLod? = null,
 ) : DisplayElement {
 
+    /**
+     * One data-watcher entry backed by a property. [copy] snapshots mutable values so that later
+     * in-place changes by a supplier still show up as a difference.
+     */
+    @Suppress("UNCHECKED_CAST")
+    private class Field<T, D>(
+        val prop: Prop<T>,
+        private val data: EntityData<D>,
+        private val encode: (T) -> D,
+        private val copy: (T) -> T = { it },
+    ) {
+        fun snapshot(value: Any?): Any? = copy(value as T)
+
+        fun addIfNotDefault(value: Any?, metas: MutableList<Any>) {
+            data.addEntityDataIfNotDefaultValue(encode(value as T), metas)
+        }
+
+        fun add(value: Any?, metas: MutableList<Any>) {
+            data.addEntityData(encode(value as T), metas)
+        }
+    }
+
     private val nms = FastNMS.INSTANCE
     private val entityId = CoreReflections.`instance$Entity$ENTITY_COUNTER`.incrementAndGet()
     private val uuid = UUID.randomUUID()
-    private val spawnedFor = Collections.newSetFromMap(ConcurrentHashMap<UUID, Boolean>())
+
+    private val fields: List<Field<*, *>> = listOf(
+        Field(displayedItem, ItemDisplayEntityData.DisplayedItem, {
+            CraftEngine.instance().itemManager<ItemStack>().wrap(it).literalObject
+        }, { it.clone() }),
+        Field(scale, ItemDisplayEntityData.Scale, { it }, { Vector3f(it) }),
+        Field(rotation, ItemDisplayEntityData.RotationLeft, { it }, { Quaternionf(it) }),
+        Field(translation, ItemDisplayEntityData.Translation, { it }, { Vector3f(it) }),
+        Field(billboard, ItemDisplayEntityData.BillboardConstraints, { it.id() }),
+        Field(displayContext, ItemDisplayEntityData.DisplayType, { it.id() }),
+        Field(shadowRadius, ItemDisplayEntityData.ShadowRadius, { it }),
+        Field(shadowStrength, ItemDisplayEntityData.ShadowStrength, { it }),
+        Field(viewRange, ItemDisplayEntityData.ViewRange, { it }),
+    ).filter { it.prop.isPresent() }
+    private val staticFields = fields.filter { !it.prop.isDynamic() }
+    private val dynamicFields = fields.filter { it.prop.isDynamic() }
+
+    // Static entries resolve the same for every viewer, so they are encoded on first spawn only.
+    private var staticMetas: List<Any>? = null
+
+    // Last dynamic values sent to each viewer the entity is spawned for, indexed like dynamicFields.
+    // Only the display wheel's thread reads or writes it, in the same order the batches are flushed.
+    private val lastSent = HashMap<UUID, Array<Any?>>()
+
+    // Each viewer's current distance tier and the wheel tick its next diff is due at.
+    private val tiers = HashMap<UUID, DisplayLod.Tier>()
+    private val due = HashMap<UUID, Long>()
+
+    private fun currentLod() = lod ?: DisplayLod.default
+
+    private fun tier(player: Player): DisplayLod.Tier {
+        val wp = worldPos(player)
+        val dx = wp.x + 0.5f - player.x().toFloat()
+        val dy = wp.y + 1.0f - player.y().toFloat()
+        val dz = wp.z + 0.5f - player.z().toFloat()
+        val tier = currentLod().tier(dx * dx + dy * dy + dz * dz, tiers[player.uuid()])
+        tiers[player.uuid()] = tier
+        return tier
+    }
+
+    override fun interval(player: Player): Int {
+        val tier = tiers[player.uuid()] ?: return 0
+        if (!ticks(tier)) return 0
+
+        var ups = updatesPerSecond.resolve(player)
+        if (tier == DisplayLod.Tier.REDUCED) ups = ups.coerceAtMost(currentLod().reducedUps)
+        if (ups <= 0f) return 0
+        return (20f / ups).roundToInt().coerceAtLeast(1)
+    }
+
+    private fun isDue(player: Player, now: Long): Boolean {
+        val interval = interval(player)
+        if (interval <= 0 || now < (due[player.uuid()] ?: 0L)) return false
+        due[player.uuid()] = now + interval
+        return true
+    }
+
+    private fun ticks(tier: DisplayLod.Tier) = updatesPerSecond.isPresent() &&
+        (tier == DisplayLod.Tier.FULL || tier == DisplayLod.Tier.REDUCED)
+
+    private fun isVisible(player: Player, tier: DisplayLod.Tier) =
+        tier != DisplayLod.Tier.CULLED && (!visible.isPresent() || visible.resolve(player))
 
     private fun worldPos(player: Player): Vector3f {
         val o = origin.resolve(player)
@@ -49,167 +128,90 @@ class ItemDisplayElement(
         return Vector3f(o.x + p.x, o.y + p.y, o.z + p.z)
     }
 
-    private fun addStaticIfNonDefault(player: Player, metas: MutableList<Any>) {
-        if (displayedItem.isPresent() && !displayedItem.isDynamic()) {
-            val v = displayedItem.resolve(player)
-            ItemDisplayEntityData.DisplayedItem.addEntityDataIfNotDefaultValue(
-                CraftEngine.instance().itemManager<ItemStack>().wrap(v).literalObject,
-                metas
-            )
-        }
-        if (scale.isPresent() && !scale.isDynamic()) {
-            ItemDisplayEntityData.Scale.addEntityDataIfNotDefaultValue(
-                scale.resolve(player),
-                metas
-            )
-        }
-        if (rotation.isPresent() && !rotation.isDynamic()) {
-            ItemDisplayEntityData.RotationLeft.addEntityDataIfNotDefaultValue(
-                rotation.resolve(player),
-                metas
-            )
-        }
-        if (translation.isPresent() && !translation.isDynamic()) {
-            ItemDisplayEntityData.Translation.addEntityDataIfNotDefaultValue(
-                translation.resolve(player),
-                metas
-            )
-        }
-        if (billboard.isPresent() && !billboard.isDynamic()) {
-            ItemDisplayEntityData.BillboardConstraints.addEntityDataIfNotDefaultValue(
-                billboard.resolve(player).id(),
-                metas
-            )
-        }
-        if (displayContext.isPresent() && !displayContext.isDynamic()) {
-            ItemDisplayEntityData.DisplayType.addEntityDataIfNotDefaultValue(
-                displayContext.resolve(player).id(),
-                metas
-            )
-        }
-        if (shadowRadius.isPresent() && !shadowRadius.isDynamic()) {
-            ItemDisplayEntityData.ShadowRadius.addEntityDataIfNotDefaultValue(
-                shadowRadius.resolve(player),
-                metas
-            )
-        }
-        if (shadowStrength.isPresent() && !shadowStrength.isDynamic()) {
-            ItemDisplayEntityData.ShadowStrength.addEntityDataIfNotDefaultValue(
-                shadowStrength.resolve(player),
-                metas
-            )
-        }
-        if (viewRange.isPresent() && !viewRange.isDynamic()) {
-            ItemDisplayEntityData.ViewRange.addEntityDataIfNotDefaultValue(
-                viewRange.resolve(player),
-                metas
-            )
+    override fun show(player: Player, batch: PacketBatch) {
+        if (isVisible(player, tier(player))) {
+            spawn(player, batch)
+        } else {
+            if (lastSent.containsKey(player.uuid())) {
+                despawn(player, batch)
+            }
         }
     }
 
-    private fun addDynamicValues(player: Player, metas: MutableList<Any>) {
-        if (displayedItem.isPresent() && displayedItem.isDynamic()) {
-            val v = displayedItem.resolve(player)
-            ItemDisplayEntityData.DisplayedItem.addEntityDataIfNotDefaultValue(
-                CraftEngine.instance().itemManager<ItemStack>().wrap(v).literalObject,
-                metas
-            )
-        }
-        if (scale.isPresent() && scale.isDynamic()) {
-            ItemDisplayEntityData.Scale.addEntityDataIfNotDefaultValue(
-                scale.resolve(player),
-                metas
-            )
-        }
-        if (rotation.isPresent() && rotation.isDynamic()) {
-            ItemDisplayEntityData.RotationLeft.addEntityDataIfNotDefaultValue(
-                rotation.resolve(player),
-                metas
-            )
-        }
-        if (translation.isPresent() && translation.isDynamic()) {
-            ItemDisplayEntityData.Translation.addEntityDataIfNotDefaultValue(
-                translation.resolve(player),
-                metas
-            )
-        }
-        if (billboard.isPresent() && billboard.isDynamic()) {
-            ItemDisplayEntityData.BillboardConstraints.addEntityDataIfNotDefaultValue(
-                billboard.resolve(player).id(),
-                metas
-            )
-        }
-        if (displayContext.isPresent() && displayContext.isDynamic()) {
-            ItemDisplayEntityData.DisplayType.addEntityDataIfNotDefaultValue(
-                displayContext.resolve(player).id(),
-                metas
-            )
-        }
-        if (shadowRadius.isPresent() && shadowRadius.isDynamic()) {
-            ItemDisplayEntityData.ShadowRadius.addEntityDataIfNotDefaultValue(
-                shadowRadius.resolve(player),
-                metas
-            )
-        }
-        if (shadowStrength.isPresent() && shadowStrength.isDynamic()) {
-            ItemDisplayEntityData.ShadowStrength.addEntityDataIfNotDefaultValue(
-                shadowStrength.resolve(player),
-                metas
-            )
-        }
-        if (viewRange.isPresent() && viewRange.isDynamic()) {
-            ItemDisplayEntityData.ViewRange.addEntityDataIfNotDefaultValue(
-                viewRange.resolve(player),
-                metas
-            )
-        }
+    override fun update(viewers: Collection<Player>, batch: PacketBatch) {
+        sync(viewers, batch, null)
     }
 
-    override fun show(player: Player) {
-        val isVisible = !visible.isPresent() || visible.resolve(player)
-        if (isVisible) {
-            spawn(player)
-        } else {
-            if (spawnedFor.contains(player.uuid())) {
-                despawn(player)
-            }
-        }
+    override fun tick(viewers: Collection<Player>, batch: PacketBatch, now: Long) {
+        sync(viewers, batch, now)
     }
 
-    override fun update(player: Player) {
-        val isVisible = !visible.isPresent() || visible.resolve(player)
-        val isSpawned = spawnedFor.contains(player.uuid())
-
-        when {
-            isVisible && !isSpawned -> {
-                // became visible -> spawn with current state
-                spawn(player)
-            }
+    /**
+     * Spawns, despawns or diffs the element for each viewer according to its distance tier. On a scene
+     * tick at [now] only viewers in a ticking tier whose update is due are diffed; the others just get
+     * spawned or culled.
+     */
+    private fun sync(viewers: Collection<Player>, batch: PacketBatch, now: Long?) {
+        // Viewers whose changes are identical share one encoded packet.
+        val encoded = HashMap<List<Any?>, Any>()
 
-            !isVisible && isSpawned -> {
-                // became invisible -> despawn
-                despawn(player)
-            }
+        for (player in viewers) {
+            val tier = tier(player)
+            val isVisible = isVisible(player, tier)
+            val sent = lastSent[player.uuid()]
 
-            isVisible && isSpawned -> {
-                // normal dynamic update
-                val metas = mutableListOf<Any>()
-                addDynamicValues(player, metas)
-                if (metas.isNotEmpty()) {
-                    val metaPkt = nms.`constructor$ClientboundSetEntityDataPacket`(entityId, metas)
-                    player.sendPacket(metaPkt, true)
+            when {
+                isVisible && sent == null -> spawn(player, batch)
+                !isVisible && sent != null -> despawn(player, batch)
+                isVisible && sent != null -> {
+                    if (now != null && !isDue(player, now)) continue
+                    val changes = diff(player, sent) ?: continue
+                    val packet = encoded.getOrPut(changes) {
+                        val metas = ArrayList<Any>(changes.size / 2)
+                        for (i in changes.indices step 2) {
+                            dynamicFields[changes[i] as Int].add(changes[i + 1], metas)
+                        }
+                        nms.`constructor$ClientboundSetEntityDataPacket`(entityId, metas)
+                    }
+                    batch.add(player, packet)
                 }
             }
         }
     }
 
-    override fun hide(player: Player) {
-        if (spawnedFor.contains(player.uuid())) {
-            despawn(player)
+    /**
+     * Resolves the dynamic fields for [player] and records those that differ from what was last sent.
+     * Returns the changes as (index, value) pairs, or null if nothing changed.
+     */
+    private fun diff(player: Player, sent: Array<Any?>): List<Any?>? {
+        var changes: ArrayList<Any?>? = null
+        for (i in dynamicFields.indices) {
+            val field = dynamicFields[i]
+            val value = field.prop.resolve(player)
+            if (value == sent[i]) continue
+
+            sent[i] = field.snapshot(value)
+            val list = changes ?: ArrayList<Any?>(4).also { changes = it }
+            list.add(i)
+            list.add(value)
+        }
+        return changes
+    }
+
+    override fun hide(player: Player, batch: PacketBatch) {
+        if (lastSent.containsKey(player.uuid())) {
+            despawn(player, batch)
         }
+        tiers.remove(player.uuid())
+    }
+
+    override fun forget(player: Player) {
+        lastSent.remove(player.uuid())
+        tiers.remove(player.uuid())
+        due.remove(player.uuid())
     }
 
-    private fun spawn(player: Player) {
+    private fun spawn(player: Player, batch: PacketBatch) {
         val wp = worldPos(player)
         val spawn = nms.`constructor$ClientboundAddEntityPacket`(
             entityId,
@@ -224,49 +226,33 @@ class ItemDisplayElement(
             CoreReflections.`instance$Vec3$Zero`,
             0.0
         )
-        val metas = mutableListOf<Any>()
-        addStaticIfNonDefault(player, metas)
-        addDynamicValues(player, metas)
+        batch.add(player, spawn)
+
+        val metas = ArrayList(staticMetas ?: encodeStatic(player))
+        val sent = arrayOfNulls<Any>(dynamicFields.size)
+        for (i in dynamicFields.indices) {
+            val field = dynamicFields[i]
+            val value = field.prop.resolve(player)
+            field.addIfNotDefault(value, metas)
+            sent[i] = field.snapshot(value)
+        }
         if (metas.isNotEmpty()) {
-            val metaPkt = nms.`constructor$ClientboundSetEntityDataPacket`(entityId, metas)
-            player.sendPackets(listOf(spawn, metaPkt), true)
-        } else {
-            player.sendPacket(spawn, true)
+            batch.add(player, nms.`constructor$ClientboundSetEntityDataPacket`(entityId, metas))
         }
-        spawnedFor.add(player.uuid())
-    }
-
-    private fun despawn(player: Player) {
-        val despawn = nms.`constructor$ClientboundRemoveEntitiesPacket`(IntList.of(entityId))
-        player.sendPacket(despawn, false)
-        spawnedFor.remove(player.uuid())
+        lastSent[player.uuid()] = sent
     }
 
-    override fun startTicking(player: Player, tm: TickManager) {
-        if (!updatesPerSecond.isPresent()) {
-            stopTicking(player, tm); return
-        }
-
-        val job = Atom.instance.launch(Atom.instance.asyncDispatcher) {
-            while (isActive) {
-                if (!updatesPerSecond.isPresent() || !player.isOnline) {
-                    stopTicking(player, tm)
-                    return@launch
-                }
-                val ups = updatesPerSecond.resolve(player)
-                if (ups <= 0.0) {
-                    delay(1.ticks)
-                    continue
-                }
-                val periodMs = (1000.0 / ups).toLong().coerceAtLeast(1L)
-                update(player)
-                delay(periodMs)
-            }
-        }
-        tm.startOrReplace(player, id, job)
+    private fun encodeStatic(player: Player): List<Any> {
+        val metas = ArrayList<Any>()
+        staticFields.forEach { it.addIfNotDefault(it.prop.resolve(player), metas) }
+        staticMetas = metas
+        return metas
     }
 
-    override fun stopTicking(player: Player, tm: TickManager) {
-        tm.stop(player, id)
+    private fun despawn(player: Player, batch: PacketBatch) {
+        val despawn = nms.`constructor$ClientboundRemoveEntitiesPacket`(IntList.of(entityId))
+        batch.add(player, despawn)
+        lastSent.remove(player.uuid())
+        due.remove(player.uuid())
     }
-}
\ No newline at end of file
+}
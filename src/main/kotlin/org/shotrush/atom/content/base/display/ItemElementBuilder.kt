@@ -26,6 +26,7 @@ class ItemElementBuilder internal constructor(
     private var viewRange: Prop<Float> = absent()
     private var updatesPerSecond: Prop<Float> = absent()
     private var visible: Prop<Boolean> = static(true)
+    private var lod: DisplayLod? = null
 
     fun origin(x: Float, y: Float, z: Float) {
         origin(Vector3f(x, y, z))
@@ -149,6 +150,11 @@ class ItemElementBuilder internal constructor(
         visible = dynamic(supplier)
     }
 
+    /** Overrides the scene's distance tiers for this element; tiers are still re-checked at the scene's refresh rate. */
+    fun lod(value: DisplayLod) {
+        lod = value
+    }
+
     inline fun distanceBasedUPS(
         origin: Vector3f,
         maxUPS: Float = 60f,
@@ -179,7 +185,7 @@ class ItemElementBuilder internal constructor(
         }
     }
 
-    internal fun build(sceneOrigin: Prop<Vector3f>): DisplayElement =
+    internal fun build(sceneOrigin: Prop<Vector3f>, sceneLod: DisplayLod?): DisplayElement =
         ItemDisplayElement(
             id = id,
             origin = (origin ?: sceneOrigin),
@@ -194,13 +200,15 @@ class ItemElementBuilder internal constructor(
             shadowStrength = shadowStrength,
             viewRange = viewRange,
             updatesPerSecond = updatesPerSecond,
-            visible = visible
+            visible = visible,
+            lod = lod ?: sceneLod
         )
 }
 
 class RendererSceneBuilder {
     private var origin: Prop<Vector3f> = static(Vector3f(0f, 0f, 0f))
-    private val elementBuilders = mutableListOf<(Prop<Vector3f>) -> DisplayElement>()
+    private var lod: DisplayLod? = null
+    private val elementBuilders = mutableListOf<(Prop<Vector3f>, DisplayLod?) -> DisplayElement>()
 
     fun origin(pos: BlockPos) {
         origin(pos.x(), pos.y(), pos.z())
@@ -222,38 +230,77 @@ class RendererSceneBuilder {
         origin = dynamic(supplier)
     }
 
+    /** Distance tiers for every element of the scene; defaults to the configured [DisplayLod.default]. */
+    fun lod(value: DisplayLod) {
+        lod = value
+    }
+
     fun item(id: String, block: ItemElementBuilder.() -> Unit) {
         val b = ItemElementBuilder(id).apply(block)
-        elementBuilders += { sceneOrigin -> b.build(sceneOrigin) }
+        elementBuilders += { sceneOrigin, sceneLod -> b.build(sceneOrigin, sceneLod) }
     }
 
     internal fun build(): RendererScene {
-        val elems = elementBuilders.map { it(origin) }
-        return RendererScene(elems.associateBy { it.id })
+        val elems = elementBuilders.map { it(origin, lod) }
+        return RendererScene(elems.associateBy { it.id }, lod)
     }
 }
 
 class RendererScene internal constructor(
     private val elements: Map<String, DisplayElement>,
+    private val lod: DisplayLod?,
 ) {
-    private val tickManager = TickManager()
-    fun show(player: Player) = elements.values.forEach {
-        it.show(player)
-        it.startTicking(player, tickManager)
+    private val wheel = TickWheel.displays
+    private val tickManager = TickManager(wheel)
+
+    // One wheel entry per viewer for the whole scene, due as often as its fastest element or the LOD refresh.
+    private val ticker = object : TickWheel.Target<Player, PacketBatch> {
+        override fun interval(viewer: Player): Int {
+            if (!viewer.isOnline) return -1
+            var interval = (lod ?: DisplayLod.default).refreshTicks
+            elements.values.forEach {
+                val ticks = it.interval(viewer)
+                if (ticks in 1 until interval) interval = ticks
+            }
+            return interval
+        }
+
+        override fun update(viewers: List<Player>, batch: PacketBatch) {
+            val now = wheel.currentTick
+            elements.values.forEach { it.tick(viewers, batch, now) }
+        }
     }
 
-    fun update(player: Player) = elements.values.forEach {
-        it.update(player)
-        it.startTicking(player, tickManager)
+    // Region threads only hand the work over; the wheel applies it ahead of its own ticks and sends it with them.
+    fun show(player: Player) = wheel.submit { batch ->
+        elements.values.forEach { it.show(player, batch) }
+        tickManager.startOrReplace(player, TICKER_ID, ticker) { forget(player) }
     }
 
-    fun hide(player: Player) = elements.values.forEach {
-        it.stopTicking(player, tickManager)
-        it.hide(player)
+    fun update(player: Player) = update(listOf(player))
+
+    fun update(players: Collection<Player>) {
+        val viewers = players.toList()
+        wheel.submit { batch ->
+            elements.values.forEach { it.update(viewers, batch) }
+            viewers.forEach { viewer -> tickManager.startIfAbsent(viewer, TICKER_ID, ticker) { forget(viewer) } }
+        }
+    }
+
+    fun hide(player: Player) = wheel.submit { batch ->
+        tickManager.stop(player, TICKER_ID)
+        elements.values.forEach { it.hide(player, batch) }
     }
 
+    // The ticker stops itself once the viewer is offline; hide never runs for it, so its state is dropped here.
+    private fun forget(player: Player) = elements.values.forEach { it.forget(player) }
+
     fun element(id: String): DisplayElement? = elements[id]
     fun item(id: String): ItemDisplayElement? = element(id) as? ItemDisplayElement
+
+    private companion object {
+        const val TICKER_ID = "scene"
+    }
 }
 
 fun BlockPos.toVector3f(): Vector3f {
@@ -0,0 +1,26 @@
+package org.shotrush.atom.content.base.display
+
+import net.momirealms.craftengine.core.entity.player.Player
+
+/**
+ * Packets collected per viewer during one update pass. [flush] sends each viewer's packets as a
+ * single bundle, so the client applies them in the same frame.
+ */
+class PacketBatch {
+    private val packets = LinkedHashMap<Player, MutableList<Any>>()
+
+    fun add(player: Player, packet: Any) {
+        packets.getOrPut(player) { ArrayList(4) }.add(packet)
+    }
+
+    fun flush() {
+        for ((player, list) in packets) {
+            if (list.size == 1) {
+                player.sendPacket(list[0], true)
+            } else {
+                player.sendPackets(list, true)
+            }
+        }
+        packets.clear()
+    }
+}
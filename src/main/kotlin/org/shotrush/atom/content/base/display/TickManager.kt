@@ -1,23 +1,45 @@
 package org.shotrush.atom.content.base.display
 
-import kotlinx.coroutines.Job
 import net.momirealms.craftengine.core.entity.player.Player
 import java.util.*
 import java.util.concurrent.ConcurrentHashMap
 
-class TickManager {
-    private val jobs = ConcurrentHashMap<UUID, ConcurrentHashMap<String, Job>>()
+class TickManager(private val wheel: TickWheel<Player, PacketBatch> = TickWheel.displays) {
+    private val entries = ConcurrentHashMap<UUID, ConcurrentHashMap<String, TickWheel.Entry<Player, PacketBatch>>>()
 
-    fun startOrReplace(player: Player, elementId: String, job: Job) {
-        val map = jobs.computeIfAbsent(player.uuid()) { ConcurrentHashMap() }
-        map.put(elementId, job)?.cancel()
+    /** [onStop] runs on the wheel's thread when [target] itself stops the entry, e.g. once the player is offline. */
+    fun startOrReplace(
+        player: Player,
+        elementId: String,
+        target: TickWheel.Target<Player, PacketBatch>,
+        onStop: () -> Unit = {},
+    ) {
+        val entry = TickWheel.Entry(target, player) { stopped ->
+            entries.computeIfPresent(player.uuid()) { _, map ->
+                map.remove(elementId, stopped)
+                if (map.isEmpty()) null else map
+            }
+            onStop()
+        }
+        val map = entries.computeIfAbsent(player.uuid()) { ConcurrentHashMap() }
+        map.put(elementId, entry)?.cancel()
+        wheel.schedule(entry)
+    }
+
+    fun startIfAbsent(
+        player: Player,
+        elementId: String,
+        target: TickWheel.Target<Player, PacketBatch>,
+        onStop: () -> Unit = {},
+    ) {
+        if (entries[player.uuid()]?.containsKey(elementId) != true) startOrReplace(player, elementId, target, onStop)
     }
 
     fun stop(player: Player, elementId: String) {
-        jobs[player.uuid()]?.remove(elementId)?.cancel()
+        entries[player.uuid()]?.remove(elementId)?.cancel()
     }
 
     fun stopAll(player: Player) {
-        jobs.remove(player.uuid())?.values?.forEach { it.cancel() }
+        entries.remove(player.uuid())?.values?.forEach { it.cancel() }
     }
-}
\ No newline at end of file
+}
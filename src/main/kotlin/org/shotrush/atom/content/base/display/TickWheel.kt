@@ -0,0 +1,168 @@
+package org.shotrush.atom.content.base.display
+
+import com.github.shynixn.mccoroutine.folia.asyncDispatcher
+import com.github.shynixn.mccoroutine.folia.launch
+import com.github.shynixn.mccoroutine.folia.ticks
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.isActive
+import net.momirealms.craftengine.core.entity.player.Player
+import org.shotrush.atom.Atom
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Hashed timing wheel with one slot per tick. Entries due in the same slot are grouped by target,
+ * so each target is updated once per slot with all of its due viewers. All updates of a slot share
+ * one batch, opened before the first update and closed after the last.
+ *
+ * Only the thread calling [advance] touches the slots; [schedule] and [submit] hand work over through queues.
+ */
+class TickWheel<V : Any, B>(
+    private val openBatch: () -> B,
+    private val closeBatch: (B) -> Unit,
+    size: Int = DEFAULT_SIZE,
+) {
+
+    interface Target<V, B> {
+        /** Ticks until the next update for [viewer], 0 to check again next tick without updating, or -1 to stop. */
+        fun interval(viewer: V): Int
+
+        fun update(viewers: List<V>, batch: B)
+    }
+
+    class Entry<V : Any, B>(
+        val target: Target<V, B>,
+        val viewer: V,
+        internal val onStop: (Entry<V, B>) -> Unit = {},
+    ) {
+        @Volatile
+        var cancelled = false
+            private set
+        internal var deadline = 0L
+
+        fun cancel() {
+            cancelled = true
+        }
+    }
+
+    private val mask: Long
+    private val slots: Array<ArrayDeque<Entry<V, B>>>
+    private val incoming = ConcurrentLinkedQueue<Entry<V, B>>()
+    private val tasks = ConcurrentLinkedQueue<(B) -> Unit>()
+    private val active = AtomicInteger()
+    private var now = 0L
+
+    @Volatile
+    var lastAdvanceNanos = 0L
+        private set
+
+    init {
+        require(size > 0 && size and (size - 1) == 0) { "Wheel size must be a power of two" }
+        mask = (size - 1).toLong()
+        slots = Array(size) { ArrayDeque() }
+    }
+
+    val activeCount: Int get() = active.get()
+
+    /** The tick being advanced; only meaningful on the advancing thread. */
+    val currentTick: Long get() = now
+
+    /** Adds an entry; it is first checked on the next [advance]. */
+    fun schedule(entry: Entry<V, B>) {
+        active.incrementAndGet()
+        incoming.add(entry)
+    }
+
+    /** Runs [task] on the advancing thread at the start of the next [advance], before any entry is due. */
+    fun submit(task: (B) -> Unit) {
+        tasks.add(task)
+    }
+
+    fun advance() {
+        val start = System.nanoTime()
+        now++
+
+        while (true) {
+            place(incoming.poll() ?: break, now)
+        }
+
+        var batch: B? = null
+        while (true) {
+            val task = tasks.poll() ?: break
+            try {
+                task(batch ?: openBatch().also { batch = it })
+            } catch (e: Exception) {
+                Atom.instance.logger.warning("Display task failed: ${e.message}")
+            }
+        }
+
+        val slot = slots[(now and mask).toInt()]
+        val updates = LinkedHashMap<Target<V, B>, MutableList<V>>()
+        repeat(slot.size) {
+            val entry = slot.removeFirst()
+            when {
+                entry.cancelled -> active.decrementAndGet()
+                entry.deadline > now -> slot.addLast(entry)
+                else -> {
+                    val interval = try {
+                        entry.target.interval(entry.viewer)
+                    } catch (e: Exception) {
+                        Atom.instance.logger.warning("Display tick interval failed: ${e.message}")
+                        -1
+                    }
+                    when {
+                        interval < 0 -> {
+                            active.decrementAndGet()
+                            entry.onStop(entry)
+                        }
+                        interval == 0 -> place(entry, now + 1)
+                        else -> {
+                            updates.getOrPut(entry.target) { ArrayList() }.add(entry.viewer)
+                            place(entry, now + interval)
+                        }
+                    }
+                }
+            }
+        }
+
+        if (updates.isNotEmpty()) {
+            val slotBatch = batch ?: openBatch().also { batch = it }
+            for ((target, viewers) in updates) {
+                try {
+                    target.update(viewers, slotBatch)
+                } catch (e: Exception) {
+                    Atom.instance.logger.warning("Display tick update failed: ${e.message}")
+                }
+            }
+        }
+        batch?.let(closeBatch)
+        lastAdvanceNanos = System.nanoTime() - start
+    }
+
+    private fun place(entry: Entry<V, B>, deadline: Long) {
+        entry.deadline = deadline
+        slots[(deadline and mask).toInt()].addLast(entry)
+    }
+
+    companion object {
+        const val DEFAULT_SIZE = 256
+
+        private val shared = TickWheel<Player, PacketBatch>(::PacketBatch, PacketBatch::flush)
+        private val started = AtomicBoolean()
+
+        /** The wheel driving all display elements, advanced once per tick off the main threads. */
+        val displays: TickWheel<Player, PacketBatch>
+            get() {
+                if (started.compareAndSet(false, true)) {
+                    Atom.instance.launch(Atom.instance.asyncDispatcher) {
+                        while (isActive) {
+                            shared.advance()
+                            delay(1.ticks)
+                        }
+                    }
+                }
+                return shared
+            }
+    }
+}
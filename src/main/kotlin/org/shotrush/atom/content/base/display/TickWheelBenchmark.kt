@@ -0,0 +1,92 @@
+package org.shotrush.atom.content.base.display
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import java.lang.management.ManagementFactory
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Compares the CPU spent scheduling no-op display updates on a [TickWheel] against one coroutine
+ * per (viewer, element) pair, as display elements were ticked before.
+ */
+object TickWheelBenchmark {
+    private const val WINDOW_TICKS = 20
+    private const val TICK_MS = 50L
+    private val PERIODS = intArrayOf(1, 2, 4, 10, 20)
+
+    fun run(elements: Int, viewerCounts: List<Int>): List<String> =
+        viewerCounts.map { measure(elements, it) }
+
+    private fun measure(elements: Int, viewers: Int): String {
+        val wheelUpdates = LongAdder()
+        val wheelCpu = measureWheel(targets(elements, wheelUpdates), viewers)
+
+        val coroutineUpdates = LongAdder()
+        val coroutineCpu = measureCoroutines(targets(elements, coroutineUpdates), viewers)
+
+        return String.format(
+            "%d elements x %d viewers: wheel %.2fms CPU/s (%d updates), coroutines %.2fms CPU/s (%d updates)",
+            elements, viewers,
+            wheelCpu / 1_000_000.0, wheelUpdates.sum(),
+            coroutineCpu / 1_000_000.0, coroutineUpdates.sum()
+        )
+    }
+
+    private fun measureWheel(targets: List<NoopTarget>, viewers: Int): Long {
+        val wheel = TickWheel<Int, Unit>({}, {})
+        targets.forEach { target -> repeat(viewers) { wheel.schedule(TickWheel.Entry(target, it)) } }
+
+        val threads = ManagementFactory.getThreadMXBean()
+        val start = threads.currentThreadCpuTime
+        repeat(WINDOW_TICKS) {
+            wheel.advance()
+            Thread.sleep(TICK_MS)
+        }
+        return threads.currentThreadCpuTime - start
+    }
+
+    private fun measureCoroutines(targets: List<NoopTarget>, viewers: Int): Long {
+        val workers = CopyOnWriteArrayList<Thread>()
+        val pool = Executors.newFixedThreadPool(4) { runnable ->
+            Thread(runnable, "Atom-Tick-Benchmark").also { workers.add(it) }
+        }
+        val scope = CoroutineScope(pool.asCoroutineDispatcher())
+
+        for (target in targets) {
+            repeat(viewers) { viewer ->
+                scope.launch {
+                    while (isActive) {
+                        target.update(listOf(viewer), Unit)
+                        delay(target.period * TICK_MS)
+                    }
+                }
+            }
+        }
+        Thread.sleep(WINDOW_TICKS * TICK_MS)
+
+        val threads = ManagementFactory.getThreadMXBean()
+        val cpu = workers.sumOf { threads.getThreadCpuTime(it.threadId()).coerceAtLeast(0L) }
+        scope.cancel()
+        pool.shutdown()
+        pool.awaitTermination(5, TimeUnit.SECONDS)
+        return cpu
+    }
+
+    private fun targets(count: Int, updates: LongAdder): List<NoopTarget> =
+        List(count) { NoopTarget(PERIODS[it % PERIODS.size], updates) }
+
+    private class NoopTarget(val period: Int, private val updates: LongAdder) : TickWheel.Target<Int, Unit> {
+        override fun interval(viewer: Int): Int = period
+
+        override fun update(viewers: List<Int>, batch: Unit) {
+            updates.add(viewers.size.toLong())
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.shotrush.atom.core.api.combat.ArmorProtectionAPI
 import org.shotrush.atom.core.api.combat.TemperatureEffectsAPI.applyColdDamage
 import org.shotrush.atom.core.api.combat.TemperatureEffectsAPI.applyHeatDamage
 import org.shotrush.atom.core.api.player.AttributeModifierAPI
+import org.shotrush.atom.core.api.player.PlayerState
 import org.shotrush.atom.core.api.scheduler.SchedulerAPI
 import org.shotrush.atom.core.api.world.EnvironmentalFactorAPI.getAmbientTemperature
 import org.shotrush.atom.core.api.world.EnvironmentalFactorAPI.getNearbyHeatSources
@@ -30,7 +31,8 @@ import org.shotrush.atom.core.data.PersistentData
 import org.shotrush.atom.core.util.ActionBarManager
 import org.shotrush.atom.item.Molds.emptyMold
 import org.shotrush.atom.item.Molds.isFilledMold
-import java.util.*
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.math.abs
 import kotlin.math.max
 import kotlin.math.min
@@ -43,29 +45,23 @@ class ItemHeatSystem(private val plugin: Plugin?) : Listener {
     @EventHandler
     fun onPlayerJoin(event: PlayerJoinEvent) {
         val player = event.getPlayer()
-        startHeatTickForPlayer(player)
+        val state = PlayerState.of(player)
+        state.clearSlotHeat()
+        startHeatTickForPlayer(player, state)
     }
 
     @EventHandler
     fun onPlayerQuit(event: PlayerQuitEvent) {
         val player = event.getPlayer()
-        val playerId = player.uniqueId
-
-        val slotHeatMap: MutableMap<Int?, Double?>? = playerItemHeatCache[playerId]
-        if (slotHeatMap != null) {
-            for (slot in 0..8) {
-                val item = player.inventory.getItem(slot)
-                if (item != null && item.type != Material.AIR) {
-                    val cachedHeat = slotHeatMap[slot]
-                    if (cachedHeat != null) {
-                        setItemHeat(item, cachedHeat)
-                    }
-                }
+        val state = PlayerState.find(player) ?: return
+
+        for (slot in 0 until PlayerState.HOTBAR_SLOTS) {
+            val item = player.inventory.getItem(slot)
+            if (item != null && item.type != Material.AIR && state.hasSlotHeat(slot)) {
+                setItemHeat(item, state.getSlotHeat(slot))
             }
         }
-
-        playerItemHeatCache.remove(playerId)
-        lastKnownItems.remove(playerId)
+        state.clearSlotHeat()
     }
 
     @EventHandler
@@ -75,13 +71,9 @@ class ItemHeatSystem(private val plugin: Plugin?) : Listener {
         val previousSlot = event.previousSlot
         val previousItem = player.inventory.getItem(previousSlot)
         if (previousItem != null && previousItem.type != Material.AIR) {
-            val playerId = player.uniqueId
-            val slotHeatMap: MutableMap<Int?, Double?>? = playerItemHeatCache[playerId]
-            if (slotHeatMap != null) {
-                val cachedHeat = slotHeatMap[previousSlot]
-                if (cachedHeat != null) {
-                    setItemHeat(previousItem, cachedHeat)
-                }
+            val state = PlayerState.find(player)
+            if (state != null && state.hasSlotHeat(previousSlot)) {
+                setItemHeat(previousItem, state.getSlotHeat(previousSlot))
             }
         }
 
@@ -94,37 +86,31 @@ class ItemHeatSystem(private val plugin: Plugin?) : Listener {
         }
     }
 
-    private fun startHeatTickForPlayer(player: Player) {
+    private fun startHeatTickForPlayer(player: Player, state: PlayerState) {
         SchedulerAPI.runTaskTimer(player, { task: ScheduledTask? ->
             if (!player.isOnline) {
                 task?.cancel()
-                playerItemHeatCache.remove(player.uniqueId)
-                lastKnownItems.remove(player.uniqueId)
                 return@runTaskTimer
             }
             val heldItem = player.inventory.itemInMainHand
             if (heldItem.type != Material.AIR) {
-                updateItemHeatInCache(player, heldItem)
-                applyHeatEffectFromCache(player, heldItem)
-                displayHeatActionBarFromCache(player, heldItem)
+                val slot = player.inventory.heldItemSlot
+                val heat = updateItemHeatInCache(player, state, slot, heldItem)
+                applyHeatEffectFromCache(player, heat)
+                displayHeatActionBarFromCache(player, heat)
             }
         }, 1L, 20L)
     }
 
-    private fun updateItemHeatInCache(player: Player, item: ItemStack) {
-        val playerId = player.uniqueId
-        val slot = player.inventory.heldItemSlot
-
-        val lastItem: ItemStack? = lastKnownItems[playerId]
+    private fun updateItemHeatInCache(player: Player, state: PlayerState, slot: Int, item: ItemStack): Double {
+        val lastItem = state.lastHeldItem
         if (lastItem == null || !item.isSimilar(lastItem)) {
-            val heat: Double = getItemHeat(item)
-            playerItemHeatCache.computeIfAbsent(playerId) { k: UUID? -> HashMap<Int?, Double?>() }!![slot] = heat
-            lastKnownItems[playerId] = item.clone()
+            state.setSlotHeat(slot, getItemHeat(item))
+            state.lastHeldItem = item.clone()
         }
 
-        val currentHeat: Double =
-            playerItemHeatCache.computeIfAbsent(playerId) { k: UUID? -> HashMap<Int?, Double?>() }
-                ?.computeIfAbsent(slot) { k: Int? -> getItemHeat(item) }!!
+        var currentHeat = state.getSlotHeat(slot)
+        if (currentHeat.isNaN()) currentHeat = getItemHeat(item)
 
         val loc = player.location
 
@@ -143,20 +129,11 @@ class ItemHeatSystem(private val plugin: Plugin?) : Listener {
 
         newHeat = max(-100.0, min(500.0, newHeat))
 
-        playerItemHeatCache[playerId]?.set(slot, newHeat)
+        state.setSlotHeat(slot, newHeat)
+        return newHeat
     }
 
-    private fun applyHeatEffectFromCache(player: Player, item: ItemStack?) {
-        val playerId = player.uniqueId
-        val slot = player.inventory.heldItemSlot
-
-        var heat: Double? =
-            playerItemHeatCache.computeIfAbsent(playerId) { k: UUID? -> HashMap<Int?, Double?>() }!!
-                .get(slot)
-        if (heat == null) {
-            heat = getItemHeat(item)
-        }
-
+    private fun applyHeatEffectFromCache(player: Player, heat: Double) {
         val hasProtection = ArmorProtectionAPI.hasLeatherChestplate(player)
 
         if (heat != 0.0) {
@@ -175,17 +152,7 @@ class ItemHeatSystem(private val plugin: Plugin?) : Listener {
         applyColdDamage(player, heat, hasProtection)
     }
 
-    private fun displayHeatActionBarFromCache(player: Player, item: ItemStack?) {
-        val playerId = player.uniqueId
-        val slot = player.inventory.heldItemSlot
-
-        var heat: Double? =
-            playerItemHeatCache.computeIfAbsent(playerId) { k: UUID? -> HashMap<Int?, Double?>() }!!
-                .get(slot)
-        if (heat == null) {
-            heat = getItemHeat(item)
-        }
-
+    private fun displayHeatActionBarFromCache(player: Player, heat: Double) {
         val manager = ActionBarManager.getInstance() ?: return
 
         if (abs(heat) < 5.0) {
@@ -364,26 +331,13 @@ class ItemHeatSystem(private val plugin: Plugin?) : Listener {
     }
 
     private fun saveCachedHeatToItem(player: Player, item: ItemStack?) {
-        val playerId = player.uniqueId
-        val slot = player.inventory.heldItemSlot
-
-        val slotHeatMap: MutableMap<Int?, Double?>? = playerItemHeatCache[playerId]
-        if (slotHeatMap != null) {
-            val cachedHeat = slotHeatMap[slot]
-            if (cachedHeat != null) {
-                setItemHeat(item, cachedHeat)
-            }
-        }
+        saveHeatForSlot(player, player.inventory.heldItemSlot, item)
     }
 
     fun saveHeatForSlot(player: Player, slot: Int, item: ItemStack?) {
-        val playerId = player.uniqueId
-        val slotHeatMap: MutableMap<Int?, Double?>? = playerItemHeatCache[playerId]
-        if (slotHeatMap != null) {
-            val cachedHeat = slotHeatMap[slot]
-            if (cachedHeat != null) {
-                setItemHeat(item, cachedHeat)
-            }
+        val state = PlayerState.find(player) ?: return
+        if (state.hasSlotHeat(slot)) {
+            setItemHeat(item, state.getSlotHeat(slot))
         }
     }
 
@@ -392,10 +346,7 @@ class ItemHeatSystem(private val plugin: Plugin?) : Listener {
         var instance: ItemHeatSystem? = null
         private val HEAT_MODIFIER_KEY = NamespacedKey("atom", "heat_modifier")
         private val COOLING_START_KEY = NamespacedKey("atom", "cooling_start_time")
-
-        private val playerItemHeatCache: MutableMap<UUID?, MutableMap<Int?, Double?>?> =
-            HashMap<UUID?, MutableMap<Int?, Double?>?>()
-        private val lastKnownItems: MutableMap<UUID?, ItemStack?> = HashMap<UUID?, ItemStack?>()
+        private val displayHeatTasks = ConcurrentHashMap<UUID, ScheduledTask>()
 
         @JvmStatic
         fun getItemHeat(item: ItemStack?): Double {
@@ -414,16 +365,21 @@ class ItemHeatSystem(private val plugin: Plugin?) : Listener {
             item.setItemMeta(meta)
         }
 
+        /** Replaces any tracker already running for this display, so respawns never stack trackers. */
         @JvmStatic
         fun startItemDisplayHeatTracking(itemDisplay: ItemDisplay) {
-            SchedulerAPI.runTaskTimer(itemDisplay, { task: ScheduledTask? ->
+            val displayId = itemDisplay.uniqueId
+            stopItemDisplayHeatTracking(displayId)
+            val tracker = SchedulerAPI.runTaskTimer(itemDisplay, { task: ScheduledTask ->
                 if (itemDisplay.isDead || !itemDisplay.isValid) {
-                    task?.cancel()
+                    displayHeatTasks.remove(displayId, task)
+                    task.cancel()
                     return@runTaskTimer
                 }
                 val itemStack = itemDisplay.itemStack
                 if (itemStack.type == Material.AIR) {
-                    task?.cancel()
+                    displayHeatTasks.remove(displayId, task)
+                    task.cancel()
                     return@runTaskTimer
                 }
 
@@ -459,6 +415,12 @@ class ItemHeatSystem(private val plugin: Plugin?) : Listener {
                     itemDisplay.setItemStack(itemStack)
                 }
             }, 20L, 20L)
+            if (tracker != null) displayHeatTasks[displayId] = tracker
+        }
+
+        @JvmStatic
+        fun stopItemDisplayHeatTracking(displayId: UUID) {
+            displayHeatTasks.remove(displayId)?.cancel()
         }
 
         fun startDroppedItemFireTracking(item: Item) {
@@ -11,10 +11,11 @@ import org.shotrush.atom.core.api.annotation.RegisterSystem
 import org.shotrush.atom.core.api.combat.ArmorProtectionAPI
 import org.shotrush.atom.core.api.combat.TemperatureEffectsAPI
 import org.shotrush.atom.core.api.player.PlayerDataAPI
+import org.shotrush.atom.core.api.player.PlayerState
 import org.shotrush.atom.core.api.scheduler.SchedulerAPI
 import org.shotrush.atom.core.api.world.EnvironmentalFactorAPI
 import org.shotrush.atom.core.util.ActionBarManager
-import java.util.*
+import kotlin.math.ceil
 import kotlin.math.max
 import kotlin.math.min
 
@@ -32,14 +33,11 @@ class PlayerTemperatureSystem(private val plugin: Plugin) : Listener {
         lateinit var instance: PlayerTemperatureSystem
             private set
         
-        private const val NORMAL_TEMP = 37.0
+        private const val NORMAL_TEMP = PlayerState.NORMAL_BODY_TEMPERATURE
         private const val MAX_TEMP = 44.0
         private const val MIN_TEMP = 20.0 // Lowered from 30.0 to allow freezing death
     }
 
-    private val playerTemperatures = HashMap<UUID, Double>()
-    private val playerWetness = HashMap<UUID, Double>()
-
     init {
         instance = this
     }
@@ -47,60 +45,45 @@ class PlayerTemperatureSystem(private val plugin: Plugin) : Listener {
     @EventHandler
     fun onPlayerJoin(event: PlayerJoinEvent) {
         val player = event.player
-        val playerId = player.uniqueId
-        
-        val savedTemp = PlayerDataAPI.getDouble(player, "temperature.body", NORMAL_TEMP)
-        val savedWetness = PlayerDataAPI.getDouble(player, "temperature.wetness", 0.0)
-        
-        playerTemperatures[playerId] = savedTemp
-        playerWetness[playerId] = savedWetness
-        startTemperatureTickForPlayer(player)
+        val state = PlayerState.of(player)
+
+        state.bodyTemperature = PlayerDataAPI.getDouble(player, "temperature.body", NORMAL_TEMP)
+        state.wetness = PlayerDataAPI.getDouble(player, "temperature.wetness", 0.0)
+        startTemperatureTickForPlayer(player, state)
     }
     
     @EventHandler
     fun onPlayerQuit(event: PlayerQuitEvent) {
         val player = event.player
-        val playerId = player.uniqueId
-        
-        val temp = playerTemperatures.getOrDefault(playerId, NORMAL_TEMP)
-        val wetness = playerWetness.getOrDefault(playerId, 0.0)
-        
-        PlayerDataAPI.setDouble(player, "temperature.body", temp)
-        PlayerDataAPI.setDouble(player, "temperature.wetness", wetness)
-        
-        playerTemperatures.remove(playerId)
-        playerWetness.remove(playerId)
+        val state = PlayerState.find(player) ?: return
+
+        PlayerDataAPI.setDouble(player, "temperature.body", state.bodyTemperature)
+        PlayerDataAPI.setDouble(player, "temperature.wetness", state.wetness)
     }
     
     @EventHandler
     fun onPlayerDeath(event: PlayerDeathEvent) {
         val player = event.entity
-        val playerId = player.uniqueId
-        
-        playerTemperatures[playerId] = NORMAL_TEMP
-        playerWetness[playerId] = 0.0
-        
+        PlayerState.of(player).resetVitals()
+
         PlayerDataAPI.setDouble(player, "temperature.body", NORMAL_TEMP)
         PlayerDataAPI.setDouble(player, "temperature.wetness", 0.0)
     }
     
-    private fun startTemperatureTickForPlayer(player: Player) {
+    private fun startTemperatureTickForPlayer(player: Player, state: PlayerState) {
         SchedulerAPI.runTaskTimer(player, { task ->
             if (!player.isOnline) {
                 task.cancel()
                 return@runTaskTimer
             }
-            updatePlayerState(player)
+            updatePlayerState(player, state)
         }, 1L, 20L)
     }
     
-    private fun updatePlayerState(player: Player) {
-        val playerId = player.uniqueId
-        val currentTemp = playerTemperatures.getOrDefault(playerId, NORMAL_TEMP)
-        var currentWetness = playerWetness.getOrDefault(playerId, 0.0)
-
-        currentWetness = updateWetness(player, currentWetness)
-        playerWetness[playerId] = currentWetness
+    private fun updatePlayerState(player: Player, state: PlayerState) {
+        val currentTemp = state.bodyTemperature
+        val currentWetness = updateWetness(player, state.wetness)
+        state.wetness = currentWetness
         
 
         val ambientTemp = EnvironmentalFactorAPI.getAmbientTemperature(player)
@@ -124,20 +107,20 @@ class PlayerTemperatureSystem(private val plugin: Plugin) : Listener {
         
         var newTemp = currentTemp + change
 
-        newTemp = applyHomeostasis(player, newTemp)
+        newTemp = applyHomeostasis(player, state, newTemp)
         
         newTemp = max(MIN_TEMP, min(MAX_TEMP, newTemp))
-        playerTemperatures[playerId] = newTemp
+        state.bodyTemperature = newTemp
         
         applyEffects(player, newTemp, currentWetness)
     }
     
 
-    private fun applyHomeostasis(player: Player, bodyTemp: Double): Double {
+    private fun applyHomeostasis(player: Player, state: PlayerState, bodyTemp: Double): Double {
         var temp = bodyTemp
         val thirstSystem = ThirstSystem.instance
         val foodLevel = player.foodLevel
-        val hydration = thirstSystem?.getThirst(player)?.toDouble() ?: 20.0
+        val hydration = if (thirstSystem != null) ceil(state.thirst) else 20.0
         
 
         val SWEAT_THRESHOLD = 37.5 // Vasodilation starts earlier, but effective sweating here
@@ -232,6 +215,6 @@ class PlayerTemperatureSystem(private val plugin: Plugin) : Listener {
     }
     
     fun getPlayerTemperature(player: Player): Double {
-        return playerTemperatures.getOrDefault(player.uniqueId, NORMAL_TEMP)
+        return PlayerState.find(player)?.bodyTemperature ?: NORMAL_TEMP
     }
 }
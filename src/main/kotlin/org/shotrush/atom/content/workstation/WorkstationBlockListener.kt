@@ -2,7 +2,6 @@ package org.shotrush.atom.content.workstation
 
 import net.momirealms.craftengine.bukkit.api.CraftEngineBlocks
 import net.momirealms.craftengine.core.util.Key
-import net.momirealms.craftengine.core.world.BlockPos
 import org.bukkit.Location
 import org.bukkit.Material
 import org.bukkit.block.Block
@@ -45,11 +44,8 @@ class WorkstationBlockListener(private val plugin: Plugin) : Listener {
         plugin.logger.info("Workstation broken: $workstationType at ${block.location}")
         
         
-        val pos = BlockPos(block.x, block.y, block.z)
-        
-        
-        val workstationData = WorkstationDataManager.getWorkstationData(pos, workstationType)
-        val placedItems = workstationData.placedItems.toList() 
+        val workstationData = WorkstationDataManager.findWorkstationData(block)
+        val placedItems = workstationData?.placedItems?.toList() ?: emptyList()
         
         
         if (placedItems.isNotEmpty()) {
@@ -70,10 +66,7 @@ class WorkstationBlockListener(private val plugin: Plugin) : Listener {
         cleanupNearbyEntities(block.location)
         
         
-        WorkstationDataManager.removeWorkstationData(pos)
-        
-        
-        WorkstationDataManager.saveData()
+        WorkstationDataManager.removeWorkstationData(block)
     }
     
     
@@ -11,6 +11,7 @@ import org.bukkit.block.data.Lightable
 import org.bukkit.plugin.Plugin
 import org.shotrush.atom.Atom
 import org.shotrush.atom.content.workstation.core.WorkstationDataManager
+import org.shotrush.atom.core.api.world.HeatSourceCache
 import net.momirealms.craftengine.core.world.BlockPos
 import java.util.concurrent.ConcurrentHashMap
 
@@ -71,6 +72,7 @@ class CampfireRegistry(private val plugin: Plugin) {
         if (data is Lightable && !data.isLit) {
             data.isLit = true
             block.blockData = data
+            HeatSourceCache.invalidate(block)
         }
         if (!state.lit) {
             state.lit = true
@@ -138,8 +140,8 @@ class CampfireRegistry(private val plugin: Plugin) {
         var resumed = 0
         var expired = 0
 
-        WorkstationDataManager.getAllWorkstations().forEach { (_, data) ->
-            if (data.type == WS_TYPE && data.curingStartTime != null) {
+        WorkstationDataManager.getWorkstationsOfType(targetWorld, WS_TYPE).forEach { data ->
+            if (data.curingStartTime != null) {
                 val loc = Location(
                     targetWorld,
                     data.position.x().toDouble(),
@@ -151,13 +153,13 @@ class CampfireRegistry(private val plugin: Plugin) {
                     try {
                         val block = loc.block
                         if (block.type != Material.CAMPFIRE && block.type != Material.SOUL_CAMPFIRE) {
-                            clearKey(data.position)
+                            clearKey(targetWorld, data.position)
                             return@run
                         }
                         
                         val lightable = block.blockData as? Lightable
                         if (lightable == null) {
-                            clearKey(data.position)
+                            clearKey(targetWorld, data.position)
                             return@run
                         }
 
@@ -224,24 +226,24 @@ class CampfireRegistry(private val plugin: Plugin) {
             if (data.isLit != value) {
                 data.isLit = value
                 block.blockData = data
+                HeatSourceCache.invalidate(block)
             }
         }
     }
 
     private fun persistStartTime(state: CampfireState) {
         val pos = BlockPos(state.location.blockX, state.location.blockY, state.location.blockZ)
-        val d = WorkstationDataManager.getWorkstationData(pos, WS_TYPE)
+        val d = WorkstationDataManager.getWorkstationData(state.location.world, pos, WS_TYPE)
         d.curingStartTime = state.startTime
-        WorkstationDataManager.saveData()
     }
 
     private fun clearPersistence(state: CampfireState) {
         val pos = BlockPos(state.location.blockX, state.location.blockY, state.location.blockZ)
-        WorkstationDataManager.removeWorkstationData(pos)
+        WorkstationDataManager.removeWorkstationData(state.location.world, pos)
     }
 
-    private fun clearKey(pos: BlockPos) {
-        WorkstationDataManager.removeWorkstationData(pos)
+    private fun clearKey(world: org.bukkit.World, pos: BlockPos) {
+        WorkstationDataManager.removeWorkstationData(world, pos)
     }
 
     private fun fix(l: Location) = Location(l.world, l.blockX.toDouble(), l.blockY.toDouble(), l.blockZ.toDouble())
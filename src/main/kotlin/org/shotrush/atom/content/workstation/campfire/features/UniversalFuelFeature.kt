@@ -156,14 +156,14 @@ class UniversalFuelFeature : CampfireRegistry.Listener {
 
     private fun persistFuelQueue(loc: Location) {
         val pos = net.momirealms.craftengine.core.world.BlockPos(loc.blockX, loc.blockY, loc.blockZ)
-        val data = org.shotrush.atom.content.workstation.core.WorkstationDataManager.getWorkstationData(pos, "campfire")
+        val data = org.shotrush.atom.content.workstation.core.WorkstationDataManager.getWorkstationData(loc.world, pos, "campfire")
         data.fuelQueue = fuelQueues[loc]?.map { "${it.burnTimeSeconds},${it.addedAt}" }?.joinToString(";") ?: ""
     }
 
     private fun loadFuelQueue(loc: Location): List<QueuedFuel> {
         val pos = net.momirealms.craftengine.core.world.BlockPos(loc.blockX, loc.blockY, loc.blockZ)
-        val dataString = org.shotrush.atom.content.workstation.core.WorkstationDataManager.getAllWorkstations()
-            .values.find { it.position == pos }?.fuelQueue ?: return emptyList()
+        val dataString = org.shotrush.atom.content.workstation.core.WorkstationDataManager.findWorkstationData(loc.world, pos)
+            ?.fuelQueue ?: return emptyList()
         
         return dataString.split(";").filter { it.isNotEmpty() }.map { entry ->
             val parts = entry.split(",")
@@ -175,7 +175,7 @@ class UniversalFuelFeature : CampfireRegistry.Listener {
 
     private fun clearPersistence(loc: Location) {
         val pos = net.momirealms.craftengine.core.world.BlockPos(loc.blockX, loc.blockY, loc.blockZ)
-        val data = org.shotrush.atom.content.workstation.core.WorkstationDataManager.getWorkstationData(pos, "campfire")
+        val data = org.shotrush.atom.content.workstation.core.WorkstationDataManager.getWorkstationData(loc.world, pos, "campfire")
         data.fuelQueue = ""
     }
 
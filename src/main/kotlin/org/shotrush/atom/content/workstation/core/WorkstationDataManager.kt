@@ -1,271 +1,660 @@
 package org.shotrush.atom.content.workstation.core
 
+import com.zaxxer.hikari.HikariConfig
+import com.zaxxer.hikari.HikariDataSource
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask
 import org.bukkit.Bukkit
+import org.bukkit.Chunk
 import org.bukkit.Location
+import org.bukkit.World
+import org.bukkit.block.Block
+import org.bukkit.configuration.ConfigurationSection
 import org.bukkit.configuration.file.YamlConfiguration
+import org.bukkit.event.EventHandler
+import org.bukkit.event.EventPriority
+import org.bukkit.event.Listener
+import org.bukkit.event.world.ChunkLoadEvent
+import org.bukkit.event.world.ChunkUnloadEvent
 import org.bukkit.inventory.ItemStack
 import org.joml.Vector3f
 import org.shotrush.atom.Atom
+import org.shotrush.atom.core.api.scheduler.SchedulerAPI
 import java.io.File
+import java.sql.SQLException
 import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.function.Consumer
 import net.momirealms.craftengine.core.world.BlockPos
 
 
-object WorkstationDataManager {
-    private val dataFile: File by lazy {
-        File(Atom.instance.dataFolder, "workstations.yml").apply {
-            if (!exists()) {
-                parentFile?.mkdirs()
-                createNewFile()
+object WorkstationDataManager : Listener {
+    private const val LEGACY_WORLD_NAME = "world"
+    private const val FLUSH_INTERVAL_SECONDS = 30L
+    private const val SHUTDOWN_FLUSH_TIMEOUT_MS = 10_000L
+    private const val LOAD_RETRY_SECONDS = 5L
+    private const val UPSERT_SQL =
+        "INSERT OR REPLACE INTO workstations (world, chunk_key, block_key, type, data) VALUES (?, ?, ?, ?, ?)"
+    private const val DELETE_SQL = "DELETE FROM workstations WHERE world = ? AND block_key = ?"
+
+    private val legacyFile: File by lazy {
+        File(Atom.instance.dataFolder, "workstations.yml")
+    }
+
+
+    private val worlds = ConcurrentHashMap<String, ConcurrentHashMap<Long, ConcurrentHashMap<Long, WorkstationData>>>()
+    private val storedChunks = ConcurrentHashMap<String, MutableSet<Long>>()
+    private val pendingRemovals = ConcurrentHashMap.newKeySet<StoredKey>()
+    private val loadingChunks = ConcurrentHashMap.newKeySet<StoredChunk>()
+    private val loadListeners = CopyOnWriteArrayList<Consumer<List<WorkstationData>>>()
+    private val flushLock = Any()
+    private var dataSource: HikariDataSource? = null
+    private var flushTask: ScheduledTask? = null
+    @Volatile
+    private var inFlight: List<String> = emptyList()
+
+    fun initialize() {
+        val plugin = Atom.instance
+        plugin.dataFolder.mkdirs()
+
+        val config = HikariConfig()
+        config.poolName = "Atom-Workstations"
+        config.jdbcUrl = "jdbc:sqlite:" + File(plugin.dataFolder, "workstations.db").absolutePath
+        config.driverClassName = "org.sqlite.JDBC"
+        config.maximumPoolSize = 1
+        dataSource = HikariDataSource(config)
+
+        createTable()
+        migrateLegacyFile()
+        loadStoredChunks()
+
+        Bukkit.getPluginManager().registerEvents(this, plugin)
+        SchedulerAPI.runGlobalTaskLater({ loadLoadedChunks() }, 1L)
+        flushTask = Bukkit.getAsyncScheduler().runAtFixedRate(plugin, { _ ->
+            flush()
+        }, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS)
+    }
+
+
+    /** Called off-thread with the entries of a chunk once they have been read from the table. */
+    @JvmStatic
+    fun onEntriesLoaded(listener: Consumer<List<WorkstationData>>) {
+        loadListeners.add(listener)
+    }
+
+
+    @JvmStatic
+    fun getWorkstationData(world: World, pos: BlockPos, type: String): WorkstationData {
+        return entriesFor(world.name, chunkKey(pos)).computeIfAbsent(blockKey(pos)) {
+            storedChunks.computeIfAbsent(world.name) { ConcurrentHashMap.newKeySet() }.add(chunkKey(pos))
+            WorkstationData(world.name, pos, type).apply {
+                placeholder = StoredChunk(world.name, chunkKey(pos)) in loadingChunks
+                markDirty()
             }
         }
     }
-    
-    private val config: YamlConfiguration by lazy {
-        YamlConfiguration.loadConfiguration(dataFile)
+
+    @JvmStatic
+    fun getWorkstationData(block: Block, type: String): WorkstationData {
+        return getWorkstationData(block.world, BlockPos(block.x, block.y, block.z), type)
     }
-    
-    
-    private val workstationData = mutableMapOf<String, WorkstationData>()
-    
-    fun initialize() {
-        loadData()
-        
-        Atom.instance?.let { plugin ->
-            
-            Bukkit.getAsyncScheduler().runAtFixedRate(plugin, { _ ->
-                saveData()
-            }, 5, 5, java.util.concurrent.TimeUnit.MINUTES)
-            
-            
-            Runtime.getRuntime().addShutdownHook(Thread {
-                saveData()
-                plugin.logger.info("Saved workstation data on shutdown")
-            })
-        }
+
+
+    @JvmStatic
+    fun findWorkstationData(world: World, pos: BlockPos): WorkstationData? {
+        return entriesFor(world.name, chunkKey(pos))[blockKey(pos)]
     }
-    
-    
-    fun getWorkstationData(pos: BlockPos, type: String): WorkstationData {
-        val key = positionKey(pos)
-        return workstationData.getOrPut(key) {
-            WorkstationData(pos, type, mutableListOf(), null)
-        }
+
+    @JvmStatic
+    fun findWorkstationData(block: Block): WorkstationData? {
+        return findWorkstationData(block.world, BlockPos(block.x, block.y, block.z))
     }
-    
-    
-    fun removeWorkstationData(pos: BlockPos) {
-        val key = positionKey(pos)
-        val data = workstationData.remove(key)
-        config.set(key, null)
-        
-        
-        data?.placedItems?.forEach { placedItem ->
+
+
+    @JvmStatic
+    fun removeWorkstationData(world: World, pos: BlockPos) {
+        val key = blockKey(pos)
+        val data = entriesFor(world.name, chunkKey(pos)).remove(key) ?: return
+        pendingRemovals.add(StoredKey(world.name, key))
+
+
+        data.placedItems.forEach { placedItem ->
             placedItem.displayUUID?.let { uuid ->
                 Bukkit.getEntity(uuid)?.remove()
             }
         }
-        
-        Atom.instance.logger.info("Removed workstation data for $key")
-    }
-    
-    
-    fun getPlacedItems(pos: BlockPos): MutableList<PlacedItem> {
-        val key = positionKey(pos)
-        return workstationData[key]?.placedItems ?: mutableListOf()
-    }
-    
-    
-    fun getAllWorkstations(): Map<String, WorkstationData> {
-        return workstationData.toMap()
-    }
-    
-    
-    fun hasWorkstation(pos: BlockPos): Boolean {
-        val key = positionKey(pos)
-        return workstationData.containsKey(key)
-    }
-    
-    
-    fun updatePlacedItems(pos: BlockPos, items: List<PlacedItem>) {
-        val key = positionKey(pos)
-        val data = workstationData[key]
-        if (data != null) {
-            data.placedItems.clear()
-            data.placedItems.addAll(items)
-        } else {
-            
-            val type = key.substringAfter("_").substringBefore("_") 
-            workstationData[key] = WorkstationData(pos, "unknown", items.toMutableList(), null)
-        }
+
+        Atom.instance.logger.info("Removed workstation data for ${positionKey(world.name, pos)}")
     }
-    
-    
-    private fun loadData() {
-        workstationData.clear()
-        
-        for (key in config.getKeys(false)) {
-            val section = config.getConfigurationSection(key) ?: continue
-            
-            val type = section.getString("type") ?: continue
-            val worldName = section.getString("world") ?: "world"
-            val x = section.getInt("x")
-            val y = section.getInt("y")
-            val z = section.getInt("z")
-            
-            val pos = BlockPos(x, y, z)
-            val placedItems = mutableListOf<PlacedItem>()
-            
-            
-            val itemsSection = section.getConfigurationSection("items")
-            if (itemsSection != null) {
-                for (itemKey in itemsSection.getKeys(false)) {
-                    val itemSection = itemsSection.getConfigurationSection(itemKey) ?: continue
-                    
-                    val material = itemSection.getString("material") ?: continue
-                    val amount = itemSection.getInt("amount", 1)
-                    val customItemId = itemSection.getString("custom_item_id")
-                    val posX = itemSection.getDouble("pos_x", 0.0).toFloat()
-                    val posY = itemSection.getDouble("pos_y", 0.0).toFloat()
-                    val posZ = itemSection.getDouble("pos_z", 0.0).toFloat()
-                    val yaw = itemSection.getDouble("yaw", 0.0).toFloat()
-                    val displayUuidString = itemSection.getString("display_uuid")
-                    
-                    
-                    val item = if (customItemId != null) {
-                        net.momirealms.craftengine.bukkit.api.CraftEngineItems.byId(
-                            net.momirealms.craftengine.core.util.Key.of(customItemId)
-                        )?.buildItemStack()?.apply {
-                            this.amount = amount
-                        }
-                    } else {
-                        null
-                    } ?: run {
-                        
-                        val bukkitMaterial = org.bukkit.Material.getMaterial(material)
-                        if (bukkitMaterial != null) {
-                            ItemStack(bukkitMaterial, amount)
-                        } else {
-                            null
+
+    @JvmStatic
+    fun removeWorkstationData(block: Block) {
+        removeWorkstationData(block.world, BlockPos(block.x, block.y, block.z))
+    }
+
+
+    fun getPlacedItems(world: World, pos: BlockPos): MutableList<PlacedItem> {
+        return findWorkstationData(world, pos)?.placedItems ?: mutableListOf()
+    }
+
+
+    @JvmStatic
+    fun getAllWorkstations(): List<WorkstationData> {
+        return worlds.values.flatMap { chunks -> chunks.values.flatMap { it.values } }
+    }
+
+
+    /**
+     * Every workstation of [type] in [world]. Entries of unloaded chunks are read straight from the table
+     * and are detached snapshots; changes to them are not saved.
+     */
+    fun getWorkstationsOfType(world: World, type: String): List<WorkstationData> {
+        val loaded = worlds[world.name]
+        val result = LinkedHashMap<Long, WorkstationData>()
+        loaded?.values?.forEach { entries ->
+            entries.forEach { (key, data) -> if (data.type == type) result[key] = data }
+        }
+
+        val source = dataSource ?: return result.values.toList()
+        try {
+            source.connection.use { connection ->
+                connection.prepareStatement("SELECT chunk_key, block_key, data FROM workstations WHERE world = ? AND type = ?").use { select ->
+                    select.setString(1, world.name)
+                    select.setString(2, type)
+                    select.executeQuery().use { rs ->
+                        while (rs.next()) {
+                            val key = rs.getLong(2)
+                            val chunkKey = rs.getLong(1)
+                            if (key in result) continue
+                            if (loaded?.containsKey(chunkKey) == true && StoredChunk(world.name, chunkKey) !in loadingChunks) continue
+                            if (StoredKey(world.name, key) in pendingRemovals) continue
+                            readRow(rs.getString(3))?.let { result[key] = it }
                         }
                     }
-                    
-                    if (item != null) {
-                        val position = Vector3f(posX, posY, posZ)
-                        val displayUuid = displayUuidString?.let { UUID.fromString(it) }
-                        placedItems.add(PlacedItem(item, position, yaw, displayUuid))
-                    }
                 }
             }
-            
-            
-            val curingStartTime = section.getLong("curing_start_time", 0L).takeIf { it > 0 }
-            val fuelQueue = section.getString("fuel_queue", "") ?: ""
-            
-            workstationData[key] = WorkstationData(pos, type, placedItems, curingStartTime, fuelQueue)
+        } catch (e: Exception) {
+            Atom.instance.logger.severe("Could not list $type workstations: ${e.message}")
         }
-        
-        Atom.instance.logger.info("Loaded ${workstationData.size} workstation data entries")
+        return result.values.toList()
     }
-    
-    
-    fun saveData() {
-        
-        for (key in config.getKeys(false)) {
-            config.set(key, null)
+
+
+    fun hasWorkstation(world: World, pos: BlockPos): Boolean {
+        return findWorkstationData(world, pos) != null
+    }
+
+
+    fun updatePlacedItems(world: World, pos: BlockPos, items: List<PlacedItem>) {
+        val data = getWorkstationData(world, pos, "unknown")
+        data.placedItems.clear()
+        data.placedItems.addAll(items)
+        data.markDirty()
+    }
+
+    @JvmStatic
+    fun getLoadedCount(): Int {
+        return worlds.values.sumOf { chunks -> chunks.values.sumOf { it.size } }
+    }
+
+    fun getPendingCount(): Int {
+        return pendingRemovals.size + getAllWorkstations().count { it.isDirty }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    fun onChunkLoad(event: ChunkLoadEvent) {
+        val worldName = event.world.name
+        val key = event.chunk.chunkKey
+        if (storedChunks[worldName]?.contains(key) != true) return
+        entriesFor(worldName, key)
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    fun onChunkUnload(event: ChunkUnloadEvent) {
+        worlds[event.world.name]?.computeIfPresent(event.chunk.chunkKey) { _, entries ->
+            if (entries.values.any { it.isDirty }) entries else null
         }
-        
-        
-        for ((key, data) in workstationData) {
-            val section = config.createSection(key)
-            
-            section.set("type", data.type)
-            section.set("world", "world") 
-            section.set("x", data.position.x())
-            section.set("y", data.position.y())
-            section.set("z", data.position.z())
-            
-            
-            if (data.placedItems.isNotEmpty()) {
-                val itemsSection = section.createSection("items")
-                data.placedItems.forEachIndexed { index, placedItem ->
-                    val itemSection = itemsSection.createSection("item_$index")
-                    itemSection.set("material", placedItem.item.type.name)
-                    itemSection.set("amount", placedItem.item.amount)
-                    
-                    
-                    val customItemId = net.momirealms.craftengine.bukkit.api.CraftEngineItems.getCustomItemId(placedItem.item)
-                    if (customItemId != null) {
-                        itemSection.set("custom_item_id", customItemId.value())
+    }
+
+
+    fun flush() {
+        if (pendingRemovals.isEmpty() && getAllWorkstations().none { it.isDirty }) return
+
+        synchronized(flushLock) {
+            val removals = ArrayList<StoredKey>()
+            for (key in pendingRemovals) {
+                if (pendingRemovals.remove(key)) removals.add(key)
+            }
+
+            val written = ArrayList<WorkstationData>()
+            val rows = ArrayList<PendingRow>()
+            for (data in getAllWorkstations()) {
+                if (data.placeholder || !data.consumeDirty()) continue
+                try {
+                    rows.add(PendingRow(data.worldName, chunkKey(data.position), blockKey(data.position), data.type, serialize(data)))
+                    written.add(data)
+                } catch (e: Exception) {
+                    Atom.instance.logger.warning("Could not serialize workstation at ${positionKey(data.worldName, data.position)}, retrying next flush")
+                    data.markDirty()
+                }
+            }
+
+            val source = dataSource ?: return
+            inFlight = removals.map { "removal of block ${it.blockKey} in ${it.world}" } +
+                written.map { positionKey(it.worldName, it.position) }
+            try {
+                source.connection.use { connection ->
+                    connection.autoCommit = false
+                    connection.prepareStatement(DELETE_SQL).use { delete ->
+                        for (key in removals) {
+                            delete.setString(1, key.world)
+                            delete.setLong(2, key.blockKey)
+                            delete.addBatch()
+                        }
+                        delete.executeBatch()
                     }
-                    
-                    itemSection.set("pos_x", placedItem.position.x.toDouble())
-                    itemSection.set("pos_y", placedItem.position.y.toDouble())
-                    itemSection.set("pos_z", placedItem.position.z.toDouble())
-                    itemSection.set("yaw", placedItem.yaw.toDouble())
-                    
-                    
-                    placedItem.displayUUID?.let {
-                        itemSection.set("display_uuid", it.toString())
+                    connection.prepareStatement(UPSERT_SQL).use { upsert ->
+                        for (row in rows) {
+                            upsert.setString(1, row.world)
+                            upsert.setLong(2, row.chunkKey)
+                            upsert.setLong(3, row.blockKey)
+                            upsert.setString(4, row.type)
+                            upsert.setString(5, row.data)
+                            upsert.addBatch()
+                        }
+                        upsert.executeBatch()
                     }
+                    connection.commit()
                 }
+            } catch (e: SQLException) {
+                pendingRemovals.addAll(removals)
+                written.forEach { it.markDirty() }
+                Atom.instance.logger.severe("Failed to save workstation data, retrying next flush: ${e.message}")
+            } finally {
+                inFlight = emptyList()
             }
-            
-            
-            data.curingStartTime?.let {
-                section.set("curing_start_time", it)
-            }
-            
-            if (data.fuelQueue.isNotEmpty()) {
-                section.set("fuel_queue", data.fuelQueue)
-            }
-        }
-        
-        
-        try {
-            config.save(dataFile)
-        } catch (e: Exception) {
-            Atom.instance.logger.severe("Failed to save workstation data: ${e.message}")
         }
     }
-    
-    
-    private fun positionKey(pos: BlockPos): String {
-        return "world_${pos.x()}_${pos.y()}_${pos.z()}"
+
+
+    fun shutdown() {
+        flushTask?.cancel()
+        flushTask = null
+
+        val flusher = Thread({ flush() }, "Atom-Workstation-Flush")
+        flusher.isDaemon = true
+        flusher.start()
+        flusher.join(SHUTDOWN_FLUSH_TIMEOUT_MS)
+        if (flusher.isAlive) {
+            val unsaved = inFlight + getAllWorkstations().filter { it.isDirty }.map { positionKey(it.worldName, it.position) } +
+                pendingRemovals.map { "removal of block ${it.blockKey} in ${it.world}" }
+            Atom.instance.logger.severe("Workstation flush did not finish within ${SHUTDOWN_FLUSH_TIMEOUT_MS}ms, " +
+                "these ${unsaved.size} change(s) may be lost: ${unsaved.joinToString()}")
+            // The stuck flush holds the flush lock, so close without it; the flush then fails instead of hanging on.
+            dataSource?.close()
+            dataSource = null
+            return
+        }
+
+        // Taking the flush lock keeps a timer flush that is still running from losing its connection.
+        synchronized(flushLock) {
+            dataSource?.close()
+            dataSource = null
+        }
     }
-    
-    
+
+
     fun cleanupOrphanedData() {
-        val world = Bukkit.getWorld("world") ?: return
-        val toRemove = mutableListOf<BlockPos>()
-        
-        workstationData.forEach { (key, data) ->
+        val toRemove = mutableListOf<Block>()
+
+        getAllWorkstations().forEach { data ->
+            val world = Bukkit.getWorld(data.worldName) ?: return@forEach
             val block = world.getBlockAt(data.position.x(), data.position.y(), data.position.z())
-            
-            
+
+
             val state = net.momirealms.craftengine.bukkit.api.CraftEngineBlocks.getCustomBlockState(block)
             if (state == null || !state.owner().matchesKey(net.momirealms.craftengine.core.util.Key.of("atom:${data.type}"))) {
-                toRemove.add(data.position)
+                toRemove.add(block)
                 Atom.instance.logger.info("Found orphaned workstation data at ${data.position}, cleaning up")
             }
         }
-        
-        toRemove.forEach { pos ->
-            removeWorkstationData(pos)
+
+        toRemove.forEach { block ->
+            removeWorkstationData(block)
         }
-        
+
         if (toRemove.isNotEmpty()) {
-            saveData()
             Atom.instance.logger.info("Cleaned up ${toRemove.size} orphaned workstation entries")
         }
     }
-    
-    
-    data class WorkstationData(
+
+
+    // Never touches the database: a stored chunk that isn't loaded yet is read asynchronously and stays empty until then.
+    private fun entriesFor(worldName: String, chunkKey: Long): ConcurrentHashMap<Long, WorkstationData> {
+        val chunks = worlds.computeIfAbsent(worldName) { ConcurrentHashMap() }
+        chunks[chunkKey]?.let { return it }
+
+        val entries = chunks.computeIfAbsent(chunkKey) { ConcurrentHashMap() }
+        if (storedChunks[worldName]?.contains(chunkKey) == true) requestLoad(worldName, chunkKey)
+        return entries
+    }
+
+    private fun requestLoad(worldName: String, chunkKey: Long) {
+        val loading = StoredChunk(worldName, chunkKey)
+        if (!loadingChunks.add(loading)) return
+
+        Bukkit.getAsyncScheduler().runNow(Atom.instance) { _ -> readChunk(loading) }
+    }
+
+    /**
+     * Entries created by lookups while the chunk was being read are placeholders: they are not saved
+     * until the stored rows have been merged into them, so they never overwrite what is in the table.
+     */
+    private fun readChunk(loading: StoredChunk) {
+        val loaded = loadChunk(loading.world, loading.chunkKey)
+        if (loaded == null) {
+            if (dataSource != null) {
+                Bukkit.getAsyncScheduler().runDelayed(Atom.instance, { _ -> readChunk(loading) }, LOAD_RETRY_SECONDS, TimeUnit.SECONDS)
+            }
+            return
+        }
+
+        // The chunk may have unloaded and reloaded meanwhile, so fill whatever map is current.
+        val added = ArrayList<WorkstationData>()
+        worlds[loading.world]?.get(loading.chunkKey)?.let { entries ->
+            loaded.forEach { (key, data) ->
+                val existing = entries.putIfAbsent(key, data)
+                if (existing == null) {
+                    added.add(data)
+                } else if (existing.placeholder) {
+                    existing.mergeStored(data)
+                    added.add(existing)
+                }
+            }
+        }
+
+        loadingChunks.remove(loading)
+        worlds[loading.world]?.get(loading.chunkKey)?.values?.forEach { it.placeholder = false }
+        if (added.isNotEmpty()) loadListeners.forEach { it.accept(added) }
+    }
+
+    private fun createTable() {
+        try {
+            dataSource!!.connection.use { connection ->
+                connection.createStatement().use { statement ->
+                    statement.execute("PRAGMA journal_mode=WAL")
+                    statement.execute("CREATE TABLE IF NOT EXISTS workstations (" +
+                        "world TEXT NOT NULL, " +
+                        "chunk_key INTEGER NOT NULL, " +
+                        "block_key INTEGER NOT NULL, " +
+                        "type TEXT NOT NULL, " +
+                        "data TEXT NOT NULL, " +
+                        "PRIMARY KEY (world, block_key))")
+                    statement.execute("CREATE INDEX IF NOT EXISTS workstations_by_chunk ON workstations (world, chunk_key)")
+                }
+            }
+        } catch (e: SQLException) {
+            Atom.instance.logger.severe("Could not create workstations table: ${e.message}")
+        }
+    }
+
+    private fun migrateLegacyFile() {
+        if (!legacyFile.exists()) return
+
+        val config = YamlConfiguration.loadConfiguration(legacyFile)
+        var migrated = 0
+        for (key in config.getKeys(false)) {
+            val section = config.getConfigurationSection(key) ?: continue
+            val data = readEntry(section) ?: continue
+            data.markDirty()
+            storedChunks.computeIfAbsent(data.worldName) { ConcurrentHashMap.newKeySet() }.add(chunkKey(data.position))
+            entriesFor(data.worldName, chunkKey(data.position))[blockKey(data.position)] = data
+            migrated++
+        }
+        flush()
+
+        if (getPendingCount() > 0) {
+            Atom.instance.logger.severe("Could not migrate workstations.yml, leaving it in place!")
+            return
+        }
+        if (!legacyFile.renameTo(File(Atom.instance.dataFolder, "workstations.yml.migrated"))) {
+            Atom.instance.logger.warning("Could not rename workstations.yml after migration")
+        }
+        // Migrated entries are saved now, so they come back through the chunk loads like every other workstation.
+        worlds.clear()
+        Atom.instance.logger.info("Migrated $migrated workstation data entries from workstations.yml")
+    }
+
+    private fun loadStoredChunks() {
+        val source = dataSource ?: return
+        var count = 0
+        try {
+            source.connection.use { connection ->
+                connection.prepareStatement("SELECT DISTINCT world, chunk_key FROM workstations").use { select ->
+                    select.executeQuery().use { rs ->
+                        while (rs.next()) {
+                            storedChunks.computeIfAbsent(rs.getString(1)) { ConcurrentHashMap.newKeySet() }.add(rs.getLong(2))
+                            count++
+                        }
+                    }
+                }
+            }
+        } catch (e: SQLException) {
+            Atom.instance.logger.severe("Could not list workstation chunks: ${e.message}")
+        }
+        Atom.instance.logger.info("Found workstation data in $count chunk(s)")
+    }
+
+    private fun loadLoadedChunks() {
+        storedChunks.forEach { (worldName, chunkKeys) ->
+            val world = Bukkit.getWorld(worldName) ?: return@forEach
+            chunkKeys.forEach { key ->
+                if (world.isChunkLoaded(key.toInt(), (key shr 32).toInt())) entriesFor(worldName, key)
+            }
+        }
+    }
+
+    private fun loadChunk(worldName: String, chunkKey: Long): ConcurrentHashMap<Long, WorkstationData>? {
+        val entries = ConcurrentHashMap<Long, WorkstationData>()
+        val source = dataSource ?: return null
+        try {
+            source.connection.use { connection ->
+                connection.prepareStatement("SELECT block_key, data FROM workstations WHERE world = ? AND chunk_key = ?").use { select ->
+                    select.setString(1, worldName)
+                    select.setLong(2, chunkKey)
+                    select.executeQuery().use { rs ->
+                        while (rs.next()) {
+                            val key = rs.getLong(1)
+                            if (StoredKey(worldName, key) in pendingRemovals) continue
+                            readRow(rs.getString(2))?.let { entries[key] = it }
+                        }
+                    }
+                }
+            }
+        } catch (e: Exception) {
+            Atom.instance.logger.severe("Could not load workstation data for chunk ${chunkKey.toInt()}, ${(chunkKey shr 32).toInt()} in $worldName, retrying: ${e.message}")
+            return null
+        }
+        return entries
+    }
+
+    private fun readRow(data: String): WorkstationData? {
+        val document = YamlConfiguration()
+        document.loadFromString(data)
+        return readEntry(document)
+    }
+
+    private fun readEntry(section: ConfigurationSection): WorkstationData? {
+        val type = section.getString("type") ?: return null
+        val worldName = section.getString("world") ?: LEGACY_WORLD_NAME
+        val x = section.getInt("x")
+        val y = section.getInt("y")
+        val z = section.getInt("z")
+
+        val pos = BlockPos(x, y, z)
+        val placedItems = mutableListOf<PlacedItem>()
+
+
+        val itemsSection = section.getConfigurationSection("items")
+        if (itemsSection != null) {
+            for (itemKey in itemsSection.getKeys(false)) {
+                val itemSection = itemsSection.getConfigurationSection(itemKey) ?: continue
+
+                val material = itemSection.getString("material") ?: continue
+                val amount = itemSection.getInt("amount", 1)
+                val customItemId = itemSection.getString("custom_item_id")
+                val posX = itemSection.getDouble("pos_x", 0.0).toFloat()
+                val posY = itemSection.getDouble("pos_y", 0.0).toFloat()
+                val posZ = itemSection.getDouble("pos_z", 0.0).toFloat()
+                val yaw = itemSection.getDouble("yaw", 0.0).toFloat()
+                val displayUuidString = itemSection.getString("display_uuid")
+
+
+                val item = itemSection.getItemStack("item")
+                    ?: customItemId?.let { id ->
+                        net.momirealms.craftengine.bukkit.api.CraftEngineItems.byId(
+                            net.momirealms.craftengine.core.util.Key.of(id)
+                        )?.buildItemStack()?.apply {
+                            this.amount = amount
+                        }
+                    }
+                    ?: org.bukkit.Material.getMaterial(material)?.let { ItemStack(it, amount) }
+
+                if (item != null) {
+                    val position = Vector3f(posX, posY, posZ)
+                    val displayUuid = displayUuidString?.let { UUID.fromString(it) }
+                    placedItems.add(PlacedItem(item, position, yaw, displayUuid))
+                }
+            }
+        }
+
+
+        val curingStartTime = section.getLong("curing_start_time", 0L).takeIf { it > 0 }
+        val fuelQueue = section.getString("fuel_queue", "") ?: ""
+
+        return WorkstationData(worldName, pos, type, placedItems, curingStartTime, fuelQueue)
+    }
+
+
+    private fun serialize(data: WorkstationData): String {
+        val section = YamlConfiguration()
+
+        section.set("type", data.type)
+        section.set("world", data.worldName)
+        section.set("x", data.position.x())
+        section.set("y", data.position.y())
+        section.set("z", data.position.z())
+
+
+        val placedItems = data.placedItems.toList()
+        if (placedItems.isNotEmpty()) {
+            val itemsSection = section.createSection("items")
+            placedItems.forEachIndexed { index, placedItem ->
+                val itemSection = itemsSection.createSection("item_$index")
+                itemSection.set("material", placedItem.item.type.name)
+                itemSection.set("amount", placedItem.item.amount)
+                itemSection.set("item", placedItem.item)
+
+
+                val customItemId = net.momirealms.craftengine.bukkit.api.CraftEngineItems.getCustomItemId(placedItem.item)
+                if (customItemId != null) {
+                    itemSection.set("custom_item_id", customItemId.value())
+                }
+
+                itemSection.set("pos_x", placedItem.position.x.toDouble())
+                itemSection.set("pos_y", placedItem.position.y.toDouble())
+                itemSection.set("pos_z", placedItem.position.z.toDouble())
+                itemSection.set("yaw", placedItem.yaw.toDouble())
+            }
+        }
+
+
+        data.curingStartTime?.let {
+            section.set("curing_start_time", it)
+        }
+
+        val fuelQueue = data.fuelQueue
+        if (fuelQueue.isNotEmpty()) {
+            section.set("fuel_queue", fuelQueue)
+        }
+
+        return section.saveToString()
+    }
+
+
+    private fun positionKey(worldName: String, pos: BlockPos): String {
+        return "${worldName}_${pos.x()}_${pos.y()}_${pos.z()}"
+    }
+
+    private fun chunkKey(pos: BlockPos): Long {
+        return Chunk.getChunkKey(pos.x() shr 4, pos.z() shr 4)
+    }
+
+    private fun blockKey(pos: BlockPos): Long {
+        return Block.getBlockKey(pos.x(), pos.y(), pos.z())
+    }
+
+
+    private data class StoredKey(val world: String, val blockKey: Long)
+
+    private data class StoredChunk(val world: String, val chunkKey: Long)
+
+    private data class PendingRow(val world: String, val chunkKey: Long, val blockKey: Long, val type: String, val data: String)
+
+
+    class WorkstationData(
+        val worldName: String,
         val position: BlockPos,
         val type: String,
-        val placedItems: MutableList<PlacedItem>,
-        var curingStartTime: Long? = null,
-        var fuelQueue: String = ""
-    )
+        placedItems: List<PlacedItem> = emptyList(),
+        curingStartTime: Long? = null,
+        fuelQueue: String = ""
+    ) {
+        private val dirty = AtomicBoolean(false)
+
+        /** Created before its chunk's stored row was read; never saved while set. */
+        @Volatile
+        internal var placeholder = false
+
+        val placedItems: MutableList<PlacedItem> = CopyOnWriteArrayList(placedItems)
+
+        @Volatile
+        var curingStartTime: Long? = curingStartTime
+            set(value) {
+                field = value
+                markDirty()
+            }
+
+        @Volatile
+        var fuelQueue: String = fuelQueue
+            set(value) {
+                field = value
+                markDirty()
+            }
+
+        val isDirty: Boolean
+            get() = dirty.get()
+
+        fun getLocation(): Location? {
+            val world = Bukkit.getWorld(worldName) ?: return null
+            return Location(world, position.x().toDouble(), position.y().toDouble(), position.z().toDouble())
+        }
+
+        fun markDirty() {
+            dirty.set(true)
+        }
+
+        internal fun consumeDirty(): Boolean {
+            return dirty.getAndSet(false)
+        }
+
+        internal fun mergeStored(stored: WorkstationData) {
+            placedItems.addAll(0, stored.placedItems)
+            if (curingStartTime == null) curingStartTime = stored.curingStartTime
+            if (fuelQueue.isEmpty()) fuelQueue = stored.fuelQueue
+            markDirty()
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package org.shotrush.atom.core.api.player
+
+import org.bukkit.entity.Player
+import org.bukkit.event.EventHandler
+import org.bukkit.event.EventPriority
+import org.bukkit.event.Listener
+import org.bukkit.event.player.PlayerQuitEvent
+import org.bukkit.inventory.ItemStack
+import org.shotrush.atom.core.api.annotation.RegisterSystem
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Survival stats of one online player, held as primitives.
+ *
+ * Fields are written from the player's own region thread (their scheduled tasks and events)
+ * and are volatile so other threads, such as shutdown saves, read the latest value.
+ * Systems should resolve the state once when the player joins and keep the reference.
+ */
+class PlayerState internal constructor(val playerId: UUID) {
+
+    @Volatile
+    var bodyTemperature = NORMAL_BODY_TEMPERATURE
+
+    @Volatile
+    var wetness = 0.0
+
+    @Volatile
+    var thirst = MAX_THIRST
+
+    @Volatile
+    var thirstDamageTicks = 0
+
+    @Volatile
+    var lastHeldItem: ItemStack? = null
+
+    private val slotHeat = DoubleArray(HOTBAR_SLOTS) { Double.NaN }
+
+    fun hasSlotHeat(slot: Int): Boolean = slot in 0 until HOTBAR_SLOTS && !slotHeat[slot].isNaN()
+
+    fun getSlotHeat(slot: Int): Double = if (slot in 0 until HOTBAR_SLOTS) slotHeat[slot] else Double.NaN
+
+    fun setSlotHeat(slot: Int, heat: Double) {
+        if (slot in 0 until HOTBAR_SLOTS) slotHeat[slot] = heat
+    }
+
+    fun clearSlotHeat() {
+        slotHeat.fill(Double.NaN)
+        lastHeldItem = null
+    }
+
+    fun resetVitals() {
+        bodyTemperature = NORMAL_BODY_TEMPERATURE
+        wetness = 0.0
+    }
+
+    companion object {
+        const val NORMAL_BODY_TEMPERATURE = 37.0
+        const val MAX_THIRST = 20.0
+        const val HOTBAR_SLOTS = 9
+
+        private val states = ConcurrentHashMap<UUID, PlayerState>()
+
+        @JvmStatic
+        fun of(player: Player): PlayerState = states.computeIfAbsent(player.uniqueId) { PlayerState(it) }
+
+        @JvmStatic
+        fun find(player: Player): PlayerState? = states[player.uniqueId]
+
+        @JvmStatic
+        fun getTrackedCount(): Int = states.size
+
+        internal fun remove(playerId: UUID) {
+            states.remove(playerId)
+        }
+    }
+}
+
+@RegisterSystem(
+    id = "player_state",
+    priority = 0,
+    toggleable = false,
+    description = "Drops per-player survival state once every system has saved it"
+)
+class PlayerStateTracker : Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    fun onPlayerQuit(event: PlayerQuitEvent) {
+        PlayerState.remove(event.player.uniqueId)
+    }
+}
@@ -0,0 +1,136 @@
+package org.shotrush.atom.core.api.world
+
+import org.bukkit.Chunk
+import org.bukkit.Location
+import org.bukkit.block.Block
+import org.bukkit.event.EventHandler
+import org.bukkit.event.EventPriority
+import org.bukkit.event.Listener
+import org.bukkit.event.weather.ThunderChangeEvent
+import org.bukkit.event.weather.WeatherChangeEvent
+import org.bukkit.event.world.ChunkUnloadEvent
+import org.bukkit.event.world.TimeSkipEvent
+import org.bukkit.event.world.WorldUnloadEvent
+import org.bukkit.plugin.Plugin
+import org.shotrush.atom.core.api.annotation.RegisterSystem
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Coarse grid of ambient temperatures shared by every caller of [EnvironmentalFactorAPI.getAmbientTemperature].
+ *
+ * Each cell is sampled at its centre and reused until it goes stale, a heat source near it changes,
+ * or the world's weather or time jumps. Cell size and staleness come from `temperature.ambient-grid`.
+ */
+@RegisterSystem(
+    id = "ambient_temperature_grid",
+    priority = 1,
+    toggleable = false,
+    description = "Shares coarse ambient temperature samples between nearby callers"
+)
+class AmbientTemperatureGrid(plugin: Plugin) : Listener {
+
+    init {
+        val config = plugin.config
+        configure(
+            config.getInt("temperature.ambient-grid.cell-size", DEFAULT_CELL_SIZE),
+            config.getLong("temperature.ambient-grid.staleness-ticks", DEFAULT_STALENESS_TICKS)
+        )
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onWeatherChange(event: WeatherChangeEvent) = invalidateWorld(event.world.uid)
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onThunderChange(event: ThunderChangeEvent) = invalidateWorld(event.world.uid)
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onTimeSkip(event: TimeSkipEvent) = invalidateWorld(event.world.uid)
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    fun onChunkUnload(event: ChunkUnloadEvent) {
+        worlds[event.world.uid]?.remove(event.chunk.chunkKey)
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    fun onWorldUnload(event: WorldUnloadEvent) = invalidateWorld(event.world.uid)
+
+    private class Cell(val temperature: Double, val expiresAt: Long)
+
+    companion object {
+        const val HEAT_SOURCE_RADIUS = 5
+        private const val DEFAULT_CELL_SIZE = 4
+        private const val DEFAULT_STALENESS_TICKS = 20L
+
+        private val worlds = ConcurrentHashMap<UUID, ConcurrentHashMap<Long, ConcurrentHashMap<Long, Cell>>>()
+
+        @Volatile
+        private var cellShift = Integer.numberOfTrailingZeros(DEFAULT_CELL_SIZE)
+
+        @Volatile
+        private var stalenessMillis = DEFAULT_STALENESS_TICKS * 50L
+
+        @JvmStatic
+        fun configure(cellSize: Int, stalenessTicks: Long) {
+            val size = Integer.highestOneBit(cellSize.coerceIn(1, 16))
+            cellShift = Integer.numberOfTrailingZeros(size)
+            stalenessMillis = stalenessTicks.coerceAtLeast(0L) * 50L
+            worlds.clear()
+        }
+
+        @JvmStatic
+        fun getCellSize(): Int = 1 shl cellShift
+
+        @JvmStatic
+        fun sample(loc: Location): Double {
+            val world = loc.world
+            val shift = cellShift
+            val cellX = loc.blockX shr shift
+            val cellY = loc.blockY shr shift
+            val cellZ = loc.blockZ shr shift
+
+            val cells = worlds
+                .computeIfAbsent(world.uid) { ConcurrentHashMap() }
+                .computeIfAbsent(chunkKey(cellX, cellZ, shift)) { ConcurrentHashMap() }
+            val key = Block.getBlockKey(cellX, cellY, cellZ)
+
+            val now = System.currentTimeMillis()
+            val cached = cells[key]
+            if (cached != null && now < cached.expiresAt) return cached.temperature
+
+            val half = (1 shl shift) / 2.0
+            val center = Location(world, (cellX shl shift) + half, ((cellY shl shift) + half).coerceAtMost(world.maxHeight - 1.0), (cellZ shl shift) + half)
+            val temperature = EnvironmentalFactorAPI.computeAmbientTemperature(center)
+            cells[key] = Cell(temperature, now + stalenessMillis)
+            return temperature
+        }
+
+        @JvmStatic
+        fun invalidateAround(block: Block) {
+            val chunks = worlds[block.world.uid] ?: return
+            val shift = cellShift
+            val r = HEAT_SOURCE_RADIUS
+
+            for (cellX in ((block.x - r) shr shift)..((block.x + r) shr shift)) {
+                for (cellZ in ((block.z - r) shr shift)..((block.z + r) shr shift)) {
+                    val cells = chunks[chunkKey(cellX, cellZ, shift)] ?: continue
+                    for (cellY in ((block.y - r) shr shift)..((block.y + r) shr shift)) {
+                        cells.remove(Block.getBlockKey(cellX, cellY, cellZ))
+                    }
+                }
+            }
+        }
+
+        @JvmStatic
+        fun invalidateWorld(world: UUID) {
+            worlds.remove(world)
+        }
+
+        @JvmStatic
+        fun getCachedCellCount(): Int = worlds.values.sumOf { chunks -> chunks.values.sumOf { it.size } }
+
+        private fun chunkKey(cellX: Int, cellZ: Int, shift: Int): Long {
+            return Chunk.getChunkKey((cellX shl shift) shr 4, (cellZ shl shift) shr 4)
+        }
+    }
+}
@@ -1,13 +1,10 @@
 package org.shotrush.atom.core.api.world
 
 import org.bukkit.Location
-import org.bukkit.Material
 import org.bukkit.World
-import org.bukkit.block.data.Lightable
 import org.bukkit.entity.Player
 import kotlin.math.cos
 import kotlin.math.max
-import kotlin.math.sqrt
 import kotlin.math.PI
 
 object EnvironmentalFactorAPI {
@@ -46,38 +43,7 @@ object EnvironmentalFactorAPI {
     
     @JvmStatic
     fun getNearbyHeatSources(location: Location, radius: Int): Double {
-        var heatChange = 0.0
-
-        for (x in -radius..radius) {
-            for (y in -radius..radius) {
-                for (z in -radius..radius) {
-                    val block = location.clone().add(x.toDouble(), y.toDouble(), z.toDouble()).block
-                    val distance = sqrt((x*x + y*y + z*z).toDouble())
-                    
-                    if (distance == 0.0) continue
-                    
-                    val influence = 1.0 / (distance * distance)
-                    val type = block.type
-                    
-                    if (type == Material.FIRE || type == Material.SOUL_FIRE) heatChange += 15.0 * influence
-                    else if (type == Material.LAVA) heatChange += 30.0 * influence
-                    else if (type == Material.MAGMA_BLOCK) heatChange += 10.0 * influence
-                    else if (type == Material.CAMPFIRE) {
-                         val data = block.blockData
-                         if (data is Lightable && data.isLit) heatChange += 10.0 * influence
-                    }
-                    else if (type == Material.SOUL_CAMPFIRE) {
-                         val data = block.blockData
-                         if (data is Lightable && data.isLit) heatChange += 8.0 * influence
-                    }
-                    else if (type == Material.ICE || type == Material.PACKED_ICE) heatChange -= 5.0 * influence
-                    else if (type == Material.BLUE_ICE) heatChange -= 8.0 * influence
-                    else if (type == Material.SNOW || type == Material.SNOW_BLOCK) heatChange -= 3.0 * influence
-                }
-            }
-        }
-        
-        return heatChange
+        return HeatSourceCache.sumHeat(location, radius)
     }
     
     @JvmStatic
@@ -87,6 +53,11 @@ object EnvironmentalFactorAPI {
 
     @JvmStatic
     fun getAmbientTemperature(loc: Location): Double {
+        return AmbientTemperatureGrid.sample(loc)
+    }
+
+    @JvmStatic
+    fun computeAmbientTemperature(loc: Location): Double {
         val world = loc.world
         val mcTemp = loc.block.temperature
         
@@ -101,7 +72,7 @@ object EnvironmentalFactorAPI {
         
         temp += getWeatherModifier(world, temp)
         temp += SeasonAPI.getCurrentSeason(world).tempModifier
-        temp += getNearbyHeatSources(loc, 5)
+        temp += getNearbyHeatSources(loc, AmbientTemperatureGrid.HEAT_SOURCE_RADIUS)
         
 
         if (loc.block.lightFromSky < 10 && loc.blockY < 60) {
@@ -0,0 +1,47 @@
+package org.shotrush.atom.core.api.world
+
+import org.bukkit.Location
+import kotlin.math.sqrt
+
+
+object HeatSourceBenchmark {
+
+    fun run(location: Location, radius: Int, iterations: Int): List<String> {
+        var legacyResult = 0.0
+        var start = System.nanoTime()
+        repeat(iterations) { legacyResult = cubeScan(location, radius) }
+        val legacyNanos = System.nanoTime() - start
+
+        HeatSourceCache.sumHeat(location, radius)
+        var cachedResult = 0.0
+        start = System.nanoTime()
+        repeat(iterations) { cachedResult = HeatSourceCache.sumHeat(location, radius) }
+        val cachedNanos = System.nanoTime() - start
+
+        return listOf(
+            String.format("cube scan: %.1fus/call (heat %.2f)", legacyNanos / 1000.0 / iterations, legacyResult),
+            String.format("cached:    %.1fus/call (heat %.2f)", cachedNanos / 1000.0 / iterations, cachedResult),
+            String.format("speedup:   %.1fx over %d calls, radius %d", legacyNanos / cachedNanos.coerceAtLeast(1).toDouble(), iterations, radius)
+        )
+    }
+
+    private fun cubeScan(location: Location, radius: Int): Double {
+        var heatChange = 0.0
+
+        for (x in -radius..radius) {
+            for (y in -radius..radius) {
+                for (z in -radius..radius) {
+                    val block = location.clone().add(x.toDouble(), y.toDouble(), z.toDouble()).block
+                    val distance = sqrt((x * x + y * y + z * z).toDouble())
+
+                    if (distance == 0.0) continue
+
+                    val influence = 1.0 / (distance * distance)
+                    heatChange += HeatSourceCache.heatOf(block.type) { block.blockData } * influence
+                }
+            }
+        }
+
+        return heatChange
+    }
+}
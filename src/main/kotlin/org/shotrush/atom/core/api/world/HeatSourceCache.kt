@@ -0,0 +1,238 @@
+package org.shotrush.atom.core.api.world
+
+import org.bukkit.Chunk
+import org.bukkit.Location
+import org.bukkit.Material
+import org.bukkit.World
+import org.bukkit.block.Block
+import org.bukkit.block.data.BlockData
+import org.bukkit.block.data.Lightable
+import org.bukkit.event.EventHandler
+import org.bukkit.event.EventPriority
+import org.bukkit.event.Listener
+import org.bukkit.event.block.*
+import org.bukkit.event.entity.EntityChangeBlockEvent
+import org.bukkit.event.entity.EntityExplodeEvent
+import org.bukkit.event.world.ChunkUnloadEvent
+import org.bukkit.event.world.WorldUnloadEvent
+import org.shotrush.atom.core.api.annotation.RegisterSystem
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Sparse per-section cache of heat-emitting blocks backing [EnvironmentalFactorAPI.getNearbyHeatSources].
+ *
+ * Sections are scanned lazily on the first query that touches them and dropped again when a block
+ * inside changes or the chunk unloads. A section is also rescanned after [REFRESH_MS] so changes
+ * that fire no event (fluids, other plugins) are picked up eventually.
+ */
+@RegisterSystem(
+    id = "heat_source_cache",
+    priority = 1,
+    toggleable = false,
+    description = "Caches heat-emitting blocks per chunk section for temperature lookups"
+)
+class HeatSourceCache : Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onPlace(event: BlockPlaceEvent) = invalidate(event.block)
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onBreak(event: BlockBreakEvent) {
+        if (isHeatSource(event.block.type)) invalidate(event.block)
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onPhysics(event: BlockPhysicsEvent) {
+        if (isHeatSource(event.changedType)) invalidate(event.block)
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onBurn(event: BlockBurnEvent) = invalidate(event.block)
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onIgnite(event: BlockIgniteEvent) = invalidate(event.block)
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onSpread(event: BlockSpreadEvent) {
+        if (isHeatSource(event.newState.type)) invalidate(event.block)
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onForm(event: BlockFormEvent) {
+        if (isHeatSource(event.newState.type)) invalidate(event.block)
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onFade(event: BlockFadeEvent) {
+        if (isHeatSource(event.block.type)) invalidate(event.block)
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onFlow(event: BlockFromToEvent) {
+        if (event.block.type == Material.LAVA) invalidate(event.toBlock)
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onEntityChangeBlock(event: EntityChangeBlockEvent) {
+        if (isHeatSource(event.block.type) || isHeatSource(event.to)) invalidate(event.block)
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onBlockExplode(event: BlockExplodeEvent) = event.blockList().forEach { invalidate(it) }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    fun onEntityExplode(event: EntityExplodeEvent) = event.blockList().forEach { invalidate(it) }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    fun onChunkUnload(event: ChunkUnloadEvent) {
+        worlds[event.world.uid]?.remove(event.chunk.chunkKey)
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    fun onWorldUnload(event: WorldUnloadEvent) {
+        worlds.remove(event.world.uid)
+    }
+
+    private class Section(
+        val xs: IntArray,
+        val ys: IntArray,
+        val zs: IntArray,
+        val heat: DoubleArray,
+        val scannedAt: Long
+    )
+
+    companion object {
+        const val MAX_TABLE_RADIUS = 8
+        private const val REFRESH_MS = 30_000L
+
+        private val EMPTY = IntArray(0)
+        private val worlds = ConcurrentHashMap<UUID, ConcurrentHashMap<Long, ConcurrentHashMap<Int, Section>>>()
+
+        private val INVERSE_SQUARE = DoubleArray(3 * MAX_TABLE_RADIUS * MAX_TABLE_RADIUS + 1) { d2 ->
+            if (d2 == 0) 0.0 else 1.0 / d2
+        }
+
+        @JvmStatic
+        fun heatOf(type: Material, data: () -> BlockData): Double = when (type) {
+            Material.FIRE, Material.SOUL_FIRE -> 15.0
+            Material.LAVA -> 30.0
+            Material.MAGMA_BLOCK -> 10.0
+            Material.CAMPFIRE -> if ((data() as? Lightable)?.isLit == true) 10.0 else 0.0
+            Material.SOUL_CAMPFIRE -> if ((data() as? Lightable)?.isLit == true) 8.0 else 0.0
+            Material.ICE, Material.PACKED_ICE -> -5.0
+            Material.BLUE_ICE -> -8.0
+            Material.SNOW, Material.SNOW_BLOCK -> -3.0
+            else -> 0.0
+        }
+
+        @JvmStatic
+        fun isHeatSource(type: Material): Boolean = when (type) {
+            Material.FIRE, Material.SOUL_FIRE, Material.LAVA, Material.MAGMA_BLOCK,
+            Material.CAMPFIRE, Material.SOUL_CAMPFIRE,
+            Material.ICE, Material.PACKED_ICE, Material.BLUE_ICE,
+            Material.SNOW, Material.SNOW_BLOCK -> true
+            else -> false
+        }
+
+        /**
+         * Sums heat influence over the cube of [radius] around [location], weighting each source by 1 / d².
+         * Unloaded chunks contribute nothing. Must run on the thread owning [location].
+         */
+        @JvmStatic
+        fun sumHeat(location: Location, radius: Int): Double {
+            val world = location.world ?: return 0.0
+            val bx = location.blockX
+            val by = location.blockY
+            val bz = location.blockZ
+
+            val minSectionY = world.minHeight shr 4
+            val maxSectionY = (world.maxHeight - 1) shr 4
+            var heat = 0.0
+
+            for (cx in ((bx - radius) shr 4)..((bx + radius) shr 4)) {
+                for (cz in ((bz - radius) shr 4)..((bz + radius) shr 4)) {
+                    if (!world.isChunkLoaded(cx, cz)) continue
+
+                    for (sy in maxOf((by - radius) shr 4, minSectionY)..minOf((by + radius) shr 4, maxSectionY)) {
+                        val section = section(world, cx, sy, cz)
+                        for (i in section.heat.indices) {
+                            val dx = section.xs[i] - bx
+                            val dy = section.ys[i] - by
+                            val dz = section.zs[i] - bz
+                            if (dx > radius || dx < -radius || dy > radius || dy < -radius || dz > radius || dz < -radius) continue
+
+                            val d2 = dx * dx + dy * dy + dz * dz
+                            if (d2 == 0) continue
+                            heat += section.heat[i] * if (radius <= MAX_TABLE_RADIUS) INVERSE_SQUARE[d2] else 1.0 / d2
+                        }
+                    }
+                }
+            }
+
+            return heat
+        }
+
+        @JvmStatic
+        fun invalidate(block: Block) {
+            worlds[block.world.uid]
+                ?.get(Chunk.getChunkKey(block.x shr 4, block.z shr 4))
+                ?.remove(block.y shr 4)
+            AmbientTemperatureGrid.invalidateAround(block)
+        }
+
+        @JvmStatic
+        fun getCachedSectionCount(): Int = worlds.values.sumOf { chunks -> chunks.values.sumOf { it.size } }
+
+        private fun section(world: World, cx: Int, sy: Int, cz: Int): Section {
+            val sections = worlds
+                .computeIfAbsent(world.uid) { ConcurrentHashMap() }
+                .computeIfAbsent(Chunk.getChunkKey(cx, cz)) { ConcurrentHashMap() }
+
+            val now = System.currentTimeMillis()
+            val cached = sections[sy]
+            if (cached != null && now - cached.scannedAt < REFRESH_MS) return cached
+
+            val scanned = scan(world, cx, sy, cz, now)
+            sections[sy] = scanned
+            return scanned
+        }
+
+        private fun scan(world: World, cx: Int, sy: Int, cz: Int, now: Long): Section {
+            var xs = EMPTY
+            var ys = EMPTY
+            var zs = EMPTY
+            var heat = DoubleArray(0)
+            var size = 0
+
+            val baseX = cx shl 4
+            val baseY = sy shl 4
+            val baseZ = cz shl 4
+            for (ly in 0 until 16) {
+                for (lz in 0 until 16) {
+                    for (lx in 0 until 16) {
+                        val type = world.getType(baseX + lx, baseY + ly, baseZ + lz)
+                        if (!isHeatSource(type)) continue
+                        val value = heatOf(type) { world.getBlockData(baseX + lx, baseY + ly, baseZ + lz) }
+                        if (value == 0.0) continue
+
+                        if (size == xs.size) {
+                            val capacity = maxOf(8, size * 2)
+                            xs = xs.copyOf(capacity)
+                            ys = ys.copyOf(capacity)
+                            zs = zs.copyOf(capacity)
+                            heat = heat.copyOf(capacity)
+                        }
+                        xs[size] = baseX + lx
+                        ys[size] = baseY + ly
+                        zs[size] = baseZ + lz
+                        heat[size] = value
+                        size++
+                    }
+                }
+            }
+
+            return Section(xs.copyOf(size), ys.copyOf(size), zs.copyOf(size), heat.copyOf(size), now)
+        }
+    }
+}